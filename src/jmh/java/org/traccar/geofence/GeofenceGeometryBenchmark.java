@@ -0,0 +1,99 @@
+/*
+ * Copyright 2026 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.geofence;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+import org.traccar.model.Geofence;
+
+import java.text.ParseException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GeofenceGeometryBenchmark {
+
+    private static final int VERTICES = 10000;
+    private static final int POINTS = 1024;
+
+    private Config config;
+    private Geofence geofence;
+    private GeofencePolygon polygon;
+    private GeofencePolyline polyline;
+
+    private final double[] polygonPoints = new double[POINTS * 2];
+    private final double[] polylinePoints = new double[POINTS * 2];
+    private int index;
+
+    @Setup
+    public void setup() throws ParseException {
+        config = new Config();
+        config.setString(Keys.GEOFENCE_POLYLINE_DISTANCE, "50");
+        geofence = new Geofence();
+
+        Random random = new Random(42);
+
+        StringBuilder area = new StringBuilder("POLYGON ((");
+        for (int i = 0; i < VERTICES; i++) {
+            double angle = 2 * Math.PI * i / VERTICES;
+            double radius = 0.1 + 0.02 * random.nextDouble();
+            if (i > 0) {
+                area.append(", ");
+            }
+            area.append(55.75 + radius * Math.sin(angle)).append(' ').append(37.62 + radius * Math.cos(angle));
+        }
+        polygon = new GeofencePolygon(area.append("))").toString());
+
+        StringBuilder route = new StringBuilder("LINESTRING (");
+        for (int i = 0; i < VERTICES; i++) {
+            if (i > 0) {
+                route.append(", ");
+            }
+            route.append(50 + i * 0.0005 + 0.0002 * Math.sin(i * 0.1)).append(' ').append(10 + i * 0.0007);
+        }
+        polyline = new GeofencePolyline(route.append(')').toString());
+
+        for (int i = 0; i < POINTS; i++) {
+            polygonPoints[i * 2] = 55.75 + (random.nextDouble() - 0.5) * 0.3;
+            polygonPoints[i * 2 + 1] = 37.62 + (random.nextDouble() - 0.5) * 0.3;
+            int vertex = random.nextInt(VERTICES);
+            polylinePoints[i * 2] = 50 + vertex * 0.0005 + (random.nextDouble() - 0.5) * 0.002;
+            polylinePoints[i * 2 + 1] = 10 + vertex * 0.0007 + (random.nextDouble() - 0.5) * 0.002;
+        }
+    }
+
+    @Benchmark
+    public boolean polygonContains() {
+        index = (index + 1) % POINTS;
+        return polygon.containsPoint(config, geofence, polygonPoints[index * 2], polygonPoints[index * 2 + 1]);
+    }
+
+    @Benchmark
+    public boolean polylineContains() {
+        index = (index + 1) % POINTS;
+        return polyline.containsPoint(config, geofence, polylinePoints[index * 2], polylinePoints[index * 2 + 1]);
+    }
+
+}
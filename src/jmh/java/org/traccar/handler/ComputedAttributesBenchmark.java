@@ -0,0 +1,94 @@
+/*
+ * Copyright 2026 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.handler;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.traccar.config.Config;
+import org.traccar.model.Attribute;
+import org.traccar.model.Position;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ComputedAttributesBenchmark {
+
+    private static final String[] EXPRESSIONS = {
+        "adc1 * 0.01",
+        "speed > 5 && valid",
+        "(io1 & 4) != 0",
+        "fuel1 + fuel2",
+        "event == 42 ? \"lowBattery\" : null",
+        "math:max(adc1, adc2)",
+        "ignition ? \"on\" : \"off\"",
+        "power < 11.5",
+        "temp1 / 10.0",
+        "odometer / 1000",
+    };
+
+    private ComputedAttributesHandler handler;
+    private List<Attribute> attributes;
+    private Position position;
+
+    @Setup
+    public void setup() {
+        handler = new ComputedAttributesHandler(new Config(), null, false);
+
+        attributes = new ArrayList<>();
+        for (int i = 0; i < EXPRESSIONS.length; i++) {
+            Attribute attribute = new Attribute();
+            attribute.setId(i + 1);
+            attribute.setAttribute("computed" + i);
+            attribute.setExpression(EXPRESSIONS[i]);
+            attribute.setType("string");
+            attributes.add(attribute);
+        }
+
+        position = new Position();
+        position.setTime(new Date());
+        position.setValid(true);
+        position.setSpeed(42);
+        position.set("adc1", 1280);
+        position.set("adc2", 1000);
+        position.set("io1", 7);
+        position.set("fuel1", 40.5);
+        position.set("fuel2", 12.0);
+        position.set(Position.KEY_EVENT, 42);
+        position.set(Position.KEY_IGNITION, true);
+        position.set(Position.KEY_POWER, 12.4);
+        position.set("temp1", 215);
+        position.set(Position.KEY_ODOMETER, 123456789L);
+    }
+
+    @Benchmark
+    public void computePosition(Blackhole blackhole) {
+        for (Attribute attribute : attributes) {
+            blackhole.consume(handler.computeAttribute(attribute, position));
+        }
+    }
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2012 - 2024 Anton Tananaev (anton@traccar.org)
+ * Copyright 2012 - 2026 Anton Tananaev (anton@traccar.org)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,6 +21,9 @@ import com.google.inject.ProvisionException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.traccar.broadcast.BroadcastService;
+import org.traccar.database.ExecutorManager;
+import org.traccar.geocoder.GeocoderCache;
+import org.traccar.geolocation.GeolocationCache;
 import org.traccar.schedule.ScheduleManager;
 import org.traccar.storage.DatabaseModule;
 import org.traccar.web.WebModule;
@@ -35,7 +38,6 @@ import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
-import java.util.concurrent.ExecutorService;
 
 public final class Main {
 
@@ -141,7 +143,16 @@ public final class Main {
                         throw new RuntimeException(e);
                     }
                 }
-                injector.getInstance(ExecutorService.class).shutdown();
+                injector.getInstance(ExecutorManager.class).shutdown();
+
+                var geocoderCache = injector.getInstance(GeocoderCache.class);
+                if (geocoderCache != null) {
+                    geocoderCache.close();
+                }
+                var geolocationCache = injector.getInstance(GeolocationCache.class);
+                if (geolocationCache != null) {
+                    geolocationCache.close();
+                }
             }));
         } catch (Exception e) {
             Throwable unwrapped;
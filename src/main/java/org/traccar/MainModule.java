@@ -1,5 +1,5 @@
 /*
- * Copyright 2018 - 2025 Anton Tananaev (anton@traccar.org)
+ * Copyright 2018 - 2026 Anton Tananaev (anton@traccar.org)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -28,12 +28,14 @@ import com.nimbusds.oauth2.sdk.GeneralException;
 import io.netty.util.HashedWheelTimer;
 import io.netty.util.Timer;
 import org.apache.velocity.app.VelocityEngine;
+import org.glassfish.jersey.client.ClientConfig;
 import org.traccar.broadcast.BroadcastService;
 import org.traccar.broadcast.MulticastBroadcastService;
 import org.traccar.broadcast.RedisBroadcastService;
 import org.traccar.broadcast.NullBroadcastService;
 import org.traccar.config.Config;
 import org.traccar.config.Keys;
+import org.traccar.database.ExecutorManager;
 import org.traccar.database.LdapProvider;
 import org.traccar.database.OpenIdProvider;
 import org.traccar.database.StatisticsManager;
@@ -42,13 +44,16 @@ import org.traccar.forward.EventForwarderJson;
 import org.traccar.forward.EventForwarderAmqp;
 import org.traccar.forward.EventForwarderKafka;
 import org.traccar.forward.EventForwarderMqtt;
+import org.traccar.forward.EventForwarderOutbox;
 import org.traccar.forward.PositionForwarder;
 import org.traccar.forward.PositionForwarderJson;
+import org.traccar.forward.PositionForwarderJsonBatch;
 import org.traccar.forward.PositionForwarderAmqp;
 import org.traccar.forward.PositionForwarderKafka;
 import org.traccar.forward.PositionForwarderRedis;
 import org.traccar.forward.PositionForwarderUrl;
 import org.traccar.forward.PositionForwarderMqtt;
+import org.traccar.forward.PositionForwarderOutbox;
 import org.traccar.forward.PositionForwarderWialon;
 import org.traccar.geocoder.AddressFormat;
 import org.traccar.geocoder.BanGeocoder;
@@ -58,20 +63,25 @@ import org.traccar.geocoder.GeoapifyGeocoder;
 import org.traccar.geocoder.GeocodeFarmGeocoder;
 import org.traccar.geocoder.GeocodeXyzGeocoder;
 import org.traccar.geocoder.Geocoder;
+import org.traccar.geocoder.GeocoderCache;
+import org.traccar.geocoder.GeocoderLimiter;
 import org.traccar.geocoder.GisgraphyGeocoder;
 import org.traccar.geocoder.GoogleGeocoder;
 import org.traccar.geocoder.HereGeocoder;
+import org.traccar.geocoder.JsonGeocoder;
 import org.traccar.geocoder.LocationIqGeocoder;
 import org.traccar.geocoder.MapQuestGeocoder;
 import org.traccar.geocoder.MapTilerGeocoder;
 import org.traccar.geocoder.MapboxGeocoder;
 import org.traccar.geocoder.MapmyIndiaGeocoder;
 import org.traccar.geocoder.NominatimGeocoder;
+import org.traccar.geocoder.OfflineGeocoder;
 import org.traccar.geocoder.OpenCageGeocoder;
 import org.traccar.geocoder.PositionStackGeocoder;
 import org.traccar.geocoder.PlusCodesGeocoder;
 import org.traccar.geocoder.TomTomGeocoder;
 import org.traccar.geocoder.GeocodeJsonGeocoder;
+import org.traccar.geolocation.GeolocationCache;
 import org.traccar.geolocation.GeolocationProvider;
 import org.traccar.geolocation.GoogleGeolocationProvider;
 import org.traccar.geolocation.OpenCellIdGeolocationProvider;
@@ -82,6 +92,7 @@ import org.traccar.handler.GeocoderHandler;
 import org.traccar.handler.GeolocationHandler;
 import org.traccar.handler.SpeedLimitHandler;
 import org.traccar.handler.TimeHandler;
+import org.traccar.helper.JettyConnectorProvider;
 import org.traccar.helper.LogAction;
 import org.traccar.helper.ObjectMapperContextResolver;
 import org.traccar.helper.WebHelper;
@@ -92,6 +103,7 @@ import org.traccar.session.cache.CacheManager;
 import org.traccar.sms.HttpSmsClient;
 import org.traccar.sms.SmsManager;
 import org.traccar.sms.SnsSmsClient;
+import org.traccar.speedlimit.OfflineSpeedLimitProvider;
 import org.traccar.speedlimit.OverpassSpeedLimitProvider;
 import org.traccar.speedlimit.SpeedLimitProvider;
 import org.traccar.storage.DatabaseStorage;
@@ -108,7 +120,6 @@ import java.io.IOException;
 import java.net.URISyntaxException;
 import java.util.Properties;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 public class MainModule extends AbstractModule {
 
@@ -127,8 +138,8 @@ public class MainModule extends AbstractModule {
 
     @Singleton
     @Provides
-    public static ExecutorService provideExecutorService() {
-        return Executors.newCachedThreadPool();
+    public static ExecutorService provideExecutorService(ExecutorManager executorManager) {
+        return executorManager.getExecutor(ExecutorManager.Workload.SERVICE);
     }
 
     @Singleton
@@ -152,8 +163,14 @@ public class MainModule extends AbstractModule {
 
     @Singleton
     @Provides
-    public static Client provideClient(ObjectMapperContextResolver objectMapperContextResolver) {
-        return ClientBuilder.newClient().register(objectMapperContextResolver);
+    public static Client provideClient(
+            Config config, ObjectMapperContextResolver objectMapperContextResolver,
+            JettyConnectorProvider jettyConnectorProvider) {
+        ClientConfig clientConfig = new ClientConfig();
+        if (config.getString(Keys.CLIENT_CONNECTOR).equals("jetty")) {
+            clientConfig.connectorProvider(jettyConnectorProvider);
+        }
+        return ClientBuilder.newClient(clientConfig).register(objectMapperContextResolver);
     }
 
     @Singleton
@@ -208,7 +225,21 @@ public class MainModule extends AbstractModule {
 
     @Singleton
     @Provides
-    public static Geocoder provideGeocoder(Config config, Client client, StatisticsManager statisticsManager) {
+    public static GeocoderCache provideGeocoderCache(Config config) {
+        int cacheSize = config.getInteger(Keys.GEOCODER_CACHE_SIZE);
+        int cacheGrid = config.getInteger(Keys.GEOCODER_CACHE_GRID);
+        String cacheFile = config.getString(Keys.GEOCODER_CACHE_FILE);
+        if (config.getBoolean(Keys.GEOCODER_ENABLE) && cacheSize > 0 && (cacheGrid > 0 || cacheFile != null)) {
+            return new GeocoderCache(cacheSize, cacheGrid, cacheFile);
+        }
+        return null;
+    }
+
+    @Singleton
+    @Provides
+    public static Geocoder provideGeocoder(
+            Config config, Client client, StatisticsManager statisticsManager,
+            @Nullable GeocoderCache geocoderCache) throws IOException {
         if (config.getBoolean(Keys.GEOCODER_ENABLE)) {
             String type = config.getString(Keys.GEOCODER_TYPE);
             String url = config.getString(Keys.GEOCODER_URL);
@@ -220,6 +251,7 @@ public class MainModule extends AbstractModule {
             int cacheSize = config.getInteger(Keys.GEOCODER_CACHE_SIZE);
             Geocoder geocoder = switch (type) {
                 case "pluscodes" -> new PlusCodesGeocoder();
+                case "offline" -> new OfflineGeocoder(config.getString(Keys.GEOCODER_FILE), addressFormat);
                 case "nominatim" -> new NominatimGeocoder(client, url, key, language, cacheSize, addressFormat);
                 case "locationiq" -> new LocationIqGeocoder(client, url, key, language, cacheSize, addressFormat);
                 case "gisgraphy" -> new GisgraphyGeocoder(client, url, cacheSize, addressFormat);
@@ -240,6 +272,17 @@ public class MainModule extends AbstractModule {
                 case "geocodejson" -> new GeocodeJsonGeocoder(client, url, key, language, cacheSize, addressFormat);
                 default -> new GoogleGeocoder(client, url, key, language, cacheSize, addressFormat);
             };
+            if (geocoder instanceof JsonGeocoder jsonGeocoder) {
+                if (geocoderCache != null) {
+                    jsonGeocoder.setCache(geocoderCache);
+                }
+                double rateLimit = config.getDouble(Keys.GEOCODER_RATE_LIMIT);
+                int maxInFlight = config.getInteger(Keys.GEOCODER_MAX_IN_FLIGHT);
+                if (rateLimit > 0 || maxInFlight > 0) {
+                    jsonGeocoder.setLimiter(new GeocoderLimiter(
+                            rateLimit, config.getInteger(Keys.GEOCODER_RATE_BURST), maxInFlight));
+                }
+            }
             geocoder.setStatisticsManager(statisticsManager);
             return geocoder;
         }
@@ -264,25 +307,39 @@ public class MainModule extends AbstractModule {
 
     @Singleton
     @Provides
-    public static SpeedLimitProvider provideSpeedLimitProvider(Config config, Client client) {
+    public static SpeedLimitProvider provideSpeedLimitProvider(Config config, Client client) throws IOException {
         if (config.getBoolean(Keys.SPEED_LIMIT_ENABLE)) {
             String type = config.getString(Keys.SPEED_LIMIT_TYPE, "overpass");
             String url = config.getString(Keys.SPEED_LIMIT_URL);
             return switch (type) {
                 case "overpass" -> new OverpassSpeedLimitProvider(config, client, url);
+                case "offline" -> new OfflineSpeedLimitProvider(config, config.getString(Keys.SPEED_LIMIT_FILE));
                 default -> throw new IllegalArgumentException("Unknown speed limit provider");
             };
         }
         return null;
     }
 
+    @Singleton
+    @Provides
+    public static GeolocationCache provideGeolocationCache(Config config) {
+        int cacheSize = config.getInteger(Keys.GEOLOCATION_CACHE_SIZE);
+        if (config.getBoolean(Keys.GEOLOCATION_ENABLE) && cacheSize > 0) {
+            return new GeolocationCache(
+                    cacheSize, config.getLong(Keys.GEOLOCATION_CACHE_TTL) * 1000,
+                    config.getString(Keys.GEOLOCATION_CACHE_FILE));
+        }
+        return null;
+    }
+
     @Singleton
     @Provides
     public static GeolocationHandler provideGeolocationHandler(
             Config config, @Nullable GeolocationProvider geolocationProvider, CacheManager cacheManager,
-            StatisticsManager statisticsManager) {
+            StatisticsManager statisticsManager, @Nullable GeolocationCache geolocationCache) {
         if (geolocationProvider != null) {
-            return new GeolocationHandler(config, geolocationProvider, cacheManager, statisticsManager);
+            return new GeolocationHandler(
+                    config, geolocationProvider, cacheManager, statisticsManager, geolocationCache);
         }
         return null;
     }
@@ -290,9 +347,12 @@ public class MainModule extends AbstractModule {
     @Singleton
     @Provides
     public static GeocoderHandler provideGeocoderHandler(
-            Config config, @Nullable Geocoder geocoder, CacheManager cacheManager) {
+            Config config, @Nullable Geocoder geocoder, CacheManager cacheManager, Storage storage, Timer timer,
+            ExecutorManager executorManager) {
         if (geocoder != null) {
-            return new GeocoderHandler(config, geocoder, cacheManager);
+            return new GeocoderHandler(
+                    config, geocoder, cacheManager, storage, timer,
+                    executorManager.getExecutor(ExecutorManager.Workload.GEOCODING));
         }
         return null;
     }
@@ -350,15 +410,23 @@ public class MainModule extends AbstractModule {
 
     @Singleton
     @Provides
-    public static EventForwarder provideEventForwarder(Config config, Client client, ObjectMapper objectMapper) {
+    public static EventForwarder provideEventForwarder(
+            Config config, Client client, ObjectMapper objectMapper, Timer timer,
+            ExecutorManager executorManager) throws IOException {
         if (config.hasKey(Keys.EVENT_FORWARD_URL)) {
             String forwardType = config.getString(Keys.EVENT_FORWARD_TYPE);
-            return switch (forwardType) {
+            EventForwarder eventForwarder = switch (forwardType) {
                 case "amqp" -> new EventForwarderAmqp(config, objectMapper);
                 case "kafka" -> new EventForwarderKafka(config, objectMapper);
                 case "mqtt" -> new EventForwarderMqtt(config, objectMapper);
                 default -> new EventForwarderJson(config, client);
             };
+            if (config.hasKey(Keys.FORWARD_OUTBOX_DIRECTORY)) {
+                return new EventForwarderOutbox(
+                        config, timer, executorManager.getExecutor(ExecutorManager.Workload.OUTBOX),
+                        objectMapper, eventForwarder);
+            }
+            return eventForwarder;
         }
         return null;
     }
@@ -366,18 +434,27 @@ public class MainModule extends AbstractModule {
     @Singleton
     @Provides
     public static PositionForwarder providePositionForwarder(
-            Config config, Client client, ExecutorService executorService,
-            ObjectMapper objectMapper, CacheManager cacheManager) {
+            Config config, Client client, ExecutorManager executorManager,
+            ObjectMapper objectMapper, CacheManager cacheManager, Timer timer) throws IOException {
         if (config.hasKey(Keys.FORWARD_URL)) {
-            return switch (config.getString(Keys.FORWARD_TYPE)) {
+            PositionForwarder positionForwarder = switch (config.getString(Keys.FORWARD_TYPE)) {
                 case "json" -> new PositionForwarderJson(config, client, objectMapper, cacheManager);
-                case "amqp" -> new PositionForwarderAmqp(config, objectMapper);
+                case "jsonBatch" -> new PositionForwarderJsonBatch(config, client, objectMapper, cacheManager, timer);
+                case "amqp" -> new PositionForwarderAmqp(config, objectMapper, timer);
                 case "kafka" -> new PositionForwarderKafka(config, objectMapper);
-                case "mqtt" -> new PositionForwarderMqtt(config, objectMapper);
-                case "redis" -> new PositionForwarderRedis(config, objectMapper);
-                case "wialon" -> new PositionForwarderWialon(config, executorService, "1.0", false);
+                case "mqtt" -> new PositionForwarderMqtt(config, objectMapper, timer);
+                case "redis" -> new PositionForwarderRedis(
+                        config, objectMapper, executorManager.getExecutor(ExecutorManager.Workload.FORWARDING));
+                case "wialon" -> new PositionForwarderWialon(
+                        config, executorManager.getExecutor(ExecutorManager.Workload.FORWARDING), "1.0", false);
                 default -> new PositionForwarderUrl(config, client, objectMapper);
             };
+            if (config.hasKey(Keys.FORWARD_OUTBOX_DIRECTORY)) {
+                return new PositionForwarderOutbox(
+                        config, timer, executorManager.getExecutor(ExecutorManager.Workload.OUTBOX),
+                        objectMapper, positionForwarder);
+            }
+            return positionForwarder;
         }
         return null;
     }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2023 - 2024 Anton Tananaev (anton@traccar.org)
+ * Copyright 2023 - 2026 Anton Tananaev (anton@traccar.org)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,13 +20,23 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.traccar.config.Config;
 import org.traccar.config.Keys;
+import org.traccar.helper.RedisHelper;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
 import redis.clients.jedis.JedisPubSub;
+import redis.clients.jedis.Pipeline;
 import redis.clients.jedis.exceptions.JedisConnectionException;
 import redis.clients.jedis.exceptions.JedisException;
 
@@ -34,6 +44,8 @@ public class RedisBroadcastService extends BaseBroadcastService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(RedisBroadcastService.class);
 
+    private static final int PENDING_LIMIT = 10000;
+
     private final ObjectMapper objectMapper;
 
     private final ExecutorService executorService;
@@ -41,7 +53,11 @@ public class RedisBroadcastService extends BaseBroadcastService {
     private final String channel = "traccar";
 
     private Jedis subscriber;
-    private Jedis publisher;
+    private JedisPool publisher;
+
+    private final Queue<String> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicBoolean publishing = new AtomicBoolean();
 
     private final String id = UUID.randomUUID().toString();
 
@@ -53,7 +69,7 @@ public class RedisBroadcastService extends BaseBroadcastService {
 
         try {
             subscriber = new Jedis(url);
-            publisher = new Jedis(url);
+            publisher = RedisHelper.createPool(url, config.getInteger(Keys.BROADCAST_REDIS_CONNECTIONS));
             subscriber.connect();
         } catch (JedisConnectionException e) {
             throw new IOException(e);
@@ -67,11 +83,61 @@ public class RedisBroadcastService extends BaseBroadcastService {
 
     @Override
     protected void sendMessage(BroadcastMessage message) {
+        String payload;
         try {
-            String payload = id  + ":" + objectMapper.writeValueAsString(message);
-            publisher.publish(channel, payload);
-        } catch (IOException | JedisConnectionException e) {
+            payload = id  + ":" + objectMapper.writeValueAsString(message);
+        } catch (IOException e) {
             LOGGER.warn("Broadcast failed", e);
+            return;
+        }
+        if (pendingCount.incrementAndGet() > PENDING_LIMIT) {
+            pendingCount.decrementAndGet();
+            LOGGER.warn("Broadcast dropped, too many pending messages");
+            return;
+        }
+        pending.add(payload);
+        schedulePublish();
+    }
+
+    private void schedulePublish() {
+        if (publishing.compareAndSet(false, true)) {
+            try {
+                executorService.execute(this::publish);
+            } catch (RejectedExecutionException e) {
+                publishing.set(false);
+                LOGGER.warn("Broadcast publish rejected", e);
+            }
+        }
+    }
+
+    /**
+     * Publishes all pending messages in one pipeline. Messages sent while a pipeline is in progress are collected for
+     * the next one.
+     */
+    private void publish() {
+        try {
+            List<String> payloads = new ArrayList<>();
+            String payload;
+            while ((payload = pending.poll()) != null) {
+                payloads.add(payload);
+            }
+            pendingCount.addAndGet(-payloads.size());
+            if (!payloads.isEmpty() && publisher != null) {
+                try (Jedis jedis = publisher.getResource()) {
+                    Pipeline pipeline = jedis.pipelined();
+                    for (String item : payloads) {
+                        pipeline.publish(channel, item);
+                    }
+                    pipeline.sync();
+                } catch (JedisException e) {
+                    LOGGER.warn("Broadcast failed", e);
+                }
+            }
+        } finally {
+            publishing.set(false);
+        }
+        if (!pending.isEmpty()) {
+            schedulePublish();
         }
     }
 
@@ -1,5 +1,5 @@
 /*
- * Copyright 2019 - 2022 Anton Tananaev (anton@traccar.org)
+ * Copyright 2019 - 2026 Anton Tananaev (anton@traccar.org)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,14 +17,24 @@ package org.traccar.config;
 
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public abstract class ConfigKey<T> {
 
+    private record IndexKey(String key, Class<?> valueClass) {
+    }
+
+    private static final Map<IndexKey, Integer> INDEXES = new ConcurrentHashMap<>();
+    private static final AtomicInteger INDEX_COUNT = new AtomicInteger();
+
     private final String key;
     private final Set<KeyType> types = new HashSet<>();
     private final Class<T> valueClass;
     private final T defaultValue;
+    private int index = -1;
 
     ConfigKey(String key, List<KeyType> types, Class<T> valueClass, T defaultValue) {
         this.key = key;
@@ -49,6 +59,21 @@ public abstract class ConfigKey<T> {
         return defaultValue;
     }
 
+    /**
+     * Dense index shared by all keys with the same name and value type. Used for array based value caches.
+     */
+    public int getIndex() {
+        if (index < 0) {
+            index = INDEXES.computeIfAbsent(
+                    new IndexKey(key, valueClass), k -> INDEX_COUNT.getAndIncrement());
+        }
+        return index;
+    }
+
+    public static int getIndexCount() {
+        return INDEX_COUNT.get();
+    }
+
 }
 
 class StringConfigKey extends ConfigKey<String> {
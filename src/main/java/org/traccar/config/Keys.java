@@ -508,6 +508,16 @@ public final class Keys {
             "database.maxPoolSize",
             List.of(KeyType.CONFIG));
 
+    /**
+     * Number of rows fetched from the database at a time when streaming position exports. It keeps memory usage flat
+     * for large exports. Other queries use the driver default. For MySQL, the 'useCursorFetch=true' URL parameter is
+     * required to take effect. Set to 0 to use the driver default.
+     */
+    public static final ConfigKey<Integer> DATABASE_FETCH_SIZE = new IntegerConfigKey(
+            "database.fetchSize",
+            List.of(KeyType.CONFIG),
+            1000);
+
     /**
      * SQL query to check connection status. Default value is 'SELECT 1'. For Oracle database you can use
      * 'SELECT 1 FROM DUAL'.
@@ -905,7 +915,8 @@ public final class Keys {
             List.of(KeyType.CONFIG));
 
     /**
-     * Position forwarding format. Available options are "url", "json" and "kafka". Default is "url".
+     * Position forwarding format. Available options are "url", "json", "jsonBatch", "amqp", "kafka", "mqtt", "redis"
+     * and "wialon". Default is "url".
      */
     public static final ConfigKey<String> FORWARD_TYPE = new StringConfigKey(
             "forward.type",
@@ -921,7 +932,8 @@ public final class Keys {
             "traccar");
 
     /**
-     * Position forwarding Kafka topic or AQMP Routing Key.
+     * Position forwarding Kafka topic, AQMP Routing Key or MQTT topic. MQTT topic can include {uniqueId} and {groupId}
+     * placeholders, for example, to publish positions per fleet.
      */
     public static final ConfigKey<String> FORWARD_TOPIC = new StringConfigKey(
             "forward.topic",
@@ -943,6 +955,89 @@ public final class Keys {
             "forward.header",
             List.of(KeyType.CONFIG));
 
+    /**
+     * Maximum number of positions in one request for the "jsonBatch" forwarding type or in one message for AMQP and
+     * MQTT forwarding with batching enabled. Also limits Redis pipeline size.
+     */
+    public static final ConfigKey<Integer> FORWARD_BATCH_SIZE = new IntegerConfigKey(
+            "forward.batch.size",
+            List.of(KeyType.CONFIG),
+            100);
+
+    /**
+     * Maximum time in milliseconds a position waits in a batch before the batch is sent.
+     */
+    public static final ConfigKey<Long> FORWARD_BATCH_DELAY = new LongConfigKey(
+            "forward.batch.delay",
+            List.of(KeyType.CONFIG),
+            1000L);
+
+    /**
+     * Compress batched requests with gzip. The receiving server has to support the gzip content encoding.
+     */
+    public static final ConfigKey<Boolean> FORWARD_BATCH_GZIP = new BooleanConfigKey(
+            "forward.batch.gzip",
+            List.of(KeyType.CONFIG));
+
+    /**
+     * Number of AMQP channels used for publishing. Messages are distributed between channels and each channel waits
+     * for publisher confirms independently.
+     */
+    public static final ConfigKey<Integer> FORWARD_AMQP_CHANNELS = new IntegerConfigKey(
+            "forward.amqp.channels",
+            List.of(KeyType.CONFIG),
+            4);
+
+    /**
+     * Publish positions to AMQP as JSON arrays instead of one message per position. Batches are limited by
+     * 'forward.batch.size' and 'forward.batch.delay'.
+     */
+    public static final ConfigKey<Boolean> FORWARD_AMQP_BATCH = new BooleanConfigKey(
+            "forward.amqp.batch",
+            List.of(KeyType.CONFIG));
+
+    /**
+     * Maximum number of pooled Redis connections used for position forwarding.
+     */
+    public static final ConfigKey<Integer> FORWARD_REDIS_CONNECTIONS = new IntegerConfigKey(
+            "forward.redis.connections",
+            List.of(KeyType.CONFIG),
+            8);
+
+    /**
+     * Maximum number of positions waiting to be written to Redis. Positions above the limit fail immediately and go
+     * through the forwarding retry logic.
+     */
+    public static final ConfigKey<Integer> FORWARD_REDIS_BUFFER = new IntegerConfigKey(
+            "forward.redis.buffer",
+            List.of(KeyType.CONFIG),
+            10000);
+
+    /**
+     * Maximum number of MQTT messages waiting for broker acknowledgement.
+     */
+    public static final ConfigKey<Integer> FORWARD_MQTT_IN_FLIGHT = new IntegerConfigKey(
+            "forward.mqtt.inFlight",
+            List.of(KeyType.CONFIG),
+            100);
+
+    /**
+     * Maximum number of MQTT messages buffered while the in-flight window is full or the connection is down. Messages
+     * above the limit fail immediately and go through the forwarding retry logic.
+     */
+    public static final ConfigKey<Integer> FORWARD_MQTT_BUFFER = new IntegerConfigKey(
+            "forward.mqtt.buffer",
+            List.of(KeyType.CONFIG),
+            10000);
+
+    /**
+     * Publish positions with the same MQTT topic as JSON arrays. Batches are limited by 'forward.batch.size' and
+     * 'forward.batch.delay'.
+     */
+    public static final ConfigKey<Boolean> FORWARD_MQTT_BATCH = new BooleanConfigKey(
+            "forward.mqtt.batch",
+            List.of(KeyType.CONFIG));
+
     /**
      * Position forwarding retrying enable. When enabled, additional attempts are made to deliver positions. If initial
      * delivery fails, because of an unreachable server or an HTTP response different from '2xx', the software waits
@@ -981,6 +1076,91 @@ public final class Keys {
             List.of(KeyType.CONFIG),
             100);
 
+    /**
+     * Position forwarding payload format. Available options are "json" and "protobuf". Protobuf messages follow the
+     * PositionForward.proto schema. Used by the Kafka and Redis forwarders.
+     */
+    public static final ConfigKey<String> FORWARD_FORMAT = new StringConfigKey(
+            "forward.format",
+            List.of(KeyType.CONFIG),
+            "json");
+
+    /**
+     * Kafka producer linger time in milliseconds. Records sent within this window are grouped into one request.
+     * Applies to both position and event forwarding.
+     */
+    public static final ConfigKey<Integer> FORWARD_KAFKA_LINGER = new IntegerConfigKey(
+            "forward.kafka.linger",
+            List.of(KeyType.CONFIG),
+            5);
+
+    /**
+     * Kafka producer batch size limit per partition in bytes. Applies to both position and event forwarding.
+     */
+    public static final ConfigKey<Integer> FORWARD_KAFKA_BATCH_SIZE = new IntegerConfigKey(
+            "forward.kafka.batchSize",
+            List.of(KeyType.CONFIG),
+            65536);
+
+    /**
+     * Kafka producer compression type. Available options are "none", "gzip", "snappy", "lz4" and "zstd". Applies to
+     * both position and event forwarding. Default is "none", same as the Kafka producer itself.
+     */
+    public static final ConfigKey<String> FORWARD_KAFKA_COMPRESSION = new StringConfigKey(
+            "forward.kafka.compression",
+            List.of(KeyType.CONFIG),
+            "none");
+
+    /**
+     * Directory for the durable forwarding outbox. When set, positions and events are appended to a local log first
+     * and then delivered to the forwarder, so pending data survives downstream outages and server restarts.
+     */
+    public static final ConfigKey<String> FORWARD_OUTBOX_DIRECTORY = new StringConfigKey(
+            "forward.outbox.directory",
+            List.of(KeyType.CONFIG));
+
+    /**
+     * Forwarding outbox segment file size in bytes. Default is 16 MB.
+     */
+    public static final ConfigKey<Integer> FORWARD_OUTBOX_SEGMENT_SIZE = new IntegerConfigKey(
+            "forward.outbox.segmentSize",
+            List.of(KeyType.CONFIG),
+            16 * 1024 * 1024);
+
+    /**
+     * Maximum disk space in bytes used by each forwarding outbox. When the limit is reached, the oldest undelivered
+     * segment is dropped. Default is 1 GB.
+     */
+    public static final ConfigKey<Long> FORWARD_OUTBOX_MAX_SIZE = new LongConfigKey(
+            "forward.outbox.maxSize",
+            List.of(KeyType.CONFIG),
+            1024L * 1024 * 1024);
+
+    /**
+     * Interval in milliseconds for syncing outbox data and delivery cursor to disk.
+     */
+    public static final ConfigKey<Long> FORWARD_OUTBOX_SYNC_INTERVAL = new LongConfigKey(
+            "forward.outbox.syncInterval",
+            List.of(KeyType.CONFIG),
+            1000L);
+
+    /**
+     * Maximum number of outbox records being delivered at the same time.
+     */
+    public static final ConfigKey<Integer> FORWARD_OUTBOX_IN_FLIGHT = new IntegerConfigKey(
+            "forward.outbox.inFlight",
+            List.of(KeyType.CONFIG),
+            100);
+
+    /**
+     * Maximum number of delivery retries for an outbox record. After that the record is appended to the 'dead.log'
+     * file in the outbox directory and delivery continues with the next record. Zero means retrying indefinitely.
+     */
+    public static final ConfigKey<Integer> FORWARD_OUTBOX_RETRY_COUNT = new IntegerConfigKey(
+            "forward.outbox.retryCount",
+            List.of(KeyType.CONFIG),
+            50);
+
     /**
      * Events forwarding format. Available options are "json" and "kafka". Default is "json".
      */
@@ -1344,6 +1524,23 @@ public final class Keys {
             "report.periodLimit",
             List.of(KeyType.CONFIG));
 
+    /**
+     * Maximum number of devices processed in parallel for a single report. Set to 1 to process devices sequentially.
+     */
+    public static final ConfigKey<Integer> REPORT_PARALLELISM = new IntegerConfigKey(
+            "report.parallelism",
+            List.of(KeyType.CONFIG),
+            4);
+
+    /**
+     * Maximum number of devices processed at the same time across all running reports. Each one holds a database
+     * connection, so the value should stay below the database pool size.
+     */
+    public static final ConfigKey<Integer> REPORT_MAX_QUERIES = new IntegerConfigKey(
+            "report.maxQueries",
+            List.of(KeyType.CONFIG),
+            8);
+
     /**
      * Time threshold for fast reports. Fast reports are more efficient, but less accurate and missing some information.
      * The value is in seconds. One day by default.
@@ -1385,6 +1582,15 @@ public final class Keys {
             List.of(KeyType.CONFIG, KeyType.DEVICE),
             3600L);
 
+    /**
+     * Record trips and stops while processing positions. Trips and stops reports then read recorded values instead of
+     * calculating them from positions for periods after recording started. Trips are split at gaps longer than
+     * 'report.trip.minimalNoDataDuration' and ones crossing the report period are cut at its first and last positions.
+     */
+    public static final ConfigKey<Boolean> REPORT_TRIP_MATERIALIZE = new BooleanConfigKey(
+            "report.trip.materialize",
+            List.of(KeyType.CONFIG));
+
     /**
      * Flag to enable ignition use for trips calculation.
      */
@@ -1402,6 +1608,34 @@ public final class Keys {
             List.of(KeyType.CONFIG, KeyType.DEVICE),
             false);
 
+    /**
+     * Build per-device daily summaries in the background once each UTC day is closed. Daily summary reports take
+     * whole UTC days directly from them, and other summary reports take the maximum speed of complete days from them
+     * instead of scanning raw positions. Positions that arrive late for a closed day remove its summary, so it is
+     * rebuilt on the next run. Trips and stops reports are served by 'report.trip.materialize' instead.
+     */
+    public static final ConfigKey<Boolean> REPORT_ROLLUP_ENABLE = new BooleanConfigKey(
+            "report.rollup.enable",
+            List.of(KeyType.CONFIG));
+
+    /**
+     * Number of past days for which missing daily summaries are built. Older days without a summary are calculated
+     * from raw positions.
+     */
+    public static final ConfigKey<Integer> REPORT_ROLLUP_DAYS = new IntegerConfigKey(
+            "report.rollup.days",
+            List.of(KeyType.CONFIG),
+            31);
+
+    /**
+     * Delay in seconds after the end of a day before its summary is built, so that late and buffered positions are
+     * included. One hour by default.
+     */
+    public static final ConfigKey<Long> REPORT_ROLLUP_DELAY = new LongConfigKey(
+            "report.rollup.delay",
+            List.of(KeyType.CONFIG),
+            3600L);
+
     /**
      * Boolean flag to enable or disable position filtering.
      */
@@ -1667,6 +1901,96 @@ public final class Keys {
             "processing.computedAttributes.newInstanceCreation",
             List.of(KeyType.CONFIG));
 
+    /**
+     * Maximum number of threads in a workload executor. Workloads are service, forwarding, outbox, geocoding,
+     * reports and reportDevices. For example, 'executor.forwarding.threads'.
+     */
+    public static final ConfigSuffix<Integer> EXECUTOR_THREADS = new IntegerConfigSuffix(
+            ".threads",
+            List.of(KeyType.CONFIG));
+
+    /**
+     * Maximum number of tasks waiting in a workload executor queue. Zero means tasks are not queued.
+     */
+    public static final ConfigSuffix<Integer> EXECUTOR_QUEUE = new IntegerConfigSuffix(
+            ".queue",
+            List.of(KeyType.CONFIG));
+
+    /**
+     * What to do with tasks when a workload executor is full. Available options: abort, callerRuns, discard. Discarded
+     * tasks are logged and counted in statistics.
+     */
+    public static final ConfigSuffix<String> EXECUTOR_REJECTION = new StringConfigSuffix(
+            ".rejection",
+            List.of(KeyType.CONFIG));
+
+    /**
+     * Connector for outbound HTTP requests made by geocoders, geolocation, speed limit providers, notificators and
+     * forwarders. Available options: jetty, default. The jetty connector uses pooled connections and non-blocking
+     * requests. The default connector is based on HttpURLConnection. Default value is jetty.
+     */
+    public static final ConfigKey<String> CLIENT_CONNECTOR = new StringConfigKey(
+            "client.connector",
+            List.of(KeyType.CONFIG),
+            "jetty");
+
+    /**
+     * Maximum number of pooled connections per remote host. Default value is 64.
+     */
+    public static final ConfigKey<Integer> CLIENT_MAX_CONNECTIONS_PER_HOST = new IntegerConfigKey(
+            "client.maxConnectionsPerHost",
+            List.of(KeyType.CONFIG),
+            64);
+
+    /**
+     * Maximum number of requests waiting for a free connection per remote host. Requests over the limit fail
+     * immediately. Default value is 1024.
+     */
+    public static final ConfigKey<Integer> CLIENT_MAX_QUEUED_PER_HOST = new IntegerConfigKey(
+            "client.maxQueuedPerHost",
+            List.of(KeyType.CONFIG),
+            1024);
+
+    /**
+     * Maximum number of threads used by the outbound HTTP client for I/O and callbacks. Default value is 64.
+     */
+    public static final ConfigKey<Integer> CLIENT_MAX_THREADS = new IntegerConfigKey(
+            "client.maxThreads",
+            List.of(KeyType.CONFIG),
+            64);
+
+    /**
+     * Outbound HTTP connection timeout in milliseconds. Default value is 15 seconds.
+     */
+    public static final ConfigKey<Long> CLIENT_CONNECT_TIMEOUT = new LongConfigKey(
+            "client.connectTimeout",
+            List.of(KeyType.CONFIG),
+            15000L);
+
+    /**
+     * Idle time in milliseconds after which pooled connections are closed. Default value is 30 seconds.
+     */
+    public static final ConfigKey<Long> CLIENT_IDLE_TIMEOUT = new LongConfigKey(
+            "client.idleTimeout",
+            List.of(KeyType.CONFIG),
+            30000L);
+
+    /**
+     * Total outbound HTTP request timeout in milliseconds. Default value is 60 seconds.
+     */
+    public static final ConfigKey<Long> CLIENT_REQUEST_TIMEOUT = new LongConfigKey(
+            "client.requestTimeout",
+            List.of(KeyType.CONFIG),
+            60000L);
+
+    /**
+     * Maximum response size in bytes for outbound HTTP requests. Default value is 16 MB.
+     */
+    public static final ConfigKey<Integer> CLIENT_MAX_RESPONSE_SIZE = new IntegerConfigKey(
+            "client.maxResponseSize",
+            List.of(KeyType.CONFIG),
+            16 * 1024 * 1024);
+
     /**
      * Boolean flag to enable or disable reverse geocoder.
      */
@@ -1690,6 +2014,15 @@ public final class Keys {
             "geocoder.url",
             List.of(KeyType.CONFIG));
 
+    /**
+     * Local dataset file for the offline geocoder. It can be a delimited file with a header row (latitude, longitude,
+     * house, street, suburb, settlement, district, state, country, postcode, address) or a GeoNames dump. Files with
+     * gz extension are decompressed while loading.
+     */
+    public static final ConfigKey<String> GEOCODER_FILE = new StringConfigKey(
+            "geocoder.file",
+            List.of(KeyType.CONFIG));
+
     /**
      * Provider API key. Most providers require API keys.
      */
@@ -1719,6 +2052,62 @@ public final class Keys {
             "geocoder.cacheSize",
             List.of(KeyType.CONFIG));
 
+    /**
+     * Geocoding cache grid cell size in meters. Positions within the same cell share a cached address, which avoids
+     * repeated requests for parked vehicles with GPS jitter. By default coordinates have to match exactly.
+     */
+    public static final ConfigKey<Integer> GEOCODER_CACHE_GRID = new IntegerConfigKey(
+            "geocoder.cacheGrid",
+            List.of(KeyType.CONFIG));
+
+    /**
+     * Path to a file for persisting geocoding cache between restarts. If not set, the cache is kept in memory only.
+     */
+    public static final ConfigKey<String> GEOCODER_CACHE_FILE = new StringConfigKey(
+            "geocoder.cacheFile",
+            List.of(KeyType.CONFIG));
+
+    /**
+     * Maximum number of reverse geocoding requests per second sent to the provider. By default, requests are not
+     * rate limited.
+     */
+    public static final ConfigKey<Double> GEOCODER_RATE_LIMIT = new DoubleConfigKey(
+            "geocoder.rateLimit",
+            List.of(KeyType.CONFIG));
+
+    /**
+     * Number of requests that can be sent in a burst above the rate limit. Default value is 1.
+     */
+    public static final ConfigKey<Integer> GEOCODER_RATE_BURST = new IntegerConfigKey(
+            "geocoder.rateBurst",
+            List.of(KeyType.CONFIG),
+            1);
+
+    /**
+     * Maximum number of concurrent reverse geocoding requests. By default, concurrency is not limited.
+     */
+    public static final ConfigKey<Integer> GEOCODER_MAX_IN_FLIGHT = new IntegerConfigKey(
+            "geocoder.maxInFlight",
+            List.of(KeyType.CONFIG));
+
+    /**
+     * What to do with positions over the geocoding limits. With 'skip' positions are stored without address. With
+     * 'defer' positions are stored without address and the address is filled in later in background. Cached
+     * addresses are never limited. Default value is 'defer'.
+     */
+    public static final ConfigKey<String> GEOCODER_SHED_POLICY = new StringConfigKey(
+            "geocoder.shedPolicy",
+            List.of(KeyType.CONFIG),
+            "defer");
+
+    /**
+     * Maximum number of positions waiting for deferred geocoding. Positions above the limit are skipped.
+     */
+    public static final ConfigKey<Integer> GEOCODER_DEFER_LIMIT = new IntegerConfigKey(
+            "geocoder.deferLimit",
+            List.of(KeyType.CONFIG),
+            10000);
+
     /**
      * Disable automatic reverse geocoding requests for all positions.
      */
@@ -1796,6 +2185,29 @@ public final class Keys {
             "geolocation.reuse",
             List.of(KeyType.CONFIG));
 
+    /**
+     * Number of geolocation results to cache. Results are keyed by the set of reported cell towers and Wi-Fi access
+     * points, so repeated requests for the same network are answered locally. Caching is disabled by default.
+     */
+    public static final ConfigKey<Integer> GEOLOCATION_CACHE_SIZE = new IntegerConfigKey(
+            "geolocation.cacheSize",
+            List.of(KeyType.CONFIG));
+
+    /**
+     * Time to live for cached geolocation results in seconds. Default value is 7 days.
+     */
+    public static final ConfigKey<Long> GEOLOCATION_CACHE_TTL = new LongConfigKey(
+            "geolocation.cacheTtl",
+            List.of(KeyType.CONFIG),
+            604800L);
+
+    /**
+     * Path to a file for persisting geolocation cache between restarts. If not set, the cache is kept in memory only.
+     */
+    public static final ConfigKey<String> GEOLOCATION_CACHE_FILE = new StringConfigKey(
+            "geolocation.cacheFile",
+            List.of(KeyType.CONFIG));
+
     /**
      * Process geolocation only when Wi-Fi information is available. This makes the result more accurate.
      */
@@ -1825,7 +2237,7 @@ public final class Keys {
             List.of(KeyType.CONFIG));
 
     /**
-     * Provider to use for speed limit. Available options: overpass. By default overpass is used.
+     * Provider to use for speed limit. Available options: overpass, offline. By default overpass is used.
      */
     public static final ConfigKey<String> SPEED_LIMIT_TYPE = new StringConfigKey(
             "speedLimit.type",
@@ -1838,6 +2250,31 @@ public final class Keys {
             "speedLimit.url",
             List.of(KeyType.CONFIG));
 
+    /**
+     * Local OSM XML extract with road speed limits for the offline provider. Files with gz extension are decompressed
+     * while loading.
+     */
+    public static final ConfigKey<String> SPEED_LIMIT_FILE = new StringConfigKey(
+            "speedLimit.file",
+            List.of(KeyType.CONFIG));
+
+    /**
+     * Number of road tiles kept in memory by the overpass provider. Ways are requested once per tile and matched
+     * locally. Set to 0 to query the provider for every position. Default value is 100.
+     */
+    public static final ConfigKey<Integer> SPEED_LIMIT_CACHE_SIZE = new IntegerConfigKey(
+            "speedLimit.cacheSize",
+            List.of(KeyType.CONFIG),
+            100);
+
+    /**
+     * Road tile size in meters. Default value is 2000.
+     */
+    public static final ConfigKey<Integer> SPEED_LIMIT_TILE_SIZE = new IntegerConfigKey(
+            "speedLimit.tileSize",
+            List.of(KeyType.CONFIG),
+            2000);
+
     /**
      * Search radius for speed limit. Value is in meters. Default value is 100.
      */
@@ -2041,6 +2478,15 @@ public final class Keys {
             "broadcast.port",
             List.of(KeyType.CONFIG));
 
+    /**
+     * Maximum number of pooled Redis connections used for publishing broadcast events. Messages are published by one
+     * task at a time, so a small pool is enough.
+     */
+    public static final ConfigKey<Integer> BROADCAST_REDIS_CONNECTIONS = new IntegerConfigKey(
+            "broadcast.redis.connections",
+            List.of(KeyType.CONFIG),
+            2);
+
     /**
      * Flag to mark secondary servers. Some tasks, like scheduled reports, will be executed on the main server only.
      */
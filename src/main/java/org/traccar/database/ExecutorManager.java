@@ -0,0 +1,164 @@
+/*
+ * Copyright 2026 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.database;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded thread pools separated by workload, so that a slow subsystem can't exhaust threads used by others.
+ */
+@Singleton
+public class ExecutorManager {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExecutorManager.class);
+
+    public enum Workload {
+        SERVICE("service", 32, 0, "abort"),
+        FORWARDING("forwarding", 16, 1000, "abort"),
+        OUTBOX("outbox", 2, 1000, "callerRuns"),
+        GEOCODING("geocoding", 8, 10000, "abort"),
+        REPORTS("reports", 4, 100, "abort"),
+        REPORT_DEVICES("reportDevices", 8, 0, "abort");
+
+        private final String name;
+        private final int threads;
+        private final int queue;
+        private final String rejection;
+
+        Workload(String name, int threads, int queue, String rejection) {
+            this.name = name;
+            this.threads = threads;
+            this.queue = queue;
+            this.rejection = rejection;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    public record PoolStatistics(int peakActive, int peakQueued, int rejected) {
+    }
+
+    private static final class Pool extends ThreadPoolExecutor {
+
+        private final AtomicInteger peakActive = new AtomicInteger();
+        private final AtomicInteger peakQueued = new AtomicInteger();
+        private final AtomicInteger rejected = new AtomicInteger();
+
+        private Pool(String name, int threads, BlockingQueue<Runnable> queue, RejectedExecutionHandler handler) {
+            super(threads, threads, 60, TimeUnit.SECONDS, queue, new NamedThreadFactory(name));
+            allowCoreThreadTimeOut(true);
+            setRejectedExecutionHandler((runnable, executor) -> {
+                rejected.incrementAndGet();
+                handler.rejectedExecution(runnable, executor);
+            });
+        }
+
+        @Override
+        protected void beforeExecute(Thread thread, Runnable runnable) {
+            peakActive.accumulateAndGet(getActiveCount(), Math::max);
+            peakQueued.accumulateAndGet(getQueue().size() + 1, Math::max);
+            super.beforeExecute(thread, runnable);
+        }
+
+        private PoolStatistics resetStatistics() {
+            return new PoolStatistics(peakActive.getAndSet(0), peakQueued.getAndSet(0), rejected.getAndSet(0));
+        }
+
+    }
+
+    private static final class NamedThreadFactory implements ThreadFactory {
+
+        private final String name;
+        private final AtomicInteger index = new AtomicInteger();
+
+        private NamedThreadFactory(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, name + "-" + index.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+
+    }
+
+    private final Map<Workload, Pool> pools = new EnumMap<>(Workload.class);
+
+    @Inject
+    public ExecutorManager(Config config) {
+        for (Workload workload : Workload.values()) {
+            String prefix = "executor." + workload.name;
+            int threads = config.getInteger(Keys.EXECUTOR_THREADS.withPrefix(prefix), workload.threads);
+            int queue = config.getInteger(Keys.EXECUTOR_QUEUE.withPrefix(prefix), workload.queue);
+            String rejection = config.getString(Keys.EXECUTOR_REJECTION.withPrefix(prefix), workload.rejection);
+            pools.put(workload, new Pool(
+                    workload.name, threads,
+                    queue > 0 ? new LinkedBlockingQueue<>(queue) : new SynchronousQueue<>(),
+                    createHandler(workload.name, rejection)));
+        }
+    }
+
+    private static RejectedExecutionHandler createHandler(String name, String rejection) {
+        return switch (rejection) {
+            case "callerRuns" -> new ThreadPoolExecutor.CallerRunsPolicy();
+            case "discard" -> (runnable, executor) -> LOGGER.warn("Executor {} is full, task discarded", name);
+            case "abort" -> (runnable, executor) -> {
+                throw new RejectedExecutionException("Executor " + name + " is full");
+            };
+            default -> throw new IllegalArgumentException("Unknown rejection policy " + rejection);
+        };
+    }
+
+    public ExecutorService getExecutor(Workload workload) {
+        return pools.get(workload);
+    }
+
+    /**
+     * Peak usage and rejected task count per workload since the previous call.
+     */
+    public Map<Workload, PoolStatistics> resetStatistics() {
+        Map<Workload, PoolStatistics> result = new EnumMap<>(Workload.class);
+        pools.forEach((workload, pool) -> result.put(workload, pool.resetStatistics()));
+        return result;
+    }
+
+    public void shutdown() {
+        pools.values().forEach(ThreadPoolExecutor::shutdown);
+    }
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2016 - 2024 Anton Tananaev (anton@traccar.org)
+ * Copyright 2016 - 2026 Anton Tananaev (anton@traccar.org)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -23,6 +23,7 @@ import org.traccar.api.security.ServiceAccountUser;
 import org.traccar.config.Config;
 import org.traccar.config.Keys;
 import org.traccar.helper.DateUtil;
+import org.traccar.helper.JettyConnectorProvider;
 import org.traccar.model.Statistics;
 import org.traccar.storage.Storage;
 import org.traccar.storage.StorageException;
@@ -53,6 +54,8 @@ public class StatisticsManager {
     private final Storage storage;
     private final Client client;
     private final ObjectMapper objectMapper;
+    private final ExecutorManager executorManager;
+    private final JettyConnectorProvider connectorProvider;
 
     private final AtomicInteger lastUpdate = new AtomicInteger(Calendar.getInstance().get(SPLIT_MODE));
 
@@ -67,13 +70,21 @@ public class StatisticsManager {
     private int smsSent;
     private int geocoderRequests;
     private int geolocationRequests;
+    private int geocoderCacheHits;
+    private int geocoderCacheMisses;
+    private int geolocationCacheHits;
+    private int geolocationCacheMisses;
 
     @Inject
-    public StatisticsManager(Config config, Storage storage, Client client, ObjectMapper objectMapper) {
+    public StatisticsManager(
+            Config config, Storage storage, Client client, ObjectMapper objectMapper,
+            ExecutorManager executorManager, JettyConnectorProvider connectorProvider) {
         this.config = config;
         this.storage = storage;
         this.client = client;
         this.objectMapper = objectMapper;
+        this.executorManager = executorManager;
+        this.connectorProvider = connectorProvider;
     }
 
     private void checkSplit() {
@@ -92,6 +103,30 @@ public class StatisticsManager {
                 statistics.setSmsSent(smsSent);
                 statistics.setGeocoderRequests(geocoderRequests);
                 statistics.setGeolocationRequests(geolocationRequests);
+                if (geocoderCacheHits > 0 || geocoderCacheMisses > 0) {
+                    statistics.set("geocoderCacheHits", geocoderCacheHits);
+                    statistics.set("geocoderCacheMisses", geocoderCacheMisses);
+                }
+                if (geolocationCacheHits > 0 || geolocationCacheMisses > 0) {
+                    statistics.set("geolocationCacheHits", geolocationCacheHits);
+                    statistics.set("geolocationCacheMisses", geolocationCacheMisses);
+                }
+                var clientStatistics = connectorProvider.resetStatistics();
+                if (clientStatistics.active() > 0 || clientStatistics.completed() > 0
+                        || clientStatistics.failed() > 0) {
+                    statistics.set("clientActiveRequests", clientStatistics.active());
+                    statistics.set("clientCompletedRequests", clientStatistics.completed());
+                    statistics.set("clientFailedRequests", clientStatistics.failed());
+                }
+                executorManager.resetStatistics().forEach((workload, poolStatistics) -> {
+                    if (poolStatistics.peakActive() > 0 || poolStatistics.rejected() > 0) {
+                        String prefix = "executor" + Character.toUpperCase(workload.getName().charAt(0))
+                                + workload.getName().substring(1);
+                        statistics.set(prefix + "PeakActive", poolStatistics.peakActive());
+                        statistics.set(prefix + "PeakQueued", poolStatistics.peakQueued());
+                        statistics.set(prefix + "Rejected", poolStatistics.rejected());
+                    }
+                });
                 if (!deviceProtocols.isEmpty()) {
                     Map<String, Integer> protocols = new HashMap<>();
                     for (String protocol : deviceProtocols.values()) {
@@ -110,6 +145,10 @@ public class StatisticsManager {
                 smsSent = 0;
                 geocoderRequests = 0;
                 geolocationRequests = 0;
+                geocoderCacheHits = 0;
+                geocoderCacheMisses = 0;
+                geolocationCacheHits = 0;
+                geolocationCacheMisses = 0;
             }
 
             try {
@@ -199,6 +238,24 @@ public class StatisticsManager {
         geocoderRequests += 1;
     }
 
+    public synchronized void registerGeocoderCache(boolean hit) {
+        checkSplit();
+        if (hit) {
+            geocoderCacheHits += 1;
+        } else {
+            geocoderCacheMisses += 1;
+        }
+    }
+
+    public synchronized void registerGeolocationCache(boolean hit) {
+        checkSplit();
+        if (hit) {
+            geolocationCacheHits += 1;
+        } else {
+            geolocationCacheMisses += 1;
+        }
+    }
+
     public synchronized void registerGeolocationRequest() {
         checkSplit();
         geolocationRequests += 1;
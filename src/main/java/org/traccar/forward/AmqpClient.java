@@ -1,5 +1,5 @@
 /*
- * Copyright 2023 Anton Tananaev (anton@traccar.org)
+ * Copyright 2023 - 2026 Anton Tananaev (anton@traccar.org)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,22 +17,77 @@ package org.traccar.forward;
 
 import com.rabbitmq.client.BuiltinExchangeType;
 import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.ConfirmListener;
 import com.rabbitmq.client.Connection;
 import com.rabbitmq.client.ConnectionFactory;
 import com.rabbitmq.client.MessageProperties;
+import com.rabbitmq.client.ShutdownSignalException;
 
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.security.KeyManagementException;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class AmqpClient {
-    private final Channel channel;
+
+    private static final class PooledChannel implements ConfirmListener {
+
+        private final Channel channel;
+        private final ConcurrentNavigableMap<Long, ResultHandler> pending = new ConcurrentSkipListMap<>();
+
+        private PooledChannel(Channel channel) throws IOException {
+            this.channel = channel;
+            channel.confirmSelect();
+            channel.addConfirmListener(this);
+            channel.addShutdownListener(cause -> complete(pending, false, cause));
+        }
+
+        private static void complete(Map<Long, ResultHandler> handlers, boolean success, Throwable throwable) {
+            var iterator = handlers.values().iterator();
+            while (iterator.hasNext()) {
+                ResultHandler resultHandler = iterator.next();
+                iterator.remove();
+                resultHandler.onResult(success, throwable);
+            }
+        }
+
+        private void complete(long deliveryTag, boolean multiple, boolean success) {
+            Throwable throwable = success ? null : new IOException("Message rejected by broker");
+            if (multiple) {
+                complete(pending.headMap(deliveryTag, true), success, throwable);
+            } else {
+                ResultHandler resultHandler = pending.remove(deliveryTag);
+                if (resultHandler != null) {
+                    resultHandler.onResult(success, throwable);
+                }
+            }
+        }
+
+        @Override
+        public void handleAck(long deliveryTag, boolean multiple) {
+            complete(deliveryTag, multiple, true);
+        }
+
+        @Override
+        public void handleNack(long deliveryTag, boolean multiple) {
+            complete(deliveryTag, multiple, false);
+        }
+
+    }
+
+    private final List<PooledChannel> channels = new ArrayList<>();
+    private final AtomicInteger index = new AtomicInteger();
     private final String exchange;
     private final String topic;
 
-    AmqpClient(String connectionUrl, String exchange, String topic) {
+    AmqpClient(String connectionUrl, String exchange, String topic, int channelCount) {
         this.exchange = exchange;
         this.topic = topic;
 
@@ -45,14 +100,38 @@ public class AmqpClient {
 
         try {
             Connection connection = factory.newConnection();
-            channel = connection.createChannel();
-            channel.exchangeDeclare(exchange, BuiltinExchangeType.TOPIC, true);
+            for (int i = 0; i < Math.max(channelCount, 1); i++) {
+                Channel channel = connection.createChannel();
+                channel.exchangeDeclare(exchange, BuiltinExchangeType.TOPIC, true);
+                channels.add(new PooledChannel(channel));
+            }
         } catch (IOException | TimeoutException e) {
             throw new RuntimeException("Error while creating and configuring RabbitMQ channel", e);
         }
     }
 
-    public void publishMessage(String message) throws IOException {
-        channel.basicPublish(exchange, topic, MessageProperties.PERSISTENT_TEXT_PLAIN, message.getBytes());
+    /**
+     * Publishes the message on one of the pooled channels. The result is reported once the broker confirms or
+     * rejects the message.
+     */
+    public void publishMessage(byte[] message, ResultHandler resultHandler) {
+        PooledChannel pooledChannel = channels.get(Math.floorMod(index.getAndIncrement(), channels.size()));
+        Exception error = null;
+        synchronized (pooledChannel) {
+            long sequenceNumber = pooledChannel.channel.getNextPublishSeqNo();
+            pooledChannel.pending.put(sequenceNumber, resultHandler);
+            try {
+                pooledChannel.channel.basicPublish(
+                        exchange, topic, MessageProperties.PERSISTENT_TEXT_PLAIN, message);
+            } catch (IOException | ShutdownSignalException e) {
+                if (pooledChannel.pending.remove(sequenceNumber) != null) {
+                    error = e;
+                }
+            }
+        }
+        if (error != null) {
+            resultHandler.onResult(false, error);
+        }
     }
+
 }
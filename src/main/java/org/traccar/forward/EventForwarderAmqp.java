@@ -1,5 +1,5 @@
 /*
- * Copyright 2023 Anton Tananaev (anton@traccar.org)
+ * Copyright 2023 - 2026 Anton Tananaev (anton@traccar.org)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -15,13 +15,12 @@
  */
 package org.traccar.forward;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import org.traccar.config.Config;
 import org.traccar.config.Keys;
 
-import java.io.IOException;
-
 public class EventForwarderAmqp implements EventForwarder {
 
     private final AmqpClient amqpClient;
@@ -32,16 +31,15 @@ public class EventForwarderAmqp implements EventForwarder {
         String exchange = config.getString(Keys.EVENT_FORWARD_EXCHANGE);
         String topic = config.getString(Keys.EVENT_FORWARD_TOPIC);
         this.objectMapper = objectMapper;
-        amqpClient = new AmqpClient(connectionUrl, exchange, topic);
+        int channels = config.getInteger(Keys.FORWARD_AMQP_CHANNELS);
+        amqpClient = new AmqpClient(connectionUrl, exchange, topic, channels);
     }
 
     @Override
     public void forward(EventData eventData, ResultHandler resultHandler) {
         try {
-            String value = objectMapper.writeValueAsString(eventData);
-            amqpClient.publishMessage(value);
-            resultHandler.onResult(true, null);
-        } catch (IOException e) {
+            amqpClient.publishMessage(objectMapper.writeValueAsBytes(eventData), resultHandler);
+        } catch (JsonProcessingException e) {
             resultHandler.onResult(false, e);
         }
     }
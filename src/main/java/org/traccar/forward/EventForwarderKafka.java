@@ -1,5 +1,5 @@
 /*
- * Copyright 2022 Anton Tananaev (anton@traccar.org)
+ * Copyright 2022 - 2026 Anton Tananaev (anton@traccar.org)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,6 +20,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.Producer;
 import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.KafkaException;
 import org.traccar.config.Config;
 import org.traccar.config.Keys;
 
@@ -39,6 +40,9 @@ public class EventForwarderKafka implements EventForwarder {
         properties.put("acks", "all");
         properties.put("key.serializer", "org.apache.kafka.common.serialization.StringSerializer");
         properties.put("value.serializer", "org.apache.kafka.common.serialization.StringSerializer");
+        properties.put("linger.ms", config.getInteger(Keys.FORWARD_KAFKA_LINGER));
+        properties.put("batch.size", config.getInteger(Keys.FORWARD_KAFKA_BATCH_SIZE));
+        properties.put("compression.type", config.getString(Keys.FORWARD_KAFKA_COMPRESSION));
         producer = new KafkaProducer<>(properties);
         topic = config.getString(Keys.EVENT_FORWARD_TOPIC);
     }
@@ -48,9 +52,10 @@ public class EventForwarderKafka implements EventForwarder {
         try {
             String key = Long.toString(eventData.getDevice().getId());
             String value = objectMapper.writeValueAsString(eventData);
-            producer.send(new ProducerRecord<>(topic, key, value));
-            resultHandler.onResult(true, null);
-        } catch (JsonProcessingException e) {
+            producer.send(
+                    new ProducerRecord<>(topic, key, value),
+                    (metadata, exception) -> resultHandler.onResult(exception == null, exception));
+        } catch (JsonProcessingException | KafkaException e) {
             resultHandler.onResult(false, e);
         }
     }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2022 - 2023 Anton Tananaev (anton@traccar.org)
+ * Copyright 2022 - 2026 Anton Tananaev (anton@traccar.org)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -30,15 +30,17 @@ public class EventForwarderMqtt implements EventForwarder {
 
     public EventForwarderMqtt(Config config, ObjectMapper objectMapper) {
         this.topic = config.getString(Keys.EVENT_FORWARD_TOPIC);
-        mqttClient = new MqttClient(config.getString(Keys.EVENT_FORWARD_URL));
+        mqttClient = new MqttClient(
+                config.getString(Keys.EVENT_FORWARD_URL),
+                config.getInteger(Keys.FORWARD_MQTT_IN_FLIGHT),
+                config.getInteger(Keys.FORWARD_MQTT_BUFFER));
         this.objectMapper = objectMapper;
     }
 
     @Override
     public void forward(EventData eventData, ResultHandler resultHandler) {
         try {
-            String payload = objectMapper.writeValueAsString(eventData);
-            mqttClient.publish(topic, payload, (message, e) -> resultHandler.onResult(e == null, e));
+            mqttClient.publish(topic, objectMapper.writeValueAsBytes(eventData), resultHandler);
         } catch (JsonProcessingException e) {
             resultHandler.onResult(false, e);
         }
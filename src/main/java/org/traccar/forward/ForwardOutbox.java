@@ -0,0 +1,424 @@
+/*
+ * Copyright 2026 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.forward;
+
+import io.netty.util.Timeout;
+import io.netty.util.Timer;
+import io.netty.util.TimerTask;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of memory-mapped segment files used as a local outbox in front of a forwarder. Records are
+ * delivered in order with a bounded number in flight and the replay cursor only moves past acknowledged records, so
+ * delivery is at least once. Data and cursor are synced to disk periodically rather than on every append. Disk syncs
+ * run on the provided executor, so the shared timer thread never waits for I/O. Records that keep failing are moved
+ * to a dead letter file once the retry limit is reached.
+ */
+public class ForwardOutbox implements TimerTask {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ForwardOutbox.class);
+
+    private static final int HEADER_SIZE = 8;
+    private static final int END_OF_SEGMENT = -1;
+    private static final long MAX_RETRY_DELAY = 60000;
+
+    public interface Sender {
+        void send(byte[] data, ResultHandler resultHandler);
+    }
+
+    private final class Entry implements ResultHandler, TimerTask {
+
+        private final byte[] data;
+        private final long segment;
+        private final int end;
+        private boolean done;
+        private int retries;
+
+        private Entry(byte[] data, long segment, int end) {
+            this.data = data;
+            this.segment = segment;
+            this.end = end;
+        }
+
+        @Override
+        public void onResult(boolean success, Throwable throwable) {
+            if (success) {
+                acknowledge(this);
+            } else if (maxRetries > 0 && retries >= maxRetries) {
+                LOGGER.warn("Outbox {} delivery failed {} times, moving record to dead letter file",
+                        name, retries + 1, throwable);
+                deadLetter(this);
+                acknowledge(this);
+            } else {
+                long delay = Math.min(retryDelay << Math.min(retries++, 16), MAX_RETRY_DELAY);
+                LOGGER.warn("Outbox {} delivery failed, retrying in {} ms", name, delay, throwable);
+                timer.newTimeout(this, delay, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        @Override
+        public void run(Timeout timeout) {
+            send(this);
+        }
+
+    }
+
+    private final String name;
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final int maxInFlight;
+    private final long retryDelay;
+    private final long syncInterval;
+    private final int maxRetries;
+    private final Timer timer;
+    private final Executor executor;
+    private final Sender sender;
+
+    private long writeSegment;
+    private MappedByteBuffer writeBuffer;
+    private long readSegment;
+    private ByteBuffer readBuffer;
+    private long commitSegment;
+    private int commitOffset;
+    private boolean dirty;
+    private boolean closed;
+    private boolean delivering;
+
+    private final Deque<Entry> window = new ArrayDeque<>();
+
+    public ForwardOutbox(
+            Config config, String name, Timer timer, Executor executor, Sender sender) throws IOException {
+        this.name = name;
+        this.timer = timer;
+        this.executor = executor;
+        this.sender = sender;
+        directory = Path.of(config.getString(Keys.FORWARD_OUTBOX_DIRECTORY), name);
+        segmentSize = config.getInteger(Keys.FORWARD_OUTBOX_SEGMENT_SIZE);
+        maxSegments = (int) Math.max(config.getLong(Keys.FORWARD_OUTBOX_MAX_SIZE) / segmentSize, 2);
+        maxInFlight = config.getInteger(Keys.FORWARD_OUTBOX_IN_FLIGHT);
+        retryDelay = Math.max(config.getInteger(Keys.FORWARD_RETRY_DELAY), 1);
+        syncInterval = config.getLong(Keys.FORWARD_OUTBOX_SYNC_INTERVAL);
+        maxRetries = config.getInteger(Keys.FORWARD_OUTBOX_RETRY_COUNT);
+
+        Files.createDirectories(directory);
+        readCursor();
+
+        List<Long> segments = listSegments();
+        for (long segment : segments) {
+            if (segment < commitSegment) {
+                Files.deleteIfExists(getSegmentPath(segment));
+            }
+        }
+        segments.removeIf(segment -> segment < commitSegment);
+        if (segments.isEmpty() || segments.get(0) > commitSegment) {
+            commitSegment = segments.isEmpty() ? commitSegment : segments.get(0);
+            commitOffset = 0;
+        }
+
+        writeSegment = segments.isEmpty() ? commitSegment : segments.get(segments.size() - 1);
+        writeBuffer = map(writeSegment);
+        writeBuffer.position(recover(writeBuffer));
+
+        readSegment = commitSegment;
+        readBuffer = readSegment == writeSegment ? writeBuffer.duplicate() : map(readSegment);
+        readBuffer.position(Math.min(commitOffset, readBuffer.limit()));
+
+        timer.newTimeout(this, syncInterval, TimeUnit.MILLISECONDS);
+    }
+
+    private Path getSegmentPath(long segment) {
+        return directory.resolve(String.format("%020d.log", segment));
+    }
+
+    private List<Long> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return new ArrayList<>(files
+                    .map(path -> path.getFileName().toString())
+                    .filter(fileName -> fileName.matches("\\d{20}\\.log"))
+                    .map(fileName -> Long.parseLong(fileName.substring(0, 20)))
+                    .sorted()
+                    .toList());
+        }
+    }
+
+    private void readCursor() throws IOException {
+        Path path = directory.resolve("cursor");
+        if (Files.exists(path)) {
+            ByteBuffer cursor = ByteBuffer.wrap(Files.readAllBytes(path));
+            if (cursor.remaining() >= 12) {
+                commitSegment = cursor.getLong();
+                commitOffset = cursor.getInt();
+            }
+        }
+    }
+
+    private void writeCursor(long segment, int offset) throws IOException {
+        ByteBuffer cursor = ByteBuffer.allocate(12).putLong(segment).putInt(offset).flip();
+        Path temporary = directory.resolve("cursor.tmp");
+        try (FileChannel channel = FileChannel.open(temporary,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (cursor.hasRemaining()) {
+                channel.write(cursor);
+            }
+            channel.force(false);
+        }
+        Files.move(temporary, directory.resolve("cursor"),
+                StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private synchronized void deadLetter(Entry entry) {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + entry.data.length);
+        buffer.putInt(entry.data.length).putInt(0).put(entry.data);
+        buffer.putInt(4, checksum(buffer, HEADER_SIZE, entry.data.length)).flip();
+        try (FileChannel channel = FileChannel.open(directory.resolve("dead.log"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Outbox {} dead letter write error", name, e);
+        }
+    }
+
+    private MappedByteBuffer map(long segment) throws IOException {
+        try (FileChannel channel = FileChannel.open(getSegmentPath(segment),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size() > 0 ? channel.size() : segmentSize;
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    private static int checksum(ByteBuffer buffer, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(offset, length));
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Finds the end of valid records in the last segment and cuts off a record that was only partially written.
+     */
+    private static int recover(ByteBuffer buffer) {
+        int offset = 0;
+        while (offset + HEADER_SIZE <= buffer.limit()) {
+            int length = buffer.getInt(offset);
+            if (length <= 0 || length > buffer.limit() - offset - HEADER_SIZE
+                    || checksum(buffer, offset + HEADER_SIZE, length) != buffer.getInt(offset + 4)) {
+                break;
+            }
+            offset += HEADER_SIZE + length;
+        }
+        if (offset + HEADER_SIZE <= buffer.limit()) {
+            buffer.putInt(offset, 0);
+        }
+        return offset;
+    }
+
+    public void append(byte[] data) throws IOException {
+        int size = HEADER_SIZE + data.length;
+        if (size > segmentSize) {
+            throw new IOException("Record size " + data.length + " exceeds outbox segment size");
+        }
+        synchronized (this) {
+            if (writeBuffer.remaining() < size) {
+                roll();
+            }
+            int offset = writeBuffer.position();
+            writeBuffer.put(offset + HEADER_SIZE, data);
+            writeBuffer.putInt(offset + 4, checksum(writeBuffer, offset + HEADER_SIZE, data.length));
+            writeBuffer.putInt(offset, data.length);
+            writeBuffer.position(offset + size);
+            dirty = true;
+        }
+        deliver();
+    }
+
+    private void roll() throws IOException {
+        if (writeBuffer.remaining() >= 4) {
+            writeBuffer.putInt(writeBuffer.position(), END_OF_SEGMENT);
+        }
+        MappedByteBuffer previous = writeBuffer;
+        executor.execute(previous::force);
+        if (writeSegment - commitSegment + 1 >= maxSegments) {
+            long dropped = commitSegment;
+            LOGGER.warn("Outbox {} is full, dropping segment {}", name, dropped);
+            commitSegment += 1;
+            commitOffset = 0;
+            if (readSegment < commitSegment) {
+                readSegment = commitSegment;
+                readBuffer = readSegment == writeSegment ? writeBuffer.duplicate() : map(readSegment);
+                readBuffer.position(0);
+            }
+            deleteSegment(dropped);
+        }
+        writeSegment += 1;
+        writeBuffer = map(writeSegment);
+    }
+
+    private void deleteSegment(long segment) {
+        try {
+            Files.deleteIfExists(getSegmentPath(segment));
+        } catch (IOException e) {
+            LOGGER.warn("Outbox {} segment delete error", name, e);
+        }
+    }
+
+    private Entry readNext() throws IOException {
+        while (true) {
+            int offset = readBuffer.position();
+            if (readSegment == writeSegment && offset >= writeBuffer.position()) {
+                return null;
+            }
+            int length = offset + HEADER_SIZE <= readBuffer.limit() ? readBuffer.getInt(offset) : END_OF_SEGMENT;
+            if (length <= 0 || length > readBuffer.limit() - offset - HEADER_SIZE) {
+                readSegment += 1;
+                readBuffer = readSegment == writeSegment ? writeBuffer.duplicate() : map(readSegment);
+                readBuffer.position(0);
+                continue;
+            }
+            byte[] data = new byte[length];
+            readBuffer.get(offset + HEADER_SIZE, data);
+            readBuffer.position(offset + HEADER_SIZE + length);
+            return new Entry(data, readSegment, readBuffer.position());
+        }
+    }
+
+    private void send(Entry entry) {
+        try {
+            sender.send(entry.data, entry);
+        } catch (RuntimeException e) {
+            entry.onResult(false, e);
+        }
+    }
+
+    /**
+     * Sends records until the window is full. The thread that is already delivering picks up records freed by
+     * acknowledgements, including synchronous ones, so the stack doesn't grow with the number of records.
+     */
+    public void deliver() {
+        synchronized (this) {
+            if (delivering) {
+                return;
+            }
+            delivering = true;
+        }
+        while (true) {
+            List<Entry> entries = new ArrayList<>();
+            synchronized (this) {
+                try {
+                    while (window.size() < maxInFlight) {
+                        Entry entry = readNext();
+                        if (entry == null) {
+                            break;
+                        }
+                        window.addLast(entry);
+                        entries.add(entry);
+                    }
+                } catch (IOException e) {
+                    LOGGER.warn("Outbox {} read error", name, e);
+                }
+                if (entries.isEmpty()) {
+                    delivering = false;
+                    return;
+                }
+            }
+            for (Entry entry : entries) {
+                send(entry);
+            }
+        }
+    }
+
+    private void acknowledge(Entry entry) {
+        synchronized (this) {
+            entry.done = true;
+            while (!window.isEmpty() && window.peekFirst().done) {
+                Entry head = window.pollFirst();
+                if (head.segment > commitSegment || head.segment == commitSegment && head.end > commitOffset) {
+                    for (long segment = commitSegment; segment < head.segment; segment++) {
+                        deleteSegment(segment);
+                    }
+                    commitSegment = head.segment;
+                    commitOffset = head.end;
+                    dirty = true;
+                }
+            }
+        }
+        deliver();
+    }
+
+    public void sync() throws IOException {
+        MappedByteBuffer buffer;
+        long segment;
+        int offset;
+        synchronized (this) {
+            if (!dirty) {
+                return;
+            }
+            dirty = false;
+            buffer = writeBuffer;
+            segment = commitSegment;
+            offset = commitOffset;
+        }
+        buffer.force();
+        writeCursor(segment, offset);
+    }
+
+    @Override
+    public void run(Timeout timeout) {
+        executor.execute(() -> {
+            try {
+                sync();
+            } catch (IOException e) {
+                LOGGER.warn("Outbox {} sync error", name, e);
+            }
+            deliver();
+            synchronized (this) {
+                if (!closed) {
+                    timer.newTimeout(this, syncInterval, TimeUnit.MILLISECONDS);
+                }
+            }
+        });
+    }
+
+    public void close() throws IOException {
+        synchronized (this) {
+            closed = true;
+            dirty = true;
+        }
+        sync();
+    }
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2024 Anton Tananaev (anton@traccar.org)
+ * Copyright 2024 - 2026 Anton Tananaev (anton@traccar.org)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -15,23 +15,45 @@
  */
 package org.traccar.forward;
 
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
 import java.util.UUID;
-import java.util.function.BiConsumer;
 
 import com.hivemq.client.mqtt.datatypes.MqttQos;
 import com.hivemq.client.mqtt.mqtt5.Mqtt5AsyncClient;
 import com.hivemq.client.mqtt.mqtt5.Mqtt5Client;
 import com.hivemq.client.mqtt.mqtt5.Mqtt5ClientBuilder;
 import com.hivemq.client.mqtt.mqtt5.message.auth.Mqtt5SimpleAuth;
-import com.hivemq.client.mqtt.mqtt5.message.publish.Mqtt5PublishResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+/**
+ * MQTT publisher with a bounded number of unacknowledged messages. Messages above the window, or sent while the
+ * connection is down, wait in a bounded buffer. When the buffer is full, publishing fails immediately.
+ */
 public class MqttClient {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(MqttClient.class);
+
+    private record Message(String topic, byte[] payload, ResultHandler resultHandler) {
+    }
+
     private final Mqtt5AsyncClient client;
+    private final int maxInFlight;
+    private final int bufferLimit;
+
+    private final Queue<Message> pending = new ArrayDeque<>();
+    private int inFlight;
+
+    MqttClient(String url, int maxInFlight, int bufferLimit) {
+        this.maxInFlight = maxInFlight;
+        this.bufferLimit = bufferLimit;
 
-    MqttClient(String url) {
         URI uri;
         try {
             uri = new URI(url);
@@ -44,11 +66,14 @@ public class MqttClient {
         String host = uri.getHost();
         int port = uri.getPort();
         Mqtt5ClientBuilder builder = Mqtt5Client.builder().identifier("traccar-" + UUID.randomUUID())
-                .serverHost(host).serverPort(port).simpleAuth(simpleAuth).automaticReconnectWithDefaultConfig();
+                .serverHost(host).serverPort(port).simpleAuth(simpleAuth).automaticReconnectWithDefaultConfig()
+                .addConnectedListener(context -> sendPending());
 
         client = builder.buildAsync();
         client.connectWith().send().whenComplete((message, e) -> {
-            throw new RuntimeException(e);
+            if (e != null) {
+                LOGGER.warn("MQTT connection failed", e);
+            }
         });
     }
 
@@ -67,10 +92,43 @@ public class MqttClient {
         return simpleAuth;
     }
 
-    public void publish(
-            String pubTopic, String payload, BiConsumer<? super Mqtt5PublishResult, ? super Throwable> whenComplete) {
-        client.publishWith().topic(pubTopic).qos(MqttQos.AT_LEAST_ONCE).payload(payload.getBytes()).send()
-                .whenComplete(whenComplete);
+    public void publish(String topic, byte[] payload, ResultHandler resultHandler) {
+        boolean accepted;
+        synchronized (this) {
+            accepted = pending.size() < bufferLimit;
+            if (accepted) {
+                pending.add(new Message(topic, payload, resultHandler));
+            }
+        }
+        if (accepted) {
+            sendPending();
+        } else {
+            resultHandler.onResult(false, new IOException("MQTT publish buffer is full"));
+        }
+    }
+
+    private void sendPending() {
+        List<Message> messages = new ArrayList<>();
+        synchronized (this) {
+            if (client == null || !client.getState().isConnected()) {
+                return;
+            }
+            while (inFlight < maxInFlight && !pending.isEmpty()) {
+                messages.add(pending.poll());
+                inFlight += 1;
+            }
+        }
+        for (Message message : messages) {
+            client.publishWith().topic(message.topic()).qos(MqttQos.AT_LEAST_ONCE).payload(message.payload()).send()
+                    .whenComplete((result, e) -> {
+                        synchronized (this) {
+                            inFlight -= 1;
+                        }
+                        Throwable error = e != null ? e : result.getError().orElse(null);
+                        message.resultHandler().onResult(error == null, error);
+                        sendPending();
+                    });
+        }
     }
 
 }
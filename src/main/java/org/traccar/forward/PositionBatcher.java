@@ -0,0 +1,105 @@
+/*
+ * Copyright 2026 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.forward;
+
+import io.netty.util.Timeout;
+import io.netty.util.Timer;
+import io.netty.util.TimerTask;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Groups positions by destination key and hands each group to the sender when it reaches the batch size or when the
+ * batch delay expires. The result of sending a batch is reported to every position in it.
+ */
+public class PositionBatcher {
+
+    public interface Sender {
+        void send(String key, List<PositionData> positions, ResultHandler resultHandler);
+    }
+
+    private final class Batch implements TimerTask {
+
+        private final String key;
+        private final List<PositionData> positions = new ArrayList<>();
+        private final List<ResultHandler> handlers = new ArrayList<>();
+        private Timeout timeout;
+
+        private Batch(String key) {
+            this.key = key;
+        }
+
+        @Override
+        public void run(Timeout timeout) {
+            synchronized (batches) {
+                if (!batches.remove(key, this)) {
+                    return;
+                }
+            }
+            send(this);
+        }
+
+    }
+
+    private final Timer timer;
+    private final int batchSize;
+    private final long batchDelay;
+    private final Sender sender;
+
+    private final Map<String, Batch> batches = new HashMap<>();
+
+    public PositionBatcher(Timer timer, int batchSize, long batchDelay, Sender sender) {
+        this.timer = timer;
+        this.batchSize = batchSize;
+        this.batchDelay = batchDelay;
+        this.sender = sender;
+    }
+
+    public void add(String key, PositionData positionData, ResultHandler resultHandler) {
+        Batch full = null;
+        synchronized (batches) {
+            Batch batch = batches.computeIfAbsent(key, Batch::new);
+            batch.positions.add(positionData);
+            batch.handlers.add(resultHandler);
+            if (batch.positions.size() >= batchSize) {
+                batches.remove(key);
+                if (batch.timeout != null) {
+                    batch.timeout.cancel();
+                }
+                full = batch;
+            } else if (batch.timeout == null) {
+                batch.timeout = timer.newTimeout(batch, batchDelay, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (full != null) {
+            send(full);
+        }
+    }
+
+    private void send(Batch batch) {
+        ResultHandler batchHandler = (success, throwable) -> {
+            for (ResultHandler handler : batch.handlers) {
+                handler.onResult(success, throwable);
+            }
+        };
+        sender.send(batch.key, batch.positions, batchHandler);
+    }
+
+}
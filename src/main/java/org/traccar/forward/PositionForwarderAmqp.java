@@ -1,5 +1,5 @@
 /*
- * Copyright 2023 Anton Tananaev (anton@traccar.org)
+ * Copyright 2023 - 2026 Anton Tananaev (anton@traccar.org)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -15,34 +15,56 @@
  */
 package org.traccar.forward;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import io.netty.util.Timer;
 import org.traccar.config.Config;
 import org.traccar.config.Keys;
 
-import java.io.IOException;
+import java.util.List;
 
 public class PositionForwarderAmqp implements PositionForwarder {
 
     private final AmqpClient amqpClient;
     private final ObjectMapper objectMapper;
+    private final PositionBatcher batcher;
 
-    public PositionForwarderAmqp(Config config, ObjectMapper objectMapper) {
+    public PositionForwarderAmqp(Config config, ObjectMapper objectMapper, Timer timer) {
         String connectionUrl = config.getString(Keys.FORWARD_URL);
         String exchange = config.getString(Keys.FORWARD_EXCHANGE);
         String topic = config.getString(Keys.FORWARD_TOPIC);
-        amqpClient = new AmqpClient(connectionUrl, exchange, topic);
+        int channels = config.getInteger(Keys.FORWARD_AMQP_CHANNELS);
+        amqpClient = new AmqpClient(connectionUrl, exchange, topic, channels);
         this.objectMapper = objectMapper;
+        if (config.getBoolean(Keys.FORWARD_AMQP_BATCH)) {
+            batcher = new PositionBatcher(
+                    timer, config.getInteger(Keys.FORWARD_BATCH_SIZE), config.getLong(Keys.FORWARD_BATCH_DELAY),
+                    this::publishBatch);
+        } else {
+            batcher = null;
+        }
     }
 
     @Override
     public void forward(PositionData positionData, ResultHandler resultHandler) {
+        if (batcher != null) {
+            batcher.add("", positionData, resultHandler);
+            return;
+        }
+        try {
+            amqpClient.publishMessage(objectMapper.writeValueAsBytes(positionData), resultHandler);
+        } catch (JsonProcessingException e) {
+            resultHandler.onResult(false, e);
+        }
+    }
+
+    private void publishBatch(String key, List<PositionData> positions, ResultHandler resultHandler) {
         try {
-            String value = objectMapper.writeValueAsString(positionData);
-            amqpClient.publishMessage(value);
-            resultHandler.onResult(true, null);
-        } catch (IOException e) {
+            amqpClient.publishMessage(objectMapper.writeValueAsBytes(positions), resultHandler);
+        } catch (JsonProcessingException e) {
             resultHandler.onResult(false, e);
         }
     }
+
 }
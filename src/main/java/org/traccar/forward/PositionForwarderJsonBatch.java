@@ -0,0 +1,127 @@
+/*
+ * Copyright 2026 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.forward;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.util.Timer;
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.client.Entity;
+import jakarta.ws.rs.client.InvocationCallback;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+import org.traccar.helper.model.AttributeUtil;
+import org.traccar.session.cache.CacheManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Accumulates positions per URL and posts them as a JSON array when the batch is full or the delay expires. A failed
+ * request fails every position in the batch, so each of them goes through the regular forwarding retry logic.
+ */
+public class PositionForwarderJsonBatch implements PositionForwarder {
+
+    private final String header;
+    private final boolean gzip;
+
+    private final Client client;
+    private final ObjectMapper objectMapper;
+    private final CacheManager cacheManager;
+    private final PositionBatcher batcher;
+
+    public PositionForwarderJsonBatch(
+            Config config, Client client, ObjectMapper objectMapper, CacheManager cacheManager, Timer timer) {
+        this.client = client;
+        this.objectMapper = objectMapper;
+        this.cacheManager = cacheManager;
+        batcher = new PositionBatcher(
+                timer, config.getInteger(Keys.FORWARD_BATCH_SIZE), config.getLong(Keys.FORWARD_BATCH_DELAY),
+                this::send);
+        header = config.getString(Keys.FORWARD_HEADER);
+        gzip = config.getBoolean(Keys.FORWARD_BATCH_GZIP);
+    }
+
+    @Override
+    public void forward(PositionData positionData, ResultHandler resultHandler) {
+        String url = AttributeUtil.lookup(cacheManager, Keys.FORWARD_URL, positionData.getDevice().getId());
+        if (url.isBlank()) {
+            resultHandler.onResult(true, null);
+            return;
+        }
+        batcher.add(url, positionData, resultHandler);
+    }
+
+    private byte[] encode(List<PositionData> data) throws IOException {
+        if (!gzip) {
+            return objectMapper.writeValueAsBytes(data);
+        }
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (OutputStream stream = new GZIPOutputStream(output)) {
+            objectMapper.writeValue(stream, data);
+        }
+        return output.toByteArray();
+    }
+
+    private void send(String url, List<PositionData> positions, ResultHandler resultHandler) {
+        var requestBuilder = client.target(url).request();
+
+        MediaType mediaType = MediaType.APPLICATION_JSON_TYPE;
+        if (header != null && !header.isEmpty()) {
+            for (String line: header.split("\\r?\\n")) {
+                String[] values = line.split(":", 2);
+                String headerName = values[0].trim();
+                String headerValue = values[1].trim();
+                if (headerName.equals(HttpHeaders.CONTENT_TYPE)) {
+                    mediaType = MediaType.valueOf(headerValue);
+                } else {
+                    requestBuilder.header(headerName, headerValue);
+                }
+            }
+        }
+        if (gzip) {
+            requestBuilder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        try {
+            var entity = Entity.entity(encode(positions), mediaType);
+            requestBuilder.async().post(entity, new InvocationCallback<Response>() {
+                @Override
+                public void completed(Response response) {
+                    if (response.getStatusInfo().getFamily() == Response.Status.Family.SUCCESSFUL) {
+                        resultHandler.onResult(true, null);
+                    } else {
+                        int code = response.getStatusInfo().getStatusCode();
+                        resultHandler.onResult(false, new RuntimeException("HTTP code " + code));
+                    }
+                }
+
+                @Override
+                public void failed(Throwable throwable) {
+                    resultHandler.onResult(false, throwable);
+                }
+            });
+        } catch (IOException e) {
+            resultHandler.onResult(false, e);
+        }
+    }
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2022 - 2024 Anton Tananaev (anton@traccar.org)
+ * Copyright 2022 - 2026 Anton Tananaev (anton@traccar.org)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,6 +20,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.Producer;
 import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.traccar.config.Config;
 import org.traccar.config.Keys;
@@ -28,10 +30,11 @@ import java.util.Properties;
 
 public class PositionForwarderKafka implements PositionForwarder {
 
-    private final Producer<String, String> producer;
+    private final Producer<String, byte[]> producer;
     private final ObjectMapper objectMapper;
 
     private final String topic;
+    private final boolean protobuf;
 
     public PositionForwarderKafka(Config config, ObjectMapper objectMapper) {
         this.objectMapper = objectMapper;
@@ -39,19 +42,26 @@ public class PositionForwarderKafka implements PositionForwarder {
         properties.put("bootstrap.servers", config.getString(Keys.FORWARD_URL));
         properties.put("acks", "all");
         properties.put("key.serializer", StringSerializer.class.getName());
-        properties.put("value.serializer", StringSerializer.class.getName());
+        properties.put("value.serializer", ByteArraySerializer.class.getName());
+        properties.put("linger.ms", config.getInteger(Keys.FORWARD_KAFKA_LINGER));
+        properties.put("batch.size", config.getInteger(Keys.FORWARD_KAFKA_BATCH_SIZE));
+        properties.put("compression.type", config.getString(Keys.FORWARD_KAFKA_COMPRESSION));
         producer = new KafkaProducer<>(properties);
         topic = config.getString(Keys.FORWARD_TOPIC);
+        protobuf = config.getString(Keys.FORWARD_FORMAT).equals("protobuf");
     }
 
     @Override
     public void forward(PositionData positionData, ResultHandler resultHandler) {
         try {
             String key = Long.toString(positionData.getDevice().getId());
-            String value = objectMapper.writeValueAsString(positionData);
-            producer.send(new ProducerRecord<>(topic, key, value));
-            resultHandler.onResult(true, null);
-        } catch (JsonProcessingException e) {
+            byte[] value = protobuf
+                    ? PositionProtobufEncoder.encode(positionData)
+                    : objectMapper.writeValueAsBytes(positionData);
+            producer.send(
+                    new ProducerRecord<>(topic, key, value),
+                    (metadata, exception) -> resultHandler.onResult(exception == null, exception));
+        } catch (JsonProcessingException | KafkaException e) {
             resultHandler.onResult(false, e);
         }
     }
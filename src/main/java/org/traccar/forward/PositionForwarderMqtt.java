@@ -1,5 +1,5 @@
 /*
- * Copyright 2024 Anton Tananaev (anton@traccar.org)
+ * Copyright 2024 - 2026 Anton Tananaev (anton@traccar.org)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -15,30 +15,63 @@
  */
 package org.traccar.forward;
 
+import io.netty.util.Timer;
 import org.traccar.config.Config;
 import org.traccar.config.Keys;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import java.util.List;
+
 public class PositionForwarderMqtt implements PositionForwarder {
 
     private final MqttClient mqttClient;
     private final ObjectMapper objectMapper;
+    private final PositionBatcher batcher;
 
     private final String topic;
 
-    public PositionForwarderMqtt(final Config config, final ObjectMapper objectMapper) {
+    public PositionForwarderMqtt(final Config config, final ObjectMapper objectMapper, final Timer timer) {
         this.topic = config.getString(Keys.FORWARD_TOPIC);
-        mqttClient = new MqttClient(config.getString(Keys.FORWARD_URL));
+        mqttClient = new MqttClient(
+                config.getString(Keys.FORWARD_URL),
+                config.getInteger(Keys.FORWARD_MQTT_IN_FLIGHT),
+                config.getInteger(Keys.FORWARD_MQTT_BUFFER));
         this.objectMapper = objectMapper;
+        if (config.getBoolean(Keys.FORWARD_MQTT_BATCH)) {
+            batcher = new PositionBatcher(
+                    timer, config.getInteger(Keys.FORWARD_BATCH_SIZE), config.getLong(Keys.FORWARD_BATCH_DELAY),
+                    this::publish);
+        } else {
+            batcher = null;
+        }
+    }
+
+    private String formatTopic(PositionData positionData) {
+        return topic
+                .replace("{uniqueId}", positionData.getDevice().getUniqueId())
+                .replace("{groupId}", String.valueOf(positionData.getDevice().getGroupId()));
     }
 
     @Override
     public void forward(PositionData positionData, ResultHandler resultHandler) {
+        String topic = formatTopic(positionData);
+        if (batcher != null) {
+            batcher.add(topic, positionData, resultHandler);
+            return;
+        }
+        try {
+            byte[] payload = objectMapper.writeValueAsBytes(positionData);
+            mqttClient.publish(topic, payload, resultHandler);
+        } catch (JsonProcessingException e) {
+            resultHandler.onResult(false, e);
+        }
+    }
+
+    private void publish(String topic, List<PositionData> positions, ResultHandler resultHandler) {
         try {
-            String payload = objectMapper.writeValueAsString(positionData);
-            mqttClient.publish(topic, payload, (message, e) -> resultHandler.onResult(e == null, e));
+            mqttClient.publish(topic, objectMapper.writeValueAsBytes(positions), resultHandler);
         } catch (JsonProcessingException e) {
             resultHandler.onResult(false, e);
         }
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2026 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.forward;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.netty.util.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.traccar.config.Config;
+
+import java.io.IOException;
+import java.util.concurrent.Executor;
+
+public class PositionForwarderOutbox implements PositionForwarder {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PositionForwarderOutbox.class);
+
+    private final ObjectMapper objectMapper;
+    private final ObjectReader objectReader;
+    private final ForwardOutbox outbox;
+
+    public PositionForwarderOutbox(
+            Config config, Timer timer, Executor executor, ObjectMapper objectMapper,
+            PositionForwarder forwarder) throws IOException {
+        this.objectMapper = objectMapper;
+        objectReader = objectMapper.readerFor(PositionData.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        outbox = new ForwardOutbox(config, "positions", timer, executor, (data, resultHandler) -> {
+            PositionData positionData;
+            try {
+                positionData = objectReader.readValue(data);
+            } catch (IOException e) {
+                LOGGER.warn("Outbox record decoding error", e);
+                resultHandler.onResult(true, null);
+                return;
+            }
+            forwarder.forward(positionData, resultHandler);
+        });
+    }
+
+    @Override
+    public void forward(PositionData positionData, ResultHandler resultHandler) {
+        try {
+            outbox.append(objectMapper.writeValueAsBytes(positionData));
+            resultHandler.onResult(true, null);
+        } catch (IOException e) {
+            resultHandler.onResult(false, e);
+        }
+    }
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2023 Anton Tananaev (anton@traccar.org)
+ * Copyright 2023 - 2026 Anton Tananaev (anton@traccar.org)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,33 +17,143 @@ package org.traccar.forward;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.traccar.config.Config;
 import org.traccar.config.Keys;
+import org.traccar.helper.RedisHelper;
 import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.exceptions.JedisException;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Buffers positions and writes them to Redis in pipelines. A write starts as soon as the previous one completes, so
+ * under load each pipeline carries up to the batch size of positions in a single round trip.
+ */
 public class PositionForwarderRedis implements PositionForwarder {
 
-    private final String url;
+    private static final Logger LOGGER = LoggerFactory.getLogger(PositionForwarderRedis.class);
+
+    private record Item(byte[] key, byte[] value, ResultHandler resultHandler) {
+    }
 
     private final ObjectMapper objectMapper;
+    private final ExecutorService executorService;
+    private final JedisPool pool;
 
-    public PositionForwarderRedis(Config config, ObjectMapper objectMapper) {
+    private final boolean protobuf;
+    private final int batchSize;
+    private final int bufferLimit;
+
+    private final Queue<Item> buffer = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger bufferSize = new AtomicInteger();
+    private final AtomicBoolean writing = new AtomicBoolean();
+
+    public PositionForwarderRedis(Config config, ObjectMapper objectMapper, ExecutorService executorService) {
         this.objectMapper = objectMapper;
-        this.url = config.getString(Keys.FORWARD_URL);
+        this.executorService = executorService;
+        pool = RedisHelper.createPool(
+                config.getString(Keys.FORWARD_URL), config.getInteger(Keys.FORWARD_REDIS_CONNECTIONS));
+        protobuf = config.getString(Keys.FORWARD_FORMAT).equals("protobuf");
+        batchSize = config.getInteger(Keys.FORWARD_BATCH_SIZE);
+        bufferLimit = config.getInteger(Keys.FORWARD_REDIS_BUFFER);
     }
 
     @Override
     public void forward(PositionData positionData, ResultHandler resultHandler) {
-
+        byte[] value;
         try {
-            String key = "positions." + positionData.getDevice().getUniqueId();
-            String value = objectMapper.writeValueAsString(positionData.getPosition());
-            try (Jedis jedis = new Jedis(url)) {
-                jedis.lpush(key, value);
-            }
-            resultHandler.onResult(true, null);
+            value = protobuf
+                    ? PositionProtobufEncoder.encodePosition(positionData.getPosition())
+                    : objectMapper.writeValueAsBytes(positionData.getPosition());
         } catch (JsonProcessingException e) {
             resultHandler.onResult(false, e);
+            return;
+        }
+        if (bufferSize.incrementAndGet() > bufferLimit) {
+            bufferSize.decrementAndGet();
+            resultHandler.onResult(false, new IOException("Redis forwarding buffer is full"));
+            return;
+        }
+        byte[] key = ("positions." + positionData.getDevice().getUniqueId()).getBytes(StandardCharsets.UTF_8);
+        buffer.add(new Item(key, value, resultHandler));
+        scheduleWrite();
+    }
+
+    private void scheduleWrite() {
+        if (writing.compareAndSet(false, true)) {
+            try {
+                executorService.execute(this::write);
+            } catch (RejectedExecutionException e) {
+                writing.set(false);
+                LOGGER.warn("Redis forwarding write rejected", e);
+                fail(e);
+            }
+        }
+    }
+
+    /**
+     * Fails everything buffered, so no result handler waits for a write that was never scheduled. Items added after
+     * the flag is released schedule their own write.
+     */
+    private void fail(Exception error) {
+        Item item;
+        while ((item = buffer.poll()) != null) {
+            bufferSize.decrementAndGet();
+            item.resultHandler().onResult(false, error);
+        }
+    }
+
+    private void write() {
+        try {
+            List<Item> items = new ArrayList<>();
+            Item item;
+            while ((item = buffer.poll()) != null) {
+                items.add(item);
+                if (items.size() >= batchSize) {
+                    write(items);
+                    items = new ArrayList<>();
+                }
+            }
+            if (!items.isEmpty()) {
+                write(items);
+            }
+        } finally {
+            writing.set(false);
+        }
+        if (!buffer.isEmpty()) {
+            scheduleWrite();
+        }
+    }
+
+    private void write(List<Item> items) {
+        bufferSize.addAndGet(-items.size());
+        try (Jedis jedis = pool.getResource()) {
+            Pipeline pipeline = jedis.pipelined();
+            for (Item item : items) {
+                pipeline.lpush(item.key(), item.value());
+            }
+            pipeline.sync();
+        } catch (JedisException e) {
+            for (Item item : items) {
+                item.resultHandler().onResult(false, e);
+            }
+            return;
+        }
+        for (Item item : items) {
+            item.resultHandler().onResult(true, null);
         }
     }
 
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2026 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.forward;
+
+import org.traccar.model.Device;
+import org.traccar.model.Position;
+import org.traccar.protobuf.forward.PositionForward;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+public final class PositionProtobufEncoder {
+
+    private PositionProtobufEncoder() {
+    }
+
+    private static long toMillis(Date date) {
+        return date != null ? date.getTime() : 0;
+    }
+
+    private static PositionForward.Value encodeValue(Object value) {
+        PositionForward.Value.Builder builder = PositionForward.Value.newBuilder();
+        if (value instanceof Double || value instanceof Float) {
+            builder.setDoubleValue(((Number) value).doubleValue());
+        } else if (value instanceof Number number) {
+            builder.setLongValue(number.longValue());
+        } else if (value instanceof Boolean bool) {
+            builder.setBooleanValue(bool);
+        } else {
+            builder.setStringValue(String.valueOf(value));
+        }
+        return builder.build();
+    }
+
+    private static Map<String, PositionForward.Value> encodeAttributes(Map<String, Object> attributes) {
+        Map<String, PositionForward.Value> result = new HashMap<>();
+        for (Map.Entry<String, Object> entry : attributes.entrySet()) {
+            if (entry.getValue() != null) {
+                result.put(entry.getKey(), encodeValue(entry.getValue()));
+            }
+        }
+        return result;
+    }
+
+    private static PositionForward.Device encodeDevice(Device device) {
+        PositionForward.Device.Builder builder = PositionForward.Device.newBuilder()
+                .setId(device.getId())
+                .setGroupId(device.getGroupId());
+        if (device.getUniqueId() != null) {
+            builder.setUniqueId(device.getUniqueId());
+        }
+        if (device.getName() != null) {
+            builder.setName(device.getName());
+        }
+        if (device.getStatus() != null) {
+            builder.setStatus(device.getStatus());
+        }
+        if (device.getCategory() != null) {
+            builder.setCategory(device.getCategory());
+        }
+        builder.putAllAttributes(encodeAttributes(device.getAttributes()));
+        return builder.build();
+    }
+
+    private static PositionForward.Position encodePositionMessage(Position position) {
+        PositionForward.Position.Builder builder = PositionForward.Position.newBuilder()
+                .setId(position.getId())
+                .setDeviceId(position.getDeviceId())
+                .setServerTime(toMillis(position.getServerTime()))
+                .setDeviceTime(toMillis(position.getDeviceTime()))
+                .setFixTime(toMillis(position.getFixTime()))
+                .setOutdated(position.getOutdated())
+                .setValid(position.getValid())
+                .setLatitude(position.getLatitude())
+                .setLongitude(position.getLongitude())
+                .setAltitude(position.getAltitude())
+                .setSpeed(position.getSpeed())
+                .setCourse(position.getCourse())
+                .setAccuracy(position.getAccuracy());
+        if (position.getProtocol() != null) {
+            builder.setProtocol(position.getProtocol());
+        }
+        if (position.getAddress() != null) {
+            builder.setAddress(position.getAddress());
+        }
+        if (position.getGeofenceIds() != null) {
+            builder.addAllGeofenceIds(position.getGeofenceIds());
+        }
+        builder.putAllAttributes(encodeAttributes(position.getAttributes()));
+        return builder.build();
+    }
+
+    public static byte[] encode(PositionData positionData) {
+        PositionForward.PositionData.Builder builder = PositionForward.PositionData.newBuilder();
+        if (positionData.getPosition() != null) {
+            builder.setPosition(encodePositionMessage(positionData.getPosition()));
+        }
+        if (positionData.getDevice() != null) {
+            builder.setDevice(encodeDevice(positionData.getDevice()));
+        }
+        return builder.build().toByteArray();
+    }
+
+    public static byte[] encodePosition(Position position) {
+        return encodePositionMessage(position).toByteArray();
+    }
+
+}
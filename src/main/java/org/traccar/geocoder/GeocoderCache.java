@@ -0,0 +1,93 @@
+/*
+ * Copyright 2026 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.geocoder;
+
+import org.traccar.helper.PersistentCache;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Address cache keyed by a quantized coordinate grid, optionally persisted to a local MVStore file.
+ */
+public class GeocoderCache implements AutoCloseable {
+
+    private static final double METERS_PER_DEGREE = 111320;
+    private static final double EXACT_STEP = 0.0000001;
+
+    private final double latitudeStep;
+    private final PersistentCache<Long, String> addresses;
+    private final Map<Long, CompletableFuture<String>> pending = new ConcurrentHashMap<>();
+
+    public GeocoderCache(int size, int grid, String file) {
+        latitudeStep = grid > 0 ? grid / METERS_PER_DEGREE : EXACT_STEP;
+        addresses = new PersistentCache<>(size, size * 10, file, "addresses");
+    }
+
+    public long getKey(double latitude, double longitude) {
+        long row = (long) Math.floor(latitude / latitudeStep);
+        double longitudeStep = latitudeStep;
+        if (latitudeStep > EXACT_STEP) {
+            double cos = Math.cos(Math.toRadians((row + 0.5) * latitudeStep));
+            longitudeStep = latitudeStep / Math.max(cos, 0.01);
+        }
+        long column = (long) Math.floor(longitude / longitudeStep);
+        return (row << 32) | (column & 0xffffffffL);
+    }
+
+    public String get(long key) {
+        return addresses.get(key);
+    }
+
+    public void put(long key, String address) {
+        addresses.put(key, address);
+    }
+
+    /**
+     * Returns a future for an in-flight lookup of the same cell or null if the caller should perform the lookup
+     * and later call {@link #complete(long, String)}.
+     */
+    public CompletableFuture<String> join(long key) {
+        return pending.putIfAbsent(key, new CompletableFuture<>());
+    }
+
+    public void complete(long key, String address) {
+        try {
+            if (address != null) {
+                put(key, address);
+            }
+        } finally {
+            CompletableFuture<String> future = pending.remove(key);
+            if (future != null) {
+                future.complete(address);
+            }
+        }
+    }
+
+    public void fail(long key, Throwable error) {
+        CompletableFuture<String> future = pending.remove(key);
+        if (future != null) {
+            future.completeExceptionally(error);
+        }
+    }
+
+    @Override
+    public void close() {
+        addresses.close();
+    }
+
+}
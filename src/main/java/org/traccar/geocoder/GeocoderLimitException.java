@@ -0,0 +1,37 @@
+/*
+ * Copyright 2026 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.geocoder;
+
+/**
+ * Request was not sent to the provider because the configured rate or concurrency limit has been reached.
+ */
+public class GeocoderLimitException extends GeocoderException {
+
+    private final long delay;
+
+    public GeocoderLimitException(long delay) {
+        super("Geocoder limit reached");
+        this.delay = delay;
+    }
+
+    /**
+     * Time in milliseconds until the rate limit allows the next request.
+     */
+    public long getDelay() {
+        return delay;
+    }
+
+}
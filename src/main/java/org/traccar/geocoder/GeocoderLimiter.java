@@ -0,0 +1,85 @@
+/*
+ * Copyright 2026 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.geocoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket rate limiter combined with a limit on concurrent requests. Zero rate or concurrency means unlimited.
+ */
+public class GeocoderLimiter {
+
+    private final double rate;
+    private final double burst;
+    private final int maxInFlight;
+
+    private double tokens;
+    private long updated;
+    private int inFlight;
+
+    public GeocoderLimiter(double rate, int burst, int maxInFlight) {
+        this.rate = rate;
+        this.burst = Math.max(burst, 1);
+        this.maxInFlight = maxInFlight;
+        tokens = this.burst;
+        updated = System.nanoTime();
+    }
+
+    private void refill(long now) {
+        if (rate > 0) {
+            tokens = Math.min(burst, tokens + (now - updated) * rate / TimeUnit.SECONDS.toNanos(1));
+        }
+        updated = now;
+    }
+
+    /**
+     * Acquire permission for one request. Every successful call has to be followed by {@link #release()}.
+     */
+    public boolean tryAcquire() {
+        return tryAcquire(System.nanoTime());
+    }
+
+    synchronized boolean tryAcquire(long now) {
+        refill(now);
+        if (maxInFlight > 0 && inFlight >= maxInFlight) {
+            return false;
+        }
+        if (rate > 0) {
+            if (tokens < 1) {
+                return false;
+            }
+            tokens -= 1;
+        }
+        inFlight += 1;
+        return true;
+    }
+
+    public synchronized void release() {
+        inFlight -= 1;
+    }
+
+    /**
+     * Time in milliseconds until the next token becomes available.
+     */
+    public synchronized long getDelay() {
+        refill(System.nanoTime());
+        if (rate > 0 && tokens < 1) {
+            return (long) Math.ceil((1 - tokens) * 1000 / rate);
+        }
+        return 0;
+    }
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2015 - 2024 Anton Tananaev (anton@traccar.org)
+ * Copyright 2015 - 2026 Anton Tananaev (anton@traccar.org)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -23,10 +23,8 @@ import jakarta.json.JsonObject;
 import jakarta.ws.rs.client.Client;
 import jakarta.ws.rs.client.InvocationCallback;
 
-import java.util.AbstractMap;
-import java.util.Collections;
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public abstract class JsonGeocoder implements Geocoder {
 
@@ -37,22 +35,29 @@ public abstract class JsonGeocoder implements Geocoder {
     private final AddressFormat addressFormat;
     private StatisticsManager statisticsManager;
 
-    private Map<Map.Entry<Double, Double>, String> cache;
+    private GeocoderCache cache;
+    private GeocoderLimiter limiter;
 
     public JsonGeocoder(Client client, String url, final int cacheSize, AddressFormat addressFormat) {
         this.client = client;
         this.url = url;
         this.addressFormat = addressFormat;
         if (cacheSize > 0) {
-            this.cache = Collections.synchronizedMap(new LinkedHashMap<>() {
-                @Override
-                protected boolean removeEldestEntry(Map.Entry eldest) {
-                    return size() > cacheSize;
-                }
-            });
+            this.cache = new GeocoderCache(cacheSize, 0, null);
         }
     }
 
+    public void setCache(GeocoderCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Limits requests sent to the provider. Cached and coalesced lookups are not limited.
+     */
+    public void setLimiter(GeocoderLimiter limiter) {
+        this.limiter = limiter;
+    }
+
     @Override
     public void setStatisticsManager(StatisticsManager statisticsManager) {
         this.statisticsManager = statisticsManager;
@@ -65,67 +70,116 @@ public abstract class JsonGeocoder implements Geocoder {
         return null;
     }
 
-    private String handleResponse(
-            double latitude, double longitude, JsonObject json, ReverseGeocoderCallback callback) {
-
+    private String formatResponse(JsonObject json) {
         Address address = parseAddress(json);
-        if (address != null) {
-            String formattedAddress = addressFormat.format(address);
-            if (cache != null) {
-                cache.put(new AbstractMap.SimpleImmutableEntry<>(latitude, longitude), formattedAddress);
-            }
-            if (callback != null) {
-                callback.onSuccess(formattedAddress);
-            }
-            return formattedAddress;
-        } else {
-            String msg = "Empty address. Error: " + parseError(json);
-            if (callback != null) {
-                callback.onFailure(new GeocoderException(msg));
-            } else {
-                LOGGER.warn(msg);
-            }
+        if (address == null) {
+            throw new GeocoderException("Empty address. Error: " + parseError(json));
         }
-        return null;
+        return addressFormat.format(address);
+    }
+
+    private void handleFailure(long key, Throwable error, ReverseGeocoderCallback callback) {
+        if (cache != null) {
+            cache.fail(key, error);
+        }
+        callback.onFailure(error);
     }
 
     @Override
     public String getAddress(
             final double latitude, final double longitude, final ReverseGeocoderCallback callback) {
 
+        long key = 0;
         if (cache != null) {
-            String cachedAddress = cache.get(new AbstractMap.SimpleImmutableEntry<>(latitude, longitude));
+            key = cache.getKey(latitude, longitude);
+            String cachedAddress = cache.get(key);
+            if (statisticsManager != null) {
+                statisticsManager.registerGeocoderCache(cachedAddress != null);
+            }
             if (cachedAddress != null) {
                 if (callback != null) {
                     callback.onSuccess(cachedAddress);
                 }
                 return cachedAddress;
             }
+            if (callback != null) {
+                CompletableFuture<String> pending = cache.join(key);
+                if (pending != null) {
+                    pending.whenComplete((address, error) -> {
+                        if (address != null) {
+                            callback.onSuccess(address);
+                        } else {
+                            callback.onFailure(error != null ? error : new GeocoderException("Empty address"));
+                        }
+                    });
+                    return null;
+                }
+            }
+        }
+
+        final long requestKey = key;
+        if (limiter != null && !limiter.tryAcquire()) {
+            if (callback != null) {
+                handleFailure(requestKey, new GeocoderLimitException(limiter.getDelay()), callback);
+            }
+            return null;
         }
+        AtomicBoolean acquired = new AtomicBoolean(limiter != null);
+        Runnable release = () -> {
+            if (acquired.compareAndSet(true, false)) {
+                limiter.release();
+            }
+        };
 
         if (statisticsManager != null) {
             statisticsManager.registerGeocoderRequest();
         }
 
-        var request = client.target(String.format(url, latitude, longitude)).request();
-
         if (callback != null) {
-            request.async().get(new InvocationCallback<JsonObject>() {
-                @Override
-                public void completed(JsonObject json) {
-                    handleResponse(latitude, longitude, json, callback);
-                }
-
-                @Override
-                public void failed(Throwable throwable) {
-                    callback.onFailure(throwable);
-                }
-            });
+            // every path has to complete the pending cache entry, otherwise later lookups of the cell never finish
+            try {
+                client.target(String.format(url, latitude, longitude)).request().async().get(
+                        new InvocationCallback<JsonObject>() {
+                    @Override
+                    public void completed(JsonObject json) {
+                        release.run();
+                        String address;
+                        try {
+                            address = formatResponse(json);
+                        } catch (RuntimeException e) {
+                            handleFailure(requestKey, e, callback);
+                            return;
+                        }
+                        if (cache != null) {
+                            cache.complete(requestKey, address);
+                        }
+                        callback.onSuccess(address);
+                    }
+
+                    @Override
+                    public void failed(Throwable throwable) {
+                        release.run();
+                        handleFailure(requestKey, throwable, callback);
+                    }
+                });
+            } catch (RuntimeException e) {
+                release.run();
+                handleFailure(requestKey, e, callback);
+            }
         } else {
             try {
-                return handleResponse(latitude, longitude, request.get(JsonObject.class), null);
+                String address = formatResponse(
+                        client.target(String.format(url, latitude, longitude)).request().get(JsonObject.class));
+                if (cache != null) {
+                    cache.put(requestKey, address);
+                }
+                return address;
+            } catch (GeocoderException e) {
+                LOGGER.warn(e.getMessage());
             } catch (Exception e) {
                 LOGGER.warn("Geocoder network error", e);
+            } finally {
+                release.run();
             }
         }
         return null;
@@ -0,0 +1,265 @@
+/*
+ * Copyright 2026 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.geocoder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.traccar.database.StatisticsManager;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reverse geocoder backed by a local dataset. Supported formats are delimited files with a header row using column
+ * names latitude, longitude, house, street, suburb, settlement, district, state, country, postcode and address, or
+ * GeoNames dumps without a header. Nearest point is found using a k-d tree over unit sphere coordinates.
+ */
+public class OfflineGeocoder implements Geocoder {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OfflineGeocoder.class);
+
+    private static final int GEONAMES_COLUMNS = 19;
+
+    private final AddressFormat addressFormat;
+
+    private float[] coordinates;
+    private String[] addresses;
+
+    private record Point(double latitude, double longitude, String address) {
+    }
+
+    public OfflineGeocoder(String file, AddressFormat addressFormat) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException("Offline geocoder requires geocoder.file to be configured");
+        }
+        this.addressFormat = addressFormat;
+        InputStream inputStream = Files.newInputStream(Path.of(file));
+        if (file.endsWith(".gz")) {
+            inputStream = new GZIPInputStream(inputStream);
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            build(read(reader));
+        }
+    }
+
+    OfflineGeocoder(BufferedReader reader, AddressFormat addressFormat) throws IOException {
+        this.addressFormat = addressFormat;
+        build(read(reader));
+    }
+
+    private static String value(String[] values, Integer index) {
+        if (index != null && index < values.length && !values[index].isEmpty()) {
+            return values[index];
+        }
+        return null;
+    }
+
+    private List<Point> read(BufferedReader reader) throws IOException {
+        List<Point> points = new ArrayList<>();
+        Map<String, String> strings = new HashMap<>();
+
+        String line = reader.readLine();
+        if (line == null) {
+            return points;
+        }
+        String delimiter = line.contains("\t") ? "\t" : ",";
+        String[] header = line.split(delimiter, -1);
+
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.length; i++) {
+            columns.put(header[i].trim().toLowerCase(Locale.ROOT), i);
+        }
+        boolean geonames = !columns.containsKey("latitude") && header.length >= GEONAMES_COLUMNS;
+        if (geonames) {
+            columns.clear();
+            columns.put("settlement", 1);
+            columns.put("latitude", 4);
+            columns.put("longitude", 5);
+            columns.put("country", 8);
+            columns.put("state", 10);
+        } else if (!columns.containsKey("latitude") || !columns.containsKey("longitude")) {
+            throw new IOException("Missing latitude or longitude column");
+        }
+
+        if (geonames) {
+            line = String.join(delimiter, header);
+        } else {
+            line = reader.readLine();
+        }
+        int skipped = 0;
+        while (line != null) {
+            String[] values = line.split(delimiter, -1);
+            try {
+                double latitude = Double.parseDouble(values[columns.get("latitude")]);
+                double longitude = Double.parseDouble(values[columns.get("longitude")]);
+
+                Address address = new Address();
+                address.setHouse(value(values, columns.get("house")));
+                address.setStreet(value(values, columns.get("street")));
+                address.setSuburb(value(values, columns.get("suburb")));
+                address.setSettlement(value(values, columns.getOrDefault("settlement", columns.get("city"))));
+                address.setDistrict(value(values, columns.get("district")));
+                address.setState(value(values, columns.get("state")));
+                address.setCountry(value(values, columns.get("country")));
+                address.setPostcode(value(values, columns.get("postcode")));
+                address.setFormattedAddress(value(values, columns.get("address")));
+
+                String formatted = addressFormat.format(address);
+                points.add(new Point(latitude, longitude, strings.computeIfAbsent(formatted, k -> k)));
+            } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                skipped += 1;
+            }
+            line = reader.readLine();
+        }
+        if (skipped > 0) {
+            LOGGER.warn("Geocoder dataset skipped {} malformed rows", skipped);
+        }
+        return points;
+    }
+
+    private void build(List<Point> points) {
+        int count = points.size();
+        coordinates = new float[count * 3];
+        addresses = new String[count];
+        for (int i = 0; i < count; i++) {
+            Point point = points.get(i);
+            double latitude = Math.toRadians(point.latitude());
+            double longitude = Math.toRadians(point.longitude());
+            coordinates[i * 3] = (float) (Math.cos(latitude) * Math.cos(longitude));
+            coordinates[i * 3 + 1] = (float) (Math.cos(latitude) * Math.sin(longitude));
+            coordinates[i * 3 + 2] = (float) Math.sin(latitude);
+            addresses[i] = point.address();
+        }
+        buildTree(0, count, 0);
+    }
+
+    private void swap(int i, int j) {
+        for (int k = 0; k < 3; k++) {
+            float coordinate = coordinates[i * 3 + k];
+            coordinates[i * 3 + k] = coordinates[j * 3 + k];
+            coordinates[j * 3 + k] = coordinate;
+        }
+        String address = addresses[i];
+        addresses[i] = addresses[j];
+        addresses[j] = address;
+    }
+
+    private void select(int from, int to, int nth, int axis) {
+        while (to - from > 1) {
+            float pivot = coordinates[((from + to) >>> 1) * 3 + axis];
+            int i = from;
+            int j = to - 1;
+            while (i <= j) {
+                while (coordinates[i * 3 + axis] < pivot) {
+                    i += 1;
+                }
+                while (coordinates[j * 3 + axis] > pivot) {
+                    j -= 1;
+                }
+                if (i <= j) {
+                    swap(i, j);
+                    i += 1;
+                    j -= 1;
+                }
+            }
+            if (nth <= j) {
+                to = j + 1;
+            } else if (nth >= i) {
+                from = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void buildTree(int from, int to, int axis) {
+        if (to - from > 1) {
+            int middle = (from + to) >>> 1;
+            select(from, to, middle, axis);
+            buildTree(from, middle, (axis + 1) % 3);
+            buildTree(middle + 1, to, (axis + 1) % 3);
+        }
+    }
+
+    private int nearest(int from, int to, int axis, float x, float y, float z, int best, float[] bestDistance) {
+        if (to <= from) {
+            return best;
+        }
+        int middle = (from + to) >>> 1;
+        float dx = coordinates[middle * 3] - x;
+        float dy = coordinates[middle * 3 + 1] - y;
+        float dz = coordinates[middle * 3 + 2] - z;
+        float distance = dx * dx + dy * dy + dz * dz;
+        if (distance < bestDistance[0]) {
+            bestDistance[0] = distance;
+            best = middle;
+        }
+        float target = axis == 0 ? x : axis == 1 ? y : z;
+        float delta = target - coordinates[middle * 3 + axis];
+        int next = (axis + 1) % 3;
+        if (delta < 0) {
+            best = nearest(from, middle, next, x, y, z, best, bestDistance);
+            if (delta * delta < bestDistance[0]) {
+                best = nearest(middle + 1, to, next, x, y, z, best, bestDistance);
+            }
+        } else {
+            best = nearest(middle + 1, to, next, x, y, z, best, bestDistance);
+            if (delta * delta < bestDistance[0]) {
+                best = nearest(from, middle, next, x, y, z, best, bestDistance);
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public void setStatisticsManager(StatisticsManager statisticsManager) {
+    }
+
+    @Override
+    public String getAddress(double latitude, double longitude, ReverseGeocoderCallback callback) {
+        String address = null;
+        if (addresses.length > 0) {
+            double latitudeRadians = Math.toRadians(latitude);
+            double longitudeRadians = Math.toRadians(longitude);
+            float x = (float) (Math.cos(latitudeRadians) * Math.cos(longitudeRadians));
+            float y = (float) (Math.cos(latitudeRadians) * Math.sin(longitudeRadians));
+            float z = (float) Math.sin(latitudeRadians);
+            int index = nearest(0, addresses.length, 0, x, y, z, -1, new float[] {Float.MAX_VALUE});
+            address = addresses[index];
+        }
+        if (callback != null) {
+            if (address != null) {
+                callback.onSuccess(address);
+            } else {
+                callback.onFailure(new GeocoderException("Empty dataset"));
+            }
+            return null;
+        }
+        return address;
+    }
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2016 - 2020 Anton Tananaev (anton@traccar.org)
+ * Copyright 2016 - 2026 Anton Tananaev (anton@traccar.org)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,7 @@ package org.traccar.geofence;
 import java.text.DecimalFormat;
 import java.text.ParseException;
 
+import org.locationtech.jts.geom.Envelope;
 import org.traccar.config.Config;
 import org.traccar.helper.DistanceCalculator;
 import org.traccar.model.Geofence;
@@ -50,6 +51,11 @@ public class GeofenceCircle extends GeofenceGeometry {
         return distanceFromCenter(latitude, longitude) <= radius;
     }
 
+    @Override
+    public Envelope getEnvelope(Config config, Geofence geofence) {
+        return expandEnvelope(new Envelope(centerLongitude, centerLongitude, centerLatitude, centerLatitude), radius);
+    }
+
     @Override
     public double calculateArea() {
         return Math.PI * radius * radius;
@@ -1,5 +1,5 @@
 /*
- * Copyright 2016 - 2020 Anton Tananaev (anton@traccar.org)
+ * Copyright 2016 - 2026 Anton Tananaev (anton@traccar.org)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -15,6 +15,7 @@
  */
 package org.traccar.geofence;
 
+import org.locationtech.jts.geom.Envelope;
 import org.traccar.config.Config;
 import org.traccar.model.Geofence;
 
@@ -22,34 +23,67 @@ import java.text.ParseException;
 
 public abstract class GeofenceGeometry {
 
+    private static final double METERS_PER_DEGREE = 110000;
+
     public abstract boolean containsPoint(Config config, Geofence geofence, double latitude, double longitude);
 
+    /**
+     * Bounding box (longitude as x, latitude as y) guaranteed to include all points accepted by containsPoint.
+     */
+    public abstract Envelope getEnvelope(Config config, Geofence geofence);
+
+    protected static Envelope expandEnvelope(Envelope envelope, double distance) {
+        double latitudeDelta = distance / METERS_PER_DEGREE;
+        double minLat = Math.max(envelope.getMinY() - latitudeDelta, -90);
+        double maxLat = Math.min(envelope.getMaxY() + latitudeDelta, 90);
+        double cos = Math.cos(Math.toRadians(Math.max(Math.abs(minLat), Math.abs(maxLat))));
+        double longitudeDelta = cos > 0.01 ? latitudeDelta / cos : 360;
+        double minLon = envelope.getMinX() - longitudeDelta;
+        double maxLon = envelope.getMaxX() + longitudeDelta;
+        if (minLon < -180 || maxLon > 180) {
+            minLon = -180;
+            maxLon = 180;
+        }
+        return new Envelope(minLon, maxLon, minLat, maxLat);
+    }
+
     public abstract double calculateArea();
 
     public abstract String toWkt();
 
     public abstract void fromWkt(String wkt) throws ParseException;
 
-    public static class Coordinate {
-
-        private double lat;
-        private double lon;
-
-        public double getLat() {
-            return lat;
-        }
-
-        public void setLat(double lat) {
-            this.lat = lat;
-        }
-
-        public double getLon() {
-            return lon;
+    protected static void parseCoordinates(
+            String[] commaTokens, double[] latitudes, double[] longitudes) throws ParseException {
+        for (int i = 0; i < commaTokens.length; i++) {
+            String[] tokens = commaTokens[i].trim().split("\\s");
+            if (tokens.length != 2) {
+                throw new ParseException("Here must be two coordinates: " + commaTokens[i], 0);
+            }
+            try {
+                latitudes[i] = Double.parseDouble(tokens[0]);
+            } catch (NumberFormatException e) {
+                throw new ParseException(tokens[0] + " is not a double", 0);
+            }
+            try {
+                longitudes[i] = Double.parseDouble(tokens[1]);
+            } catch (NumberFormatException e) {
+                throw new ParseException(tokens[1] + " is not a double", 0);
+            }
         }
+    }
 
-        public void setLon(double lon) {
-            this.lon = lon;
+    protected static String formatCoordinates(double[] latitudes, double[] longitudes) {
+        StringBuilder buf = new StringBuilder();
+        for (int i = 0; i < latitudes.length; i++) {
+            if (i > 0) {
+                buf.append(", ");
+            }
+            buf.append(latitudes[i]);
+            buf.append(" ");
+            buf.append(longitudes[i]);
         }
+        return buf.toString();
     }
 
 }
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2026 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.geofence;
+
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.index.quadtree.Quadtree;
+import org.traccar.config.Config;
+import org.traccar.model.Geofence;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+public class GeofenceIndex {
+
+    private record Entry(Geofence geofence, Envelope envelope) {
+    }
+
+    private final Config config;
+
+    private final Quadtree tree = new Quadtree();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public GeofenceIndex(Config config) {
+        this.config = config;
+    }
+
+    private boolean isCurrent(Collection<Geofence> geofences) {
+        if (geofences.size() != entries.size()) {
+            return false;
+        }
+        for (Geofence geofence : geofences) {
+            Entry entry = entries.get(geofence.getId());
+            if (entry == null || entry.geofence() != geofence) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Synchronize index with cached geofences. Only added, removed or replaced geofences are re-indexed.
+     */
+    public void update(Collection<Geofence> geofences) {
+        lock.readLock().lock();
+        try {
+            if (isCurrent(geofences)) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        lock.writeLock().lock();
+        try {
+            Set<Long> ids = new HashSet<>();
+            for (Geofence geofence : geofences) {
+                ids.add(geofence.getId());
+                Entry entry = entries.get(geofence.getId());
+                if (entry == null || entry.geofence() != geofence) {
+                    if (entry != null) {
+                        tree.remove(entry.envelope(), entry);
+                    }
+                    if (geofence.getGeometry() != null) {
+                        Entry added = new Entry(geofence, geofence.getGeometry().getEnvelope(config, geofence));
+                        tree.insert(added.envelope(), added);
+                        entries.put(geofence.getId(), added);
+                    } else {
+                        entries.remove(geofence.getId());
+                    }
+                }
+            }
+            var iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                Entry entry = iterator.next();
+                if (!ids.contains(entry.geofence().getId())) {
+                    tree.remove(entry.envelope(), entry);
+                    iterator.remove();
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Long> getGeofences(double latitude, double longitude) {
+        List<Long> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Object item : tree.query(new Envelope(longitude, longitude, latitude, latitude))) {
+                Geofence geofence = ((Entry) item).geofence();
+                if (((Entry) item).envelope().contains(longitude, latitude)
+                        && geofence.getGeometry().containsPoint(config, geofence, latitude, longitude)) {
+                    result.add(geofence.getId());
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+}
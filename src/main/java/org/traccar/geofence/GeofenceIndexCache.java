@@ -0,0 +1,80 @@
+/*
+ * Copyright 2026 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.geofence;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.traccar.config.Config;
+import org.traccar.model.Geofence;
+import org.traccar.session.cache.CacheManager;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+@Singleton
+public class GeofenceIndexCache {
+
+    private static final int CACHE_SIZE = 1000;
+    private static final int INDEX_THRESHOLD = 32;
+
+    private record DeviceIndex(long version, GeofenceIndex index) {
+    }
+
+    private final Config config;
+    private final CacheManager cacheManager;
+
+    private final Map<Set<Long>, GeofenceIndex> indexes = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry eldest) {
+                    return size() > CACHE_SIZE;
+                }
+            });
+
+    private final Map<Long, DeviceIndex> deviceIndexes = new ConcurrentHashMap<>();
+
+    @Inject
+    public GeofenceIndexCache(Config config, CacheManager cacheManager) {
+        this.config = config;
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Index shared by all devices linked to the same set of geofences or null if the device has too few geofences to
+     * benefit from indexing. The index is only rebuilt after cached geofences change.
+     */
+    public GeofenceIndex getIndex(long deviceId) {
+        long version = cacheManager.getGeofencesVersion();
+        DeviceIndex deviceIndex = deviceIndexes.get(deviceId);
+        if (deviceIndex == null || deviceIndex.version() != version) {
+            var geofences = cacheManager.getDeviceObjects(deviceId, Geofence.class);
+            GeofenceIndex index = null;
+            if (geofences.size() >= INDEX_THRESHOLD) {
+                Set<Long> key = geofences.stream().map(Geofence::getId).collect(Collectors.toUnmodifiableSet());
+                index = indexes.computeIfAbsent(key, k -> new GeofenceIndex(config));
+                index.update(geofences);
+            }
+            deviceIndex = new DeviceIndex(version, index);
+            deviceIndexes.put(deviceId, deviceIndex);
+        }
+        return deviceIndex.index();
+    }
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2016 - 2020 Anton Tananaev (anton@traccar.org)
+ * Copyright 2016 - 2026 Anton Tananaev (anton@traccar.org)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -15,6 +15,7 @@
  */
 package org.traccar.geofence;
 
+import org.locationtech.jts.geom.Envelope;
 import org.locationtech.spatial4j.context.SpatialContext;
 import org.locationtech.spatial4j.context.jts.JtsSpatialContextFactory;
 import org.locationtech.spatial4j.shape.ShapeFactory;
@@ -23,12 +24,14 @@ import org.traccar.config.Config;
 import org.traccar.model.Geofence;
 
 import java.text.ParseException;
-import java.util.ArrayList;
 
 import static org.locationtech.spatial4j.distance.DistanceUtils.DEG_TO_KM;
 
 public class GeofencePolygon extends GeofenceGeometry {
 
+    private static final int INDEX_THRESHOLD = 64;
+    private static final int INDEX_MAX_BANDS = 4096;
+
     public GeofencePolygon() {
     }
 
@@ -36,55 +39,107 @@ public class GeofencePolygon extends GeofenceGeometry {
         fromWkt(wkt);
     }
 
-    private ArrayList<Coordinate> coordinates;
+    private double[] latitudes;
+    private double[] longitudes;
+    private double[] normalizedLongitudes;
 
     private double[] constant;
     private double[] multiple;
 
-    private boolean needNormalize = false;
+    private double minLatitude;
+    private double maxLatitude;
+    private double minLongitude;
+    private double maxLongitude;
 
-    private void preCalculate() {
-        if (coordinates == null) {
-            return;
-        }
-
-        int polyCorners = coordinates.size();
-        int i;
-        int j = polyCorners - 1;
+    private int bandCount;
+    private double bandWidth;
+    private int[] bandStart;
+    private int[] bandEdges;
 
-        if (constant != null) {
-            constant = null;
-        }
-        if (multiple != null) {
-            multiple = null;
-        }
+    private boolean needNormalize = false;
 
-        constant = new double[polyCorners];
-        multiple = new double[polyCorners];
+    private void preCalculate() {
+        int polyCorners = latitudes.length;
 
         boolean hasNegative = false;
         boolean hasPositive = false;
-        for (i = 0; i < polyCorners; i++) {
-            if (coordinates.get(i).getLon() > 90) {
+        for (int i = 0; i < polyCorners; i++) {
+            if (longitudes[i] > 90) {
                 hasPositive = true;
-            } else if (coordinates.get(i).getLon() < -90) {
+            } else if (longitudes[i] < -90) {
                 hasNegative = true;
             }
         }
         needNormalize = hasPositive && hasNegative;
 
-        for (i = 0; i < polyCorners; j = i++) {
-            if (normalizeLon(coordinates.get(j).getLon()) == normalizeLon(coordinates.get(i).getLon())) {
-                constant[i] = coordinates.get(i).getLat();
+        normalizedLongitudes = new double[polyCorners];
+        minLatitude = Double.POSITIVE_INFINITY;
+        maxLatitude = Double.NEGATIVE_INFINITY;
+        minLongitude = Double.POSITIVE_INFINITY;
+        maxLongitude = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < polyCorners; i++) {
+            normalizedLongitudes[i] = normalizeLon(longitudes[i]);
+            minLatitude = Math.min(minLatitude, latitudes[i]);
+            maxLatitude = Math.max(maxLatitude, latitudes[i]);
+            minLongitude = Math.min(minLongitude, normalizedLongitudes[i]);
+            maxLongitude = Math.max(maxLongitude, normalizedLongitudes[i]);
+        }
+
+        constant = new double[polyCorners];
+        multiple = new double[polyCorners];
+
+        double[] lons = normalizedLongitudes;
+        for (int i = 0, j = polyCorners - 1; i < polyCorners; j = i++) {
+            if (lons[j] == lons[i]) {
+                constant[i] = latitudes[i];
                 multiple[i] = 0;
             } else {
-                constant[i] = coordinates.get(i).getLat()
-                        - (normalizeLon(coordinates.get(i).getLon()) * coordinates.get(j).getLat())
-                        / (normalizeLon(coordinates.get(j).getLon()) - normalizeLon(coordinates.get(i).getLon()))
-                        + (normalizeLon(coordinates.get(i).getLon()) * coordinates.get(i).getLat())
-                        / (normalizeLon(coordinates.get(j).getLon()) - normalizeLon(coordinates.get(i).getLon()));
-                multiple[i] = (coordinates.get(j).getLat() - coordinates.get(i).getLat())
-                        / (normalizeLon(coordinates.get(j).getLon()) - normalizeLon(coordinates.get(i).getLon()));
+                constant[i] = latitudes[i]
+                        - (lons[i] * latitudes[j]) / (lons[j] - lons[i])
+                        + (lons[i] * latitudes[i]) / (lons[j] - lons[i]);
+                multiple[i] = (latitudes[j] - latitudes[i]) / (lons[j] - lons[i]);
+            }
+        }
+
+        buildBands();
+    }
+
+    private int bandOf(double longitude) {
+        int band = (int) ((longitude - minLongitude) / bandWidth);
+        return Math.max(0, Math.min(bandCount - 1, band));
+    }
+
+    private void buildBands() {
+        int polyCorners = latitudes.length;
+        bandStart = null;
+        bandEdges = null;
+        if (polyCorners < INDEX_THRESHOLD || maxLongitude <= minLongitude) {
+            return;
+        }
+
+        bandCount = Math.min(polyCorners / 4, INDEX_MAX_BANDS);
+        bandWidth = (maxLongitude - minLongitude) / bandCount;
+
+        double[] lons = normalizedLongitudes;
+        bandStart = new int[bandCount + 1];
+        for (int i = 0, j = polyCorners - 1; i < polyCorners; j = i++) {
+            int from = bandOf(Math.min(lons[i], lons[j]));
+            int to = bandOf(Math.max(lons[i], lons[j]));
+            for (int band = from; band <= to; band++) {
+                bandStart[band + 1] += 1;
+            }
+        }
+        for (int band = 0; band < bandCount; band++) {
+            bandStart[band + 1] += bandStart[band];
+        }
+
+        bandEdges = new int[bandStart[bandCount]];
+        int[] offsets = new int[bandCount];
+        for (int i = 0, j = polyCorners - 1; i < polyCorners; j = i++) {
+            int from = bandOf(Math.min(lons[i], lons[j]));
+            int to = bandOf(Math.max(lons[i], lons[j]));
+            for (int band = from; band <= to; band++) {
+                bandEdges[bandStart[band] + offsets[band]++] = i;
             }
         }
     }
@@ -96,57 +151,67 @@ public class GeofencePolygon extends GeofenceGeometry {
         return lon;
     }
 
+    private boolean crossesEdge(int i, double longitudeNorm, double latitude) {
+        int j = i == 0 ? latitudes.length - 1 : i - 1;
+        double[] lons = normalizedLongitudes;
+        return (lons[i] < longitudeNorm && lons[j] >= longitudeNorm
+                || lons[j] < longitudeNorm && lons[i] >= longitudeNorm)
+                && longitudeNorm * multiple[i] + constant[i] < latitude;
+    }
+
     @Override
     public boolean containsPoint(Config config, Geofence geofence, double latitude, double longitude) {
 
-        int polyCorners = coordinates.size();
-        int i;
-        int j = polyCorners - 1;
         double longitudeNorm = normalizeLon(longitude);
-        boolean oddNodes = false;
+        if (latitude < minLatitude || latitude > maxLatitude
+                || longitudeNorm < minLongitude || longitudeNorm > maxLongitude) {
+            return false;
+        }
 
-        for (i = 0; i < polyCorners; j = i++) {
-            if (normalizeLon(coordinates.get(i).getLon()) < longitudeNorm
-                    && normalizeLon(coordinates.get(j).getLon()) >= longitudeNorm
-                    || normalizeLon(coordinates.get(j).getLon()) < longitudeNorm
-                    && normalizeLon(coordinates.get(i).getLon()) >= longitudeNorm) {
-                oddNodes ^= longitudeNorm * multiple[i] + constant[i] < latitude;
+        boolean oddNodes = false;
+        if (bandEdges != null) {
+            int band = bandOf(longitudeNorm);
+            for (int k = bandStart[band]; k < bandStart[band + 1]; k++) {
+                oddNodes ^= crossesEdge(bandEdges[k], longitudeNorm, latitude);
+            }
+        } else {
+            for (int i = 0; i < latitudes.length; i++) {
+                oddNodes ^= crossesEdge(i, longitudeNorm, latitude);
             }
         }
         return oddNodes;
     }
 
+    @Override
+    public Envelope getEnvelope(Config config, Geofence geofence) {
+        Envelope envelope = new Envelope();
+        for (int i = 0; i < latitudes.length; i++) {
+            envelope.expandToInclude(longitudes[i], latitudes[i]);
+        }
+        if (needNormalize) {
+            envelope.expandToInclude(-180, envelope.getMinY());
+            envelope.expandToInclude(180, envelope.getMaxY());
+        }
+        return envelope;
+    }
+
     @Override
     public double calculateArea() {
         JtsShapeFactory jtsShapeFactory = new JtsSpatialContextFactory().newSpatialContext().getShapeFactory();
         ShapeFactory.PolygonBuilder polygonBuilder = jtsShapeFactory.polygon();
-        for (Coordinate coordinate : coordinates) {
-            polygonBuilder.pointXY(coordinate.getLon(), coordinate.getLat());
+        for (int i = 0; i < latitudes.length; i++) {
+            polygonBuilder.pointXY(longitudes[i], latitudes[i]);
         }
         return polygonBuilder.build().getArea(SpatialContext.GEO) * DEG_TO_KM * DEG_TO_KM;
     }
 
     @Override
     public String toWkt() {
-        StringBuilder buf = new StringBuilder();
-        buf.append("POLYGON ((");
-        for (Coordinate coordinate : coordinates) {
-            buf.append(coordinate.getLat());
-            buf.append(" ");
-            buf.append(coordinate.getLon());
-            buf.append(", ");
-        }
-        return buf.substring(0, buf.length() - 2) + "))";
+        return "POLYGON ((" + formatCoordinates(latitudes, longitudes) + "))";
     }
 
     @Override
     public void fromWkt(String wkt) throws ParseException {
-        if (coordinates == null) {
-            coordinates = new ArrayList<>();
-        } else {
-            coordinates.clear();
-        }
-
         if (!wkt.startsWith("POLYGON")) {
             throw new ParseException("Mismatch geometry type", 0);
         }
@@ -159,24 +224,9 @@ public class GeofencePolygon extends GeofenceGeometry {
             throw new ParseException("Not valid content", 0);
         }
 
-        for (String commaToken : commaTokens) {
-            String[] tokens = commaToken.trim().split("\\s");
-            if (tokens.length != 2) {
-                throw new ParseException("Here must be two coordinates: " + commaToken, 0);
-            }
-            Coordinate coordinate = new Coordinate();
-            try {
-                coordinate.setLat(Double.parseDouble(tokens[0]));
-            } catch (NumberFormatException e) {
-                throw new ParseException(tokens[0] + " is not a double", 0);
-            }
-            try {
-                coordinate.setLon(Double.parseDouble(tokens[1]));
-            } catch (NumberFormatException e) {
-                throw new ParseException(tokens[1] + " is not a double", 0);
-            }
-            coordinates.add(coordinate);
-        }
+        latitudes = new double[commaTokens.length];
+        longitudes = new double[commaTokens.length];
+        parseCoordinates(commaTokens, latitudes, longitudes);
 
         preCalculate();
     }
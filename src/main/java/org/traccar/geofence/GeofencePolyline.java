@@ -1,5 +1,5 @@
 /*
- * Copyright 2016 - 2022 Anton Tananaev (anton@traccar.org)
+ * Copyright 2016 - 2026 Anton Tananaev (anton@traccar.org)
  * Copyright 2016 Andrey Kunitsyn (andrey@traccar.org)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
@@ -17,8 +17,8 @@
 package org.traccar.geofence;
 
 import java.text.ParseException;
-import java.util.ArrayList;
 
+import org.locationtech.jts.geom.Envelope;
 import org.traccar.config.Config;
 import org.traccar.config.Keys;
 import org.traccar.helper.DistanceCalculator;
@@ -26,7 +26,25 @@ import org.traccar.model.Geofence;
 
 public class GeofencePolyline extends GeofenceGeometry {
 
-    private ArrayList<Coordinate> coordinates;
+    private static final double METERS_PER_DEGREE = 110000;
+
+    private static final int INDEX_THRESHOLD = 64;
+    private static final int INDEX_MAX_CELLS = 256;
+
+    private double[] latitudes;
+    private double[] longitudes;
+
+    private double minLatitude;
+    private double maxLatitude;
+    private double minLongitude;
+    private double maxLongitude;
+
+    private int gridColumns;
+    private int gridRows;
+    private double cellWidth;
+    private double cellHeight;
+    private int[] cellStart;
+    private int[] cellSegments;
 
     public GeofencePolyline() {
     }
@@ -35,22 +53,137 @@ public class GeofencePolyline extends GeofenceGeometry {
         fromWkt(wkt);
     }
 
-    @Override
-    public boolean containsPoint(Config config, Geofence geofence, double latitude, double longitude) {
+    private double getDistance(Config config, Geofence geofence) {
         double distance = geofence.getDouble("polylineDistance");
         if (distance == 0) {
             distance = config.getDouble(Keys.GEOFENCE_POLYLINE_DISTANCE);
         }
-        for (int i = 1; i < coordinates.size(); i++) {
-            if (DistanceCalculator.distanceToLine(
-                    latitude, longitude, coordinates.get(i - 1).getLat(), coordinates.get(i - 1).getLon(),
-                    coordinates.get(i).getLat(), coordinates.get(i).getLon()) <= distance) {
-                return true;
+        return distance;
+    }
+
+    private void preCalculate() {
+        minLatitude = Double.POSITIVE_INFINITY;
+        maxLatitude = Double.NEGATIVE_INFINITY;
+        minLongitude = Double.POSITIVE_INFINITY;
+        maxLongitude = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < latitudes.length; i++) {
+            minLatitude = Math.min(minLatitude, latitudes[i]);
+            maxLatitude = Math.max(maxLatitude, latitudes[i]);
+            minLongitude = Math.min(minLongitude, longitudes[i]);
+            maxLongitude = Math.max(maxLongitude, longitudes[i]);
+        }
+        buildGrid();
+    }
+
+    private int columnOf(double longitude) {
+        return Math.max(0, Math.min(gridColumns - 1, (int) ((longitude - minLongitude) / cellWidth)));
+    }
+
+    private int rowOf(double latitude) {
+        return Math.max(0, Math.min(gridRows - 1, (int) ((latitude - minLatitude) / cellHeight)));
+    }
+
+    private void buildGrid() {
+        int segments = latitudes.length - 1;
+        cellStart = null;
+        cellSegments = null;
+        if (segments < INDEX_THRESHOLD) {
+            return;
+        }
+
+        int size = Math.min((int) Math.ceil(Math.sqrt(segments)), INDEX_MAX_CELLS);
+        gridColumns = maxLongitude > minLongitude ? size : 1;
+        gridRows = maxLatitude > minLatitude ? size : 1;
+        cellWidth = gridColumns > 1 ? (maxLongitude - minLongitude) / gridColumns : 1;
+        cellHeight = gridRows > 1 ? (maxLatitude - minLatitude) / gridRows : 1;
+
+        cellStart = new int[gridColumns * gridRows + 1];
+        for (int pass = 0; pass < 2; pass++) {
+            int[] offsets = pass > 0 ? new int[gridColumns * gridRows] : null;
+            for (int i = 1; i <= segments; i++) {
+                int fromColumn = columnOf(Math.min(longitudes[i - 1], longitudes[i]));
+                int toColumn = columnOf(Math.max(longitudes[i - 1], longitudes[i]));
+                int fromRow = rowOf(Math.min(latitudes[i - 1], latitudes[i]));
+                int toRow = rowOf(Math.max(latitudes[i - 1], latitudes[i]));
+                for (int row = fromRow; row <= toRow; row++) {
+                    for (int column = fromColumn; column <= toColumn; column++) {
+                        int cell = row * gridColumns + column;
+                        if (offsets == null) {
+                            cellStart[cell + 1] += 1;
+                        } else {
+                            cellSegments[cellStart[cell] + offsets[cell]++] = i;
+                        }
+                    }
+                }
+            }
+            if (offsets == null) {
+                for (int cell = 0; cell < gridColumns * gridRows; cell++) {
+                    cellStart[cell + 1] += cellStart[cell];
+                }
+                cellSegments = new int[cellStart[gridColumns * gridRows]];
+            }
+        }
+    }
+
+    private boolean nearSegment(
+            int i, double latitude, double longitude, double distance, double latitudeDelta, double longitudeDelta) {
+        double lat1 = latitudes[i - 1];
+        double lon1 = longitudes[i - 1];
+        double lat2 = latitudes[i];
+        double lon2 = longitudes[i];
+        if (latitude < Math.min(lat1, lat2) - latitudeDelta || latitude > Math.max(lat1, lat2) + latitudeDelta
+                || longitude < Math.min(lon1, lon2) - longitudeDelta
+                || longitude > Math.max(lon1, lon2) + longitudeDelta) {
+            return false;
+        }
+        return DistanceCalculator.distanceToLine(latitude, longitude, lat1, lon1, lat2, lon2) <= distance;
+    }
+
+    @Override
+    public boolean containsPoint(Config config, Geofence geofence, double latitude, double longitude) {
+        double distance = getDistance(config, geofence);
+
+        double latitudeDelta = distance / METERS_PER_DEGREE;
+        double cos = Math.cos(Math.toRadians(Math.min(Math.abs(latitude) + latitudeDelta, 90)));
+        double longitudeDelta = cos > 0.01 ? latitudeDelta / cos : 360;
+
+        if (latitude < minLatitude - latitudeDelta || latitude > maxLatitude + latitudeDelta
+                || longitude < minLongitude - longitudeDelta || longitude > maxLongitude + longitudeDelta) {
+            return false;
+        }
+
+        if (cellSegments != null) {
+            int fromColumn = columnOf(longitude - longitudeDelta);
+            int toColumn = columnOf(longitude + longitudeDelta);
+            int fromRow = rowOf(latitude - latitudeDelta);
+            int toRow = rowOf(latitude + latitudeDelta);
+            for (int row = fromRow; row <= toRow; row++) {
+                for (int column = fromColumn; column <= toColumn; column++) {
+                    int cell = row * gridColumns + column;
+                    for (int k = cellStart[cell]; k < cellStart[cell + 1]; k++) {
+                        int segment = cellSegments[k];
+                        if (nearSegment(segment, latitude, longitude, distance, latitudeDelta, longitudeDelta)) {
+                            return true;
+                        }
+                    }
+                }
+            }
+        } else {
+            for (int i = 1; i < latitudes.length; i++) {
+                if (nearSegment(i, latitude, longitude, distance, latitudeDelta, longitudeDelta)) {
+                    return true;
+                }
             }
         }
         return false;
     }
 
+    @Override
+    public Envelope getEnvelope(Config config, Geofence geofence) {
+        return expandEnvelope(
+                new Envelope(minLongitude, maxLongitude, minLatitude, maxLatitude), getDistance(config, geofence));
+    }
+
     @Override
     public double calculateArea() {
         return 0;
@@ -58,25 +191,11 @@ public class GeofencePolyline extends GeofenceGeometry {
 
     @Override
     public String toWkt() {
-        StringBuilder buf = new StringBuilder();
-        buf.append("LINESTRING (");
-        for (Coordinate coordinate : coordinates) {
-            buf.append(coordinate.getLat());
-            buf.append(" ");
-            buf.append(coordinate.getLon());
-            buf.append(", ");
-        }
-        return buf.substring(0, buf.length() - 2) + ")";
+        return "LINESTRING (" + formatCoordinates(latitudes, longitudes) + ")";
     }
 
     @Override
     public void fromWkt(String wkt) throws ParseException {
-        if (coordinates == null) {
-            coordinates = new ArrayList<>();
-        } else {
-            coordinates.clear();
-        }
-
         if (!wkt.startsWith("LINESTRING")) {
             throw new ParseException("Mismatch geometry type", 0);
         }
@@ -89,25 +208,11 @@ public class GeofencePolyline extends GeofenceGeometry {
             throw new ParseException("Not valid content", 0);
         }
 
-        for (String commaToken : commaTokens) {
-            String[] tokens = commaToken.trim().split("\\s");
-            if (tokens.length != 2) {
-                throw new ParseException("Here must be two coordinates: " + commaToken, 0);
-            }
-            Coordinate coordinate = new Coordinate();
-            try {
-                coordinate.setLat(Double.parseDouble(tokens[0]));
-            } catch (NumberFormatException e) {
-                throw new ParseException(tokens[0] + " is not a double", 0);
-            }
-            try {
-                coordinate.setLon(Double.parseDouble(tokens[1]));
-            } catch (NumberFormatException e) {
-                throw new ParseException(tokens[1] + " is not a double", 0);
-            }
-            coordinates.add(coordinate);
-        }
+        latitudes = new double[commaTokens.length];
+        longitudes = new double[commaTokens.length];
+        parseCoordinates(commaTokens, latitudes, longitudes);
 
+        preCalculate();
     }
 
 }
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2026 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.geolocation;
+
+import org.traccar.helper.PersistentCache;
+import org.traccar.model.CellTower;
+import org.traccar.model.Network;
+import org.traccar.model.WifiAccessPoint;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.LongSupplier;
+
+/**
+ * Geolocation results keyed by a fingerprint of visible cell towers and Wi-Fi access points. Signal strength is not
+ * part of the fingerprint, so a stationary device reporting the same network maps to the same entry.
+ */
+public class GeolocationCache implements AutoCloseable {
+
+    public record Location(double latitude, double longitude, double accuracy) {
+    }
+
+    private final long ttl;
+    private final LongSupplier clock;
+    private final PersistentCache<String, double[]> cache;
+
+    public GeolocationCache(int size, long ttl, String file) {
+        this(size, ttl, file, System::currentTimeMillis);
+    }
+
+    public GeolocationCache(int size, long ttl, String file, LongSupplier clock) {
+        this.ttl = ttl;
+        this.clock = clock;
+        cache = new PersistentCache<>(size, size * 10, file, "locations");
+    }
+    public static String getKey(Network network) {
+        List<String> items = new ArrayList<>();
+        if (network.getCellTowers() != null) {
+            for (CellTower cellTower : network.getCellTowers()) {
+                Integer mcc = cellTower.getMobileCountryCode() != null
+                        ? cellTower.getMobileCountryCode() : network.getHomeMobileCountryCode();
+                Integer mnc = cellTower.getMobileNetworkCode() != null
+                        ? cellTower.getMobileNetworkCode() : network.getHomeMobileNetworkCode();
+                items.add("c" + mcc + "-" + mnc + "-" + cellTower.getLocationAreaCode() + "-" + cellTower.getCellId());
+            }
+        }
+        if (network.getWifiAccessPoints() != null) {
+            for (WifiAccessPoint wifiAccessPoint : network.getWifiAccessPoints()) {
+                String mac = wifiAccessPoint.getMacAddress();
+                if (mac != null) {
+                    items.add("w" + mac.replaceAll("[^0-9A-Fa-f]", "").toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        if (items.isEmpty()) {
+            return null;
+        }
+        Collections.sort(items);
+        return String.join(",", items);
+    }
+
+    public Location get(String key) {
+        double[] value = cache.get(key);
+        if (value == null) {
+            return null;
+        }
+        if (ttl > 0 && clock.getAsLong() - (long) value[3] > ttl) {
+            cache.remove(key);
+            return null;
+        }
+        return new Location(value[0], value[1], value[2]);
+    }
+
+    public void put(String key, double latitude, double longitude, double accuracy) {
+        cache.put(key, new double[] {latitude, longitude, accuracy, clock.getAsLong()});
+    }
+
+    @Override
+    public void close() {
+        cache.close();
+    }
+
+}
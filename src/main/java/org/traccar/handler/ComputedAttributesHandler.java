@@ -1,5 +1,5 @@
 /*
- * Copyright 2017 - 2025 Anton Tananaev (anton@traccar.org)
+ * Copyright 2017 - 2026 Anton Tananaev (anton@traccar.org)
  * Copyright 2017 Andrey Kunitsyn (andrey@traccar.org)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
@@ -18,10 +18,11 @@ package org.traccar.handler;
 
 import jakarta.inject.Inject;
 import org.apache.commons.jexl3.JexlBuilder;
+import org.apache.commons.jexl3.JexlContext;
 import org.apache.commons.jexl3.JexlEngine;
 import org.apache.commons.jexl3.JexlException;
 import org.apache.commons.jexl3.JexlFeatures;
-import org.apache.commons.jexl3.MapContext;
+import org.apache.commons.jexl3.JexlScript;
 import org.apache.commons.jexl3.introspection.JexlSandbox;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -42,11 +43,27 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class ComputedAttributesHandler extends BasePositionHandler {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ComputedAttributesHandler.class);
 
+    private static final Map<String, Method> PROPERTIES = new HashMap<>();
+
+    static {
+        ReflectionCache.getProperties(Position.class, "get").forEach((key, value) -> {
+            Method method = value.method();
+            if (!method.getReturnType().equals(Map.class)) {
+                String name = Character.toLowerCase(method.getName().charAt(3)) + method.getName().substring(4);
+                PROPERTIES.put(name, method);
+            }
+        });
+    }
+
+    private record CompiledScript(String expression, JexlScript script) {
+    }
+
     private final CacheManager cacheManager;
     private final boolean early;
 
@@ -54,6 +71,8 @@ public class ComputedAttributesHandler extends BasePositionHandler {
 
     private final JexlFeatures features;
 
+    private final Map<Long, CompiledScript> scripts = new ConcurrentHashMap<>();
+
     private final boolean includeDeviceAttributes;
     private final boolean includeLastAttributes;
 
@@ -96,45 +115,106 @@ public class ComputedAttributesHandler extends BasePositionHandler {
         includeLastAttributes = config.getBoolean(Keys.PROCESSING_COMPUTED_ATTRIBUTES_LAST_ATTRIBUTES);
     }
 
-    private MapContext prepareContext(Position position) {
-        MapContext result = new MapContext();
-        if (includeDeviceAttributes) {
-            Device device = cacheManager.getObject(Device.class, position.getDeviceId());
-            if (device != null) {
-                for (String key : device.getAttributes().keySet()) {
-                    result.set(key, device.getAttributes().get(key));
-                }
+    private final class PositionContext implements JexlContext {
+
+        private final Position position;
+        private final Map<String, Object> variables = new HashMap<>();
+
+        private Position last;
+        private boolean lastLoaded;
+        private Map<String, Object> deviceAttributes;
+
+        private PositionContext(Position position) {
+            this.position = position;
+        }
+
+        private Position getLast() {
+            if (!lastLoaded) {
+                last = includeLastAttributes ? cacheManager.getPosition(position.getDeviceId()) : null;
+                lastLoaded = true;
             }
+            return last;
         }
-        Position last = includeLastAttributes ? cacheManager.getPosition(position.getDeviceId()) : null;
-        ReflectionCache.getProperties(Position.class, "get").forEach((key, value) -> {
-            Method method = value.method();
-            String name = Character.toLowerCase(method.getName().charAt(3)) + method.getName().substring(4);
+
+        private Map<String, Object> getDeviceAttributes() {
+            if (deviceAttributes == null) {
+                Device device = includeDeviceAttributes
+                        ? cacheManager.getObject(Device.class, position.getDeviceId()) : null;
+                deviceAttributes = device != null ? device.getAttributes() : Map.of();
+            }
+            return deviceAttributes;
+        }
+
+        private String unprefixLast(String name) {
+            if (name.length() > 4 && name.startsWith("last") && Character.isUpperCase(name.charAt(4))) {
+                return Character.toLowerCase(name.charAt(4)) + name.substring(5);
+            }
+            return null;
+        }
+
+        private Object invoke(Method method, Position target) {
             try {
-                if (!method.getReturnType().equals(Map.class)) {
-                    result.set(name, method.invoke(position));
-                    if (last != null) {
-                        result.set(prefixAttribute("last", name), method.invoke(last));
-                    }
-                } else {
-                    for (Map.Entry<?, ?> entry : ((Map<?, ?>) method.invoke(position)).entrySet()) {
-                        result.set((String) entry.getKey(), entry.getValue());
-                    }
-                    if (last != null) {
-                        for (Map.Entry<?, ?> entry : ((Map<?, ?>) method.invoke(last)).entrySet()) {
-                            result.set(prefixAttribute("last", (String) entry.getKey()), entry.getValue());
-                        }
-                    }
-                }
+                return method.invoke(target);
             } catch (IllegalAccessException | InvocationTargetException error) {
                 LOGGER.warn("Attribute reflection error", error);
+                return null;
             }
-        });
-        return result;
+        }
+
+        @Override
+        public boolean has(String name) {
+            if (variables.containsKey(name) || PROPERTIES.containsKey(name)
+                    || position.getAttributes().containsKey(name)) {
+                return true;
+            }
+            String lastName = unprefixLast(name);
+            if (lastName != null && getLast() != null
+                    && (PROPERTIES.containsKey(lastName) || getLast().getAttributes().containsKey(lastName))) {
+                return true;
+            }
+            return getDeviceAttributes().containsKey(name);
+        }
+
+        @Override
+        public Object get(String name) {
+            if (variables.containsKey(name)) {
+                return variables.get(name);
+            }
+            Method method = PROPERTIES.get(name);
+            if (method != null) {
+                return invoke(method, position);
+            }
+            if (position.getAttributes().containsKey(name)) {
+                return position.getAttributes().get(name);
+            }
+            String lastName = unprefixLast(name);
+            if (lastName != null && getLast() != null) {
+                Method lastMethod = PROPERTIES.get(lastName);
+                if (lastMethod != null) {
+                    return invoke(lastMethod, getLast());
+                }
+                if (getLast().getAttributes().containsKey(lastName)) {
+                    return getLast().getAttributes().get(lastName);
+                }
+            }
+            return getDeviceAttributes().get(name);
+        }
+
+        @Override
+        public void set(String name, Object value) {
+            variables.put(name, value);
+        }
+
     }
 
-    private String prefixAttribute(String prefix, String key) {
-        return prefix + Character.toUpperCase(key.charAt(0)) + key.substring(1);
+    private JexlScript getScript(Attribute attribute) {
+        String expression = attribute.getExpression();
+        CompiledScript compiled = scripts.get(attribute.getId());
+        if (compiled == null || !compiled.expression().equals(expression)) {
+            compiled = new CompiledScript(expression, engine.createScript(features, engine.createInfo(), expression));
+            scripts.put(attribute.getId(), compiled);
+        }
+        return compiled.script();
     }
 
     /**
@@ -142,9 +222,7 @@ public class ComputedAttributesHandler extends BasePositionHandler {
      */
     @Deprecated
     public Object computeAttribute(Attribute attribute, Position position) throws JexlException {
-        return engine
-                .createScript(features, engine.createInfo(), attribute.getExpression())
-                .execute(prepareContext(position));
+        return getScript(attribute).execute(new PositionContext(position));
     }
 
     @Override
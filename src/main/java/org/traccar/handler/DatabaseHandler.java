@@ -1,5 +1,5 @@
 /*
- * Copyright 2015 - 2024 Anton Tananaev (anton@traccar.org)
+ * Copyright 2015 - 2026 Anton Tananaev (anton@traccar.org)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,23 +18,56 @@ package org.traccar.handler;
 import jakarta.inject.Inject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
 import org.traccar.database.StatisticsManager;
+import org.traccar.model.DailySummary;
 import org.traccar.model.Position;
 import org.traccar.storage.Storage;
+import org.traccar.storage.StorageException;
 import org.traccar.storage.query.Columns;
+import org.traccar.storage.query.Condition;
 import org.traccar.storage.query.Request;
 
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
 public class DatabaseHandler extends BasePositionHandler {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(DatabaseHandler.class);
 
+    private static final long DAY_MILLIS = TimeUnit.DAYS.toMillis(1);
+
     private final Storage storage;
     private final StatisticsManager statisticsManager;
 
+    private final boolean rollupEnabled;
+    private final long rollupDelay;
+
     @Inject
-    public DatabaseHandler(Storage storage, StatisticsManager statisticsManager) {
+    public DatabaseHandler(Config config, Storage storage, StatisticsManager statisticsManager) {
         this.storage = storage;
         this.statisticsManager = statisticsManager;
+        rollupEnabled = config.getBoolean(Keys.REPORT_ROLLUP_ENABLE);
+        rollupDelay = TimeUnit.SECONDS.toMillis(config.getLong(Keys.REPORT_ROLLUP_DELAY));
+    }
+
+    /**
+     * Removes the daily summary of a day that may already be closed, so it is rebuilt with the late position. It only
+     * happens for positions from before the rollup delay, which are rare outside of buffered uploads.
+     */
+    private void invalidateDailySummary(Position position) {
+        long day = Math.floorDiv(position.getFixTime().getTime(), DAY_MILLIS) * DAY_MILLIS;
+        if (day + DAY_MILLIS + rollupDelay > System.currentTimeMillis()) {
+            return;
+        }
+        try {
+            storage.removeObject(DailySummary.class, new Request(new Condition.And(
+                    new Condition.Equals("deviceId", position.getDeviceId()),
+                    new Condition.Equals("dayStart", new Date(day)))));
+        } catch (StorageException e) {
+            LOGGER.warn("Failed to invalidate daily summary", e);
+        }
     }
 
     @Override
@@ -47,6 +80,10 @@ public class DatabaseHandler extends BasePositionHandler {
             LOGGER.warn("Failed to store position", error);
         }
 
+        if (rollupEnabled && position.getFixTime() != null) {
+            invalidateDailySummary(position);
+        }
+
         callback.processed(false);
     }
 
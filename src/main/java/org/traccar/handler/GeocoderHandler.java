@@ -1,5 +1,5 @@
 /*
- * Copyright 2012 - 2024 Anton Tananaev (anton@traccar.org)
+ * Copyright 2012 - 2026 Anton Tananaev (anton@traccar.org)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -15,30 +15,158 @@
  */
 package org.traccar.handler;
 
+import io.netty.util.Timeout;
+import io.netty.util.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.traccar.config.Config;
 import org.traccar.config.Keys;
 import org.traccar.geocoder.Geocoder;
+import org.traccar.geocoder.GeocoderLimitException;
 import org.traccar.model.Position;
 import org.traccar.session.cache.CacheManager;
+import org.traccar.storage.Storage;
+import org.traccar.storage.StorageException;
+import org.traccar.storage.query.Columns;
+import org.traccar.storage.query.Condition;
+import org.traccar.storage.query.Request;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class GeocoderHandler extends BasePositionHandler {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(GeocoderHandler.class);
 
+    private static final long DEFER_INTERVAL = 100;
+    private static final long DEFER_TIMEOUT = TimeUnit.MINUTES.toMillis(1);
+
+    private record DeferredPosition(Position position, long time) {
+    }
+
     private final Geocoder geocoder;
     private final CacheManager cacheManager;
+    private final Storage storage;
+    private final Timer timer;
+    private final ExecutorService executorService;
     private final boolean ignorePositions;
     private final boolean processInvalidPositions;
     private final int reuseDistance;
 
-    public GeocoderHandler(Config config, Geocoder geocoder, CacheManager cacheManager) {
+    private final boolean defer;
+    private final int deferLimit;
+
+    private final Queue<DeferredPosition> deferred = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger deferredCount = new AtomicInteger();
+    private final AtomicBoolean deferredScheduled = new AtomicBoolean();
+
+    public GeocoderHandler(
+            Config config, Geocoder geocoder, CacheManager cacheManager, Storage storage, Timer timer,
+            ExecutorService executorService) {
         this.geocoder = geocoder;
         this.cacheManager = cacheManager;
+        this.storage = storage;
+        this.timer = timer;
+        this.executorService = executorService;
         ignorePositions = config.getBoolean(Keys.GEOCODER_IGNORE_POSITIONS);
         processInvalidPositions = config.getBoolean(Keys.GEOCODER_PROCESS_INVALID_POSITIONS);
         reuseDistance = config.getInteger(Keys.GEOCODER_REUSE_DISTANCE, 0);
+        defer = config.getString(Keys.GEOCODER_SHED_POLICY).equals("defer");
+        deferLimit = config.getInteger(Keys.GEOCODER_DEFER_LIMIT);
+    }
+
+    private void defer(Position position, long delay) {
+        if (deferredCount.incrementAndGet() <= deferLimit) {
+            deferred.add(new DeferredPosition(position, System.currentTimeMillis()));
+            scheduleDeferred(delay);
+        } else {
+            deferredCount.decrementAndGet();
+            LOGGER.debug("Geocoding skipped for device {}", position.getDeviceId());
+        }
+    }
+
+    private void scheduleDeferred(long delay) {
+        if (deferredScheduled.compareAndSet(false, true)) {
+            timer.newTimeout(this::processDeferred, Math.max(delay, DEFER_INTERVAL), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void processDeferred(Timeout timeout) {
+        // storage updates block, so the queue is drained on the geocoding executor rather than the timer thread
+        try {
+            executorService.execute(this::drainDeferred);
+        } catch (RejectedExecutionException e) {
+            deferredScheduled.set(false);
+            scheduleDeferred(DEFER_INTERVAL);
+        }
+    }
+
+    private void drainDeferred() {
+        deferredScheduled.set(false);
+        long delay = DEFER_INTERVAL;
+        DeferredPosition item;
+        while ((item = deferred.peek()) != null) {
+            Position position = item.position();
+            boolean expired = System.currentTimeMillis() - item.time() >= DEFER_TIMEOUT;
+            if (position.getId() == 0 && !expired) {
+                break; // not stored yet
+            }
+            if (position.getId() != 0) {
+                long limitDelay = updateAddress(position);
+                if (limitDelay >= 0) {
+                    delay = limitDelay;
+                    break;
+                }
+            }
+            deferred.poll();
+            deferredCount.decrementAndGet();
+        }
+        if (!deferred.isEmpty()) {
+            scheduleDeferred(delay);
+        }
+    }
+
+    /**
+     * Geocodes a stored position and writes the address to it. Returns the limiter delay if the request was rejected
+     * because of the geocoder limits or -1 otherwise.
+     */
+    private long updateAddress(Position position) {
+        AtomicLong limitDelay = new AtomicLong(-1);
+        geocoder.getAddress(position.getLatitude(), position.getLongitude(), new Geocoder.ReverseGeocoderCallback() {
+            @Override
+            public void onSuccess(String address) {
+                position.setAddress(address);
+                try {
+                    executorService.execute(() -> {
+                        try {
+                            storage.updateObject(position, new Request(
+                                    new Columns.Include("address"),
+                                    new Condition.Equals("id", position.getId())));
+                        } catch (StorageException e) {
+                            LOGGER.warn("Failed to update address", e);
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    LOGGER.warn("Address update rejected for device {}", position.getDeviceId());
+                }
+            }
+
+            @Override
+            public void onFailure(Throwable e) {
+                if (e instanceof GeocoderLimitException limitException) {
+                    limitDelay.set(limitException.getDelay());
+                } else {
+                    LOGGER.warn("Deferred geocoding failed", e);
+                }
+            }
+        });
+        return limitDelay.get();
     }
 
     @Override
@@ -64,7 +192,13 @@ public class GeocoderHandler extends BasePositionHandler {
 
                 @Override
                 public void onFailure(Throwable e) {
-                    LOGGER.warn("Geocoding failed", e);
+                    if (e instanceof GeocoderLimitException limitException) {
+                        if (defer) {
+                            defer(position, limitException.getDelay());
+                        }
+                    } else {
+                        LOGGER.warn("Geocoding failed", e);
+                    }
                     callback.processed(false);
                 }
             });
@@ -1,5 +1,5 @@
 /*
- * Copyright 2023 - 2024 Anton Tananaev (anton@traccar.org)
+ * Copyright 2023 - 2026 Anton Tananaev (anton@traccar.org)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@ package org.traccar.handler;
 
 import jakarta.inject.Inject;
 import org.traccar.config.Config;
+import org.traccar.geofence.GeofenceIndexCache;
 import org.traccar.helper.model.GeofenceUtil;
 import org.traccar.model.Position;
 import org.traccar.session.cache.CacheManager;
@@ -27,17 +28,19 @@ public class GeofenceHandler extends BasePositionHandler {
 
     private final Config config;
     private final CacheManager cacheManager;
+    private final GeofenceIndexCache indexCache;
 
     @Inject
-    public GeofenceHandler(Config config, CacheManager cacheManager) {
+    public GeofenceHandler(Config config, CacheManager cacheManager, GeofenceIndexCache indexCache) {
         this.config = config;
         this.cacheManager = cacheManager;
+        this.indexCache = indexCache;
     }
 
     @Override
     public void onPosition(Position position, Callback callback) {
 
-        List<Long> geofenceIds = GeofenceUtil.getCurrentGeofences(config, cacheManager, position);
+        List<Long> geofenceIds = GeofenceUtil.getCurrentGeofences(config, cacheManager, indexCache, position);
         if (!geofenceIds.isEmpty()) {
             position.setGeofenceIds(geofenceIds);
         }
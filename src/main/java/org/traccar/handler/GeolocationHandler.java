@@ -1,5 +1,5 @@
 /*
- * Copyright 2015 - 2024 Anton Tananaev (anton@traccar.org)
+ * Copyright 2015 - 2026 Anton Tananaev (anton@traccar.org)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,6 +20,7 @@ import org.slf4j.LoggerFactory;
 import org.traccar.config.Config;
 import org.traccar.config.Keys;
 import org.traccar.database.StatisticsManager;
+import org.traccar.geolocation.GeolocationCache;
 import org.traccar.geolocation.GeolocationProvider;
 import org.traccar.model.Position;
 import org.traccar.session.cache.CacheManager;
@@ -31,16 +32,18 @@ public class GeolocationHandler extends BasePositionHandler {
     private final GeolocationProvider geolocationProvider;
     private final CacheManager cacheManager;
     private final StatisticsManager statisticsManager;
+    private final GeolocationCache geolocationCache;
     private final boolean processInvalidPositions;
     private final boolean reuse;
     private final boolean requireWifi;
 
     public GeolocationHandler(
             Config config, GeolocationProvider geolocationProvider, CacheManager cacheManager,
-            StatisticsManager statisticsManager) {
+            StatisticsManager statisticsManager, GeolocationCache geolocationCache) {
         this.geolocationProvider = geolocationProvider;
         this.cacheManager = cacheManager;
         this.statisticsManager = statisticsManager;
+        this.geolocationCache = geolocationCache;
         processInvalidPositions = config.getBoolean(Keys.GEOLOCATION_PROCESS_INVALID_POSITIONS);
         reuse = config.getBoolean(Keys.GEOLOCATION_REUSE);
         requireWifi = config.getBoolean(Keys.GEOLOCATION_REQUIRE_WIFI);
@@ -62,6 +65,19 @@ public class GeolocationHandler extends BasePositionHandler {
                 }
             }
 
+            String key = geolocationCache != null ? GeolocationCache.getKey(position.getNetwork()) : null;
+            if (key != null) {
+                GeolocationCache.Location location = geolocationCache.get(key);
+                if (statisticsManager != null) {
+                    statisticsManager.registerGeolocationCache(location != null);
+                }
+                if (location != null) {
+                    updatePosition(position, location.latitude(), location.longitude(), location.accuracy());
+                    callback.processed(false);
+                    return;
+                }
+            }
+
             if (statisticsManager != null) {
                 statisticsManager.registerGeolocationRequest();
             }
@@ -70,6 +86,9 @@ public class GeolocationHandler extends BasePositionHandler {
                     new GeolocationProvider.LocationProviderCallback() {
                 @Override
                 public void onSuccess(double latitude, double longitude, double accuracy) {
+                    if (key != null) {
+                        geolocationCache.put(key, latitude, longitude, accuracy);
+                    }
                     updatePosition(position, latitude, longitude, accuracy);
                     callback.processed(false);
                 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2016 - 2024 Anton Tananaev (anton@traccar.org)
+ * Copyright 2016 - 2026 Anton Tananaev (anton@traccar.org)
  * Copyright 2017 Andrey Kunitsyn (andrey@traccar.org)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
@@ -19,10 +19,14 @@ package org.traccar.handler.events;
 import jakarta.inject.Inject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.traccar.config.Config;
 import org.traccar.config.Keys;
+import org.traccar.helper.UnitsConverter;
 import org.traccar.helper.model.AttributeUtil;
 import org.traccar.helper.model.PositionUtil;
 import org.traccar.model.Device;
+import org.traccar.model.Event;
+import org.traccar.model.MotionSegment;
 import org.traccar.model.Position;
 import org.traccar.reports.common.TripsConfig;
 import org.traccar.session.cache.CacheManager;
@@ -32,19 +36,172 @@ import org.traccar.storage.Storage;
 import org.traccar.storage.StorageException;
 import org.traccar.storage.query.Columns;
 import org.traccar.storage.query.Condition;
+import org.traccar.storage.query.Order;
 import org.traccar.storage.query.Request;
 
+import java.util.Date;
+
 public class MotionEventHandler extends BaseEventHandler {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(MotionEventHandler.class);
 
     private final CacheManager cacheManager;
     private final Storage storage;
+    private final boolean materialize;
 
     @Inject
-    public MotionEventHandler(CacheManager cacheManager, Storage storage) {
+    public MotionEventHandler(Config config, CacheManager cacheManager, Storage storage) {
         this.cacheManager = cacheManager;
         this.storage = storage;
+        materialize = config.getBoolean(Keys.REPORT_TRIP_MATERIALIZE);
+    }
+
+    private Position getPosition(Condition condition) throws StorageException {
+        return storage.getObject(Position.class, new Request(new Columns.All(), condition));
+    }
+
+    private void closeSegment(
+            MotionSegment segment, Position start, Position end, boolean ignoreOdometer) throws StorageException {
+
+        segment.setEndPositionId(end.getId());
+        segment.setEndTime(end.getFixTime());
+        segment.setEndLat(end.getLatitude());
+        segment.setEndLon(end.getLongitude());
+        segment.setEndAddress(end.getAddress());
+
+        long duration = end.getFixTime().getTime() - start.getFixTime().getTime();
+        segment.setDuration(duration);
+        segment.setDistance(PositionUtil.calculateDistance(start, end, !ignoreOdometer));
+        if (duration > 0) {
+            segment.setAverageSpeed(UnitsConverter.knotsFromMps(segment.getDistance() * 1000 / duration));
+        }
+        if (segment.getMoving()) {
+            Position maxSpeed = storage.getObject(Position.class, new Request(
+                    new Columns.Aggregate("MAX", "speed"),
+                    new Condition.And(
+                            new Condition.Equals("deviceId", segment.getDeviceId()),
+                            new Condition.Between("fixTime", start.getFixTime(), end.getFixTime()))));
+            segment.setMaxSpeed(maxSpeed != null ? maxSpeed.getSpeed() : 0);
+        }
+        segment.setSpentFuel(PositionUtil.calculateFuel(start, end));
+
+        if (start.hasAttribute(Position.KEY_HOURS) && end.hasAttribute(Position.KEY_HOURS)) {
+            segment.setEngineHours(end.getLong(Position.KEY_HOURS) - start.getLong(Position.KEY_HOURS));
+        }
+        if (!ignoreOdometer
+                && start.getDouble(Position.KEY_ODOMETER) != 0
+                && end.getDouble(Position.KEY_ODOMETER) != 0) {
+            segment.setStartOdometer(start.getDouble(Position.KEY_ODOMETER));
+            segment.setEndOdometer(end.getDouble(Position.KEY_ODOMETER));
+        } else {
+            segment.setStartOdometer(start.getDouble(Position.KEY_TOTAL_DISTANCE));
+            segment.setEndOdometer(end.getDouble(Position.KEY_TOTAL_DISTANCE));
+        }
+
+        if (start.hasAttribute(Position.KEY_DRIVER_UNIQUE_ID)) {
+            segment.setDriverUniqueId(start.getString(Position.KEY_DRIVER_UNIQUE_ID));
+        } else if (end.hasAttribute(Position.KEY_DRIVER_UNIQUE_ID)) {
+            segment.setDriverUniqueId(end.getString(Position.KEY_DRIVER_UNIQUE_ID));
+        }
+    }
+
+    private MotionSegment getOpenSegment(long deviceId) throws StorageException {
+        MotionSegment latest = storage.getObject(MotionSegment.class, new Request(
+                new Columns.All(),
+                new Condition.Equals("deviceId", deviceId),
+                new Order("startTime", true, 1)));
+        return latest != null && latest.getEndPositionId() == 0 ? latest : null;
+    }
+
+    private void finishSegment(
+            MotionSegment segment, Position boundary, TripsConfig tripsConfig) throws StorageException {
+        Position start = getPosition(new Condition.Equals("id", segment.getStartPositionId()));
+        if (start != null) {
+            closeSegment(segment, start, boundary, tripsConfig.getIgnoreOdometer());
+            storage.updateObject(segment, new Request(
+                    new Columns.Exclude("id"),
+                    new Condition.Equals("id", segment.getId())));
+        } else {
+            storage.removeObject(MotionSegment.class, new Request(
+                    new Condition.Equals("id", segment.getId())));
+        }
+    }
+
+    private MotionSegment createSegment(Device device, Position boundary, boolean moving) {
+        MotionSegment segment = new MotionSegment();
+        segment.setDeviceId(device.getId());
+        segment.setMoving(moving);
+        segment.setStartPositionId(boundary.getId());
+        segment.setStartTime(boundary.getFixTime());
+        segment.setStartLat(boundary.getLatitude());
+        segment.setStartLon(boundary.getLongitude());
+        segment.setStartAddress(boundary.getAddress());
+        return segment;
+    }
+
+    private void addSegment(MotionSegment segment) throws StorageException {
+        storage.addObject(segment, new Request(new Columns.Exclude("id")));
+    }
+
+    /**
+     * Closes the open trip or stop and opens the next one. The boundary is the first position of the new motion
+     * streak, same as in reports calculated from positions.
+     */
+    private void updateSegments(
+            Device device, Position position, Date streakTime, boolean moving, TripsConfig tripsConfig) {
+        try {
+            Position boundary = null;
+            if (streakTime != null && streakTime.before(position.getFixTime())) {
+                boundary = getPosition(new Condition.And(
+                        new Condition.Equals("deviceId", device.getId()),
+                        new Condition.Equals("fixTime", streakTime)));
+            }
+            if (boundary == null) {
+                boundary = position;
+            }
+
+            MotionSegment latest = getOpenSegment(device.getId());
+            if (latest != null) {
+                if (latest.getMoving() == moving) {
+                    return;
+                }
+                finishSegment(latest, boundary, tripsConfig);
+            }
+            addSegment(createSegment(device, boundary, moving));
+        } catch (StorageException e) {
+            LOGGER.warn("Update motion segments error", e);
+        }
+    }
+
+    /**
+     * Splits the open trip at a gap in data, the way reports calculated from positions treat gaps longer than the
+     * minimal no data duration as stops. The trip ends at the last position before the gap and, if the device is
+     * still moving, a new one starts at the first position after it.
+     */
+    private void splitSegments(
+            Device device, Position previous, Position position, boolean moving, TripsConfig tripsConfig) {
+        try {
+            MotionSegment latest = getOpenSegment(device.getId());
+            if (latest == null || !latest.getMoving()) {
+                return;
+            }
+            if (latest.getStartPositionId() == previous.getId()) {
+                storage.removeObject(MotionSegment.class, new Request(
+                        new Condition.Equals("id", latest.getId())));
+            } else {
+                finishSegment(latest, previous, tripsConfig);
+            }
+            MotionSegment stop = createSegment(device, previous, false);
+            if (moving) {
+                closeSegment(stop, previous, position, tripsConfig.getIgnoreOdometer());
+            }
+            addSegment(stop);
+            if (moving) {
+                addSegment(createSegment(device, position, true));
+            }
+        } catch (StorageException e) {
+            LOGGER.warn("Split motion segments error", e);
+        }
     }
 
     @Override
@@ -62,7 +219,9 @@ public class MotionEventHandler extends BaseEventHandler {
         }
 
         TripsConfig tripsConfig = new TripsConfig(new AttributeUtil.CacheProvider(cacheManager, deviceId));
+        Position previous = cacheManager.getPosition(deviceId);
         MotionState state = MotionState.fromDevice(device);
+        Date streakTime = state.getMotionTime();
         MotionProcessor.updateState(state, position, position.getBoolean(Position.KEY_MOTION), tripsConfig);
         if (state.isChanged()) {
             state.toDevice(device);
@@ -74,7 +233,16 @@ public class MotionEventHandler extends BaseEventHandler {
                 LOGGER.warn("Update device motion error", e);
             }
         }
+        if (materialize && previous != null && tripsConfig.getMinimalNoDataDuration() > 0
+                && position.getFixTime().getTime() - previous.getFixTime().getTime()
+                >= tripsConfig.getMinimalNoDataDuration()) {
+            splitSegments(device, previous, position, state.getMotionStreak(), tripsConfig);
+        }
         if (state.getEvent() != null) {
+            if (materialize) {
+                boolean moving = state.getEvent().getType().equals(Event.TYPE_DEVICE_MOVING);
+                updateSegments(device, position, streakTime, moving, tripsConfig);
+            }
             callback.eventDetected(state.getEvent());
         }
     }
@@ -0,0 +1,269 @@
+/*
+ * Copyright 2026 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.helper;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import jakarta.ws.rs.ProcessingException;
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.core.Configuration;
+import org.eclipse.jetty.client.BytesRequestContent;
+import org.eclipse.jetty.client.CompletableResponseListener;
+import org.eclipse.jetty.client.ContentResponse;
+import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.client.HttpProxy;
+import org.eclipse.jetty.client.Origin;
+import org.eclipse.jetty.client.Request;
+import org.eclipse.jetty.http.HttpField;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.ClientRequest;
+import org.glassfish.jersey.client.ClientResponse;
+import org.glassfish.jersey.client.spi.AsyncConnectorCallback;
+import org.glassfish.jersey.client.spi.Connector;
+import org.glassfish.jersey.client.spi.ConnectorProvider;
+import org.glassfish.jersey.message.internal.Statuses;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Jersey connector backed by Jetty HttpClient. Connections are pooled per host and asynchronous requests don't
+ * occupy a thread while waiting for the response. Standard JVM proxy properties (http.proxyHost, https.proxyHost and
+ * http.nonProxyHosts) are applied the same way HttpURLConnection applies them.
+ */
+@Singleton
+public class JettyConnectorProvider implements ConnectorProvider {
+
+    public record RequestStatistics(int active, long completed, long failed) {
+    }
+
+    private final int maxConnectionsPerHost;
+    private final int maxQueuedPerHost;
+    private final int maxThreads;
+    private final long connectTimeout;
+    private final long idleTimeout;
+    private final long requestTimeout;
+    private final int maxResponseSize;
+
+    private final AtomicInteger activeRequests = new AtomicInteger();
+    private final AtomicLong completedRequests = new AtomicLong();
+    private final AtomicLong failedRequests = new AtomicLong();
+
+    @Inject
+    public JettyConnectorProvider(Config config) {
+        maxConnectionsPerHost = config.getInteger(Keys.CLIENT_MAX_CONNECTIONS_PER_HOST);
+        maxQueuedPerHost = config.getInteger(Keys.CLIENT_MAX_QUEUED_PER_HOST);
+        maxThreads = config.getInteger(Keys.CLIENT_MAX_THREADS);
+        connectTimeout = config.getLong(Keys.CLIENT_CONNECT_TIMEOUT);
+        idleTimeout = config.getLong(Keys.CLIENT_IDLE_TIMEOUT);
+        requestTimeout = config.getLong(Keys.CLIENT_REQUEST_TIMEOUT);
+        maxResponseSize = config.getInteger(Keys.CLIENT_MAX_RESPONSE_SIZE);
+    }
+
+    /**
+     * Requests currently in flight, and requests completed and failed since the previous call.
+     */
+    public RequestStatistics resetStatistics() {
+        return new RequestStatistics(
+                activeRequests.get(), completedRequests.getAndSet(0), failedRequests.getAndSet(0));
+    }
+
+    private static Pattern getNonProxyHosts() {
+        String value = System.getProperty("http.nonProxyHosts");
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        StringBuilder regex = new StringBuilder();
+        for (String host : value.split("\\|")) {
+            if (!host.isBlank()) {
+                if (!regex.isEmpty()) {
+                    regex.append('|');
+                }
+                regex.append(Pattern.quote(host.trim().toLowerCase(Locale.ROOT)).replace("*", "\\E.*\\Q"));
+            }
+        }
+        return Pattern.compile(regex.toString());
+    }
+
+    private static void addProxy(HttpClient httpClient, String scheme, int defaultPort, Pattern nonProxyHosts) {
+        String host = System.getProperty(scheme + ".proxyHost");
+        if (host != null && !host.isBlank()) {
+            int port = Integer.getInteger(scheme + ".proxyPort", defaultPort);
+            httpClient.getProxyConfiguration().addProxy(new HttpProxy(host, port) {
+                @Override
+                public boolean matches(Origin origin) {
+                    return scheme.equalsIgnoreCase(origin.getScheme())
+                            && (nonProxyHosts == null || !nonProxyHosts.matcher(
+                                    origin.getAddress().getHost().toLowerCase(Locale.ROOT)).matches());
+                }
+            });
+        }
+    }
+
+    @Override
+    public Connector getConnector(Client client, Configuration runtimeConfig) {
+        QueuedThreadPool threadPool = new QueuedThreadPool(maxThreads);
+        threadPool.setName("client");
+        threadPool.setDaemon(true);
+
+        HttpClient httpClient = new HttpClient();
+        httpClient.setExecutor(threadPool);
+        httpClient.setMaxConnectionsPerDestination(maxConnectionsPerHost);
+        httpClient.setMaxRequestsQueuedPerDestination(maxQueuedPerHost);
+        httpClient.setConnectTimeout(connectTimeout);
+        httpClient.setIdleTimeout(idleTimeout);
+        httpClient.setFollowRedirects(true);
+
+        Pattern nonProxyHosts = getNonProxyHosts();
+        addProxy(httpClient, "http", 80, nonProxyHosts);
+        addProxy(httpClient, "https", 443, nonProxyHosts);
+
+        try {
+            httpClient.start();
+        } catch (Exception e) {
+            throw new ProcessingException("Failed to start HTTP client", e);
+        }
+        return new JettyConnector(httpClient);
+    }
+
+    private final class JettyConnector implements Connector {
+
+        private final HttpClient httpClient;
+
+        private JettyConnector(HttpClient httpClient) {
+            this.httpClient = httpClient;
+        }
+
+        private Request createRequest(ClientRequest clientRequest) {
+            Request request = httpClient.newRequest(clientRequest.getUri()).method(clientRequest.getMethod());
+
+            int connectTimeoutOverride = clientRequest.resolveProperty(ClientProperties.CONNECT_TIMEOUT, 0);
+            int readTimeout = clientRequest.resolveProperty(ClientProperties.READ_TIMEOUT, 0);
+            long timeout = readTimeout > 0 ? connectTimeoutOverride + readTimeout : requestTimeout;
+            if (timeout > 0) {
+                request.timeout(timeout, TimeUnit.MILLISECONDS);
+            }
+
+            if (clientRequest.hasEntity()) {
+                ByteArrayOutputStream output = new ByteArrayOutputStream();
+                clientRequest.setStreamProvider(contentLength -> output);
+                try {
+                    clientRequest.writeEntity();
+                } catch (IOException e) {
+                    throw new ProcessingException("Failed to write request entity", e);
+                }
+                request.body(new BytesRequestContent(output.toByteArray()));
+            }
+
+            request.headers(headers -> {
+                for (Map.Entry<String, List<String>> entry : clientRequest.getStringHeaders().entrySet()) {
+                    for (String value : entry.getValue()) {
+                        headers.add(entry.getKey(), value);
+                    }
+                }
+            });
+            return request;
+        }
+
+        private ClientResponse createResponse(ClientRequest clientRequest, ContentResponse response) {
+            ClientResponse clientResponse = new ClientResponse(
+                    Statuses.from(response.getStatus(), response.getReason()), clientRequest);
+            for (HttpField field : response.getHeaders()) {
+                clientResponse.getHeaders().add(field.getName(), field.getValue());
+            }
+            clientResponse.setEntityStream(new ByteArrayInputStream(response.getContent()));
+            return clientResponse;
+        }
+
+        private CompletableFuture<ContentResponse> send(ClientRequest clientRequest) {
+            Request request = createRequest(clientRequest);
+            activeRequests.incrementAndGet();
+            return new CompletableResponseListener(request, maxResponseSize).send()
+                    .whenComplete((response, error) -> {
+                        activeRequests.decrementAndGet();
+                        if (error != null) {
+                            failedRequests.incrementAndGet();
+                        } else {
+                            completedRequests.incrementAndGet();
+                        }
+                    });
+        }
+
+        @Override
+        public ClientResponse apply(ClientRequest clientRequest) {
+            try {
+                return createResponse(clientRequest, send(clientRequest).get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ProcessingException(e);
+            } catch (ExecutionException e) {
+                throw new ProcessingException(e.getCause());
+            }
+        }
+
+        @Override
+        public Future<?> apply(ClientRequest clientRequest, AsyncConnectorCallback callback) {
+            CompletableFuture<ContentResponse> future;
+            try {
+                future = send(clientRequest);
+            } catch (ProcessingException e) {
+                callback.failure(e);
+                return CompletableFuture.failedFuture(e);
+            }
+            return future.whenComplete((response, error) -> {
+                if (error != null) {
+                    callback.failure(new ProcessingException(error));
+                } else {
+                    try {
+                        callback.response(createResponse(clientRequest, response));
+                    } catch (RuntimeException e) {
+                        callback.failure(e);
+                    }
+                }
+            });
+        }
+
+        @Override
+        public String getName() {
+            return "Jetty HttpClient";
+        }
+
+        @Override
+        public void close() {
+            try {
+                httpClient.stop();
+            } catch (Exception e) {
+                throw new ProcessingException("Failed to stop HTTP client", e);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2026 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.helper;
+
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LRU cache kept in memory and optionally persisted to a local MVStore file. The file holds more entries than memory
+ * and evicts entries that were least recently written or read from it.
+ */
+public class PersistentCache<K, V> implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PersistentCache.class);
+
+    private final Map<K, V> memory;
+    private final int persistentSize;
+
+    private MVStore store;
+    private volatile MVMap<K, V> values;
+    private MVMap<K, Long> accessKeys;
+    private MVMap<Long, K> accessOrder;
+    private long sequence;
+
+    public PersistentCache(int size, int persistentSize, String file, String name) {
+        memory = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry eldest) {
+                return size() > size;
+            }
+        });
+        this.persistentSize = persistentSize;
+        if (file != null) {
+            try {
+                store = new MVStore.Builder().fileName(file).compress().open();
+                values = store.openMap(name);
+                accessKeys = store.openMap(name + ".accessKeys");
+                accessOrder = store.openMap(name + ".accessOrder");
+                Long last = accessOrder.lastKey();
+                sequence = last != null ? last : 0;
+            } catch (RuntimeException e) {
+                LOGGER.warn("Cache file error", e);
+                close();
+            }
+        }
+    }
+
+    private void touch(K key) {
+        long next = ++sequence;
+        Long previous = accessKeys.put(key, next);
+        if (previous != null) {
+            accessOrder.remove(previous);
+        }
+        accessOrder.put(next, key);
+    }
+
+    public V get(K key) {
+        V value = memory.get(key);
+        if (value == null && values != null) {
+            synchronized (this) {
+                if (values != null) {
+                    value = values.get(key);
+                    if (value != null) {
+                        touch(key);
+                    }
+                }
+            }
+            if (value != null) {
+                memory.put(key, value);
+            }
+        }
+        return value;
+    }
+
+    public void put(K key, V value) {
+        memory.put(key, value);
+        if (values != null) {
+            synchronized (this) {
+                if (values != null) {
+                    values.put(key, value);
+                    touch(key);
+                    while (values.size() > persistentSize) {
+                        Long oldest = accessOrder.firstKey();
+                        if (oldest == null) {
+                            break;
+                        }
+                        K evicted = accessOrder.remove(oldest);
+                        accessKeys.remove(evicted);
+                        values.remove(evicted);
+                    }
+                }
+            }
+        }
+    }
+
+    public void remove(K key) {
+        memory.remove(key);
+        if (values != null) {
+            synchronized (this) {
+                if (values != null) {
+                    values.remove(key);
+                    Long previous = accessKeys.remove(key);
+                    if (previous != null) {
+                        accessOrder.remove(previous);
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        values = null;
+        if (store != null) {
+            store.close();
+            store = null;
+        }
+    }
+
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2026 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.helper;
+
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.JedisPoolConfig;
+import redis.clients.jedis.util.JedisURIHelper;
+
+import java.net.URI;
+
+public final class RedisHelper {
+
+    private RedisHelper() {
+    }
+
+    /**
+     * Connection pool for a Redis URL or a plain host name, matching what a single Jedis connection accepts.
+     */
+    public static JedisPool createPool(String url, int connections) {
+        JedisPoolConfig poolConfig = new JedisPoolConfig();
+        poolConfig.setMaxTotal(connections);
+        poolConfig.setMaxIdle(connections);
+        URI uri;
+        try {
+            uri = URI.create(url);
+        } catch (IllegalArgumentException e) {
+            uri = null;
+        }
+        if (uri != null && JedisURIHelper.isValid(uri)) {
+            return new JedisPool(poolConfig, uri);
+        }
+        return new JedisPool(poolConfig, url);
+    }
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2022 - 2023 Anton Tananaev (anton@traccar.org)
+ * Copyright 2022 - 2026 Anton Tananaev (anton@traccar.org)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -24,6 +24,7 @@ import org.traccar.model.Device;
 import org.traccar.model.Group;
 import org.traccar.model.Server;
 import org.traccar.session.cache.CacheManager;
+import org.traccar.session.cache.ResolvedAttributes;
 import org.traccar.storage.Storage;
 import org.traccar.storage.StorageException;
 import org.traccar.storage.query.Columns;
@@ -43,6 +44,10 @@ public final class AttributeUtil {
     }
 
     public static <T> T lookup(CacheManager cacheManager, ConfigKey<T> key, long deviceId) {
+        ResolvedAttributes resolved = cacheManager.getResolvedAttributes(deviceId);
+        if (resolved != null) {
+            return resolved.computeIfAbsent(key, () -> lookup(new CacheProvider(cacheManager, deviceId), key));
+        }
         return lookup(new CacheProvider(cacheManager, deviceId), key);
     }
 
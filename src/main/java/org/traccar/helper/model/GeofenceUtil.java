@@ -1,5 +1,5 @@
 /*
- * Copyright 2022 Anton Tananaev (anton@traccar.org)
+ * Copyright 2022 - 2026 Anton Tananaev (anton@traccar.org)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,8 @@
 package org.traccar.helper.model;
 
 import org.traccar.config.Config;
+import org.traccar.geofence.GeofenceIndex;
+import org.traccar.geofence.GeofenceIndexCache;
 import org.traccar.model.Geofence;
 import org.traccar.model.Position;
 import org.traccar.session.cache.CacheManager;
@@ -28,9 +30,17 @@ public final class GeofenceUtil {
     private GeofenceUtil() {
     }
 
-    public static List<Long> getCurrentGeofences(Config config, CacheManager cacheManager, Position position) {
+    public static List<Long> getCurrentGeofences(
+            Config config, CacheManager cacheManager, GeofenceIndexCache indexCache, Position position) {
+        if (indexCache != null) {
+            GeofenceIndex index = indexCache.getIndex(position.getDeviceId());
+            if (index != null) {
+                return index.getGeofences(position.getLatitude(), position.getLongitude());
+            }
+        }
+        var geofences = cacheManager.getDeviceObjects(position.getDeviceId(), Geofence.class);
         List<Long> result = new ArrayList<>();
-        for (Geofence geofence : cacheManager.getDeviceObjects(position.getDeviceId(), Geofence.class)) {
+        for (Geofence geofence : geofences) {
             if (geofence.getGeometry().containsPoint(
                     config, geofence, position.getLatitude(), position.getLongitude())) {
                 result.add(geofence.getId());
@@ -1,5 +1,5 @@
 /*
- * Copyright 2022 Anton Tananaev (anton@traccar.org)
+ * Copyright 2022 - 2026 Anton Tananaev (anton@traccar.org)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -55,6 +55,15 @@ public final class PositionUtil {
         return distance;
     }
 
+    public static double calculateFuel(Position first, Position last) {
+        if (first.hasAttribute(Position.KEY_FUEL_USED) && last.hasAttribute(Position.KEY_FUEL_USED)) {
+            return last.getDouble(Position.KEY_FUEL_USED) - first.getDouble(Position.KEY_FUEL_USED);
+        } else if (first.hasAttribute(Position.KEY_FUEL_LEVEL) && last.hasAttribute(Position.KEY_FUEL_LEVEL)) {
+            return first.getDouble(Position.KEY_FUEL_LEVEL) - last.getDouble(Position.KEY_FUEL_LEVEL);
+        }
+        return 0;
+    }
+
     public static List<Position> getPositions(
             Storage storage, long deviceId, Date from, Date to) throws StorageException {
         try (var positions = getPositionsStream(storage, deviceId, from, to)) {
@@ -72,6 +81,16 @@ public final class PositionUtil {
                 new Order("fixTime")));
     }
 
+    public static Stream<Position> getPositionsCursor(
+            Storage storage, long deviceId, Date from, Date to) throws StorageException {
+        return storage.getObjectsCursor(Position.class, new Request(
+                new Columns.All(),
+                new Condition.And(
+                        new Condition.Equals("deviceId", deviceId),
+                        new Condition.Between("fixTime", from, to)),
+                new Order("fixTime")));
+    }
+
     public static List<Position> getLatestPositions(Storage storage, long userId) throws StorageException {
         var devices = storage.getObjects(Device.class, new Request(
                 new Columns.Include("id"),
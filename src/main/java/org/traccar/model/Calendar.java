@@ -1,5 +1,5 @@
 /*
- * Copyright 2016 - 2024 Anton Tananaev (anton@traccar.org)
+ * Copyright 2016 - 2026 Anton Tananaev (anton@traccar.org)
  * Copyright 2016 Andrey Kunitsyn (andrey@traccar.org)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
@@ -32,13 +32,26 @@ import java.time.Instant;
 import java.time.OffsetDateTime;
 import java.time.ZonedDateTime;
 import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Date;
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 @StorageName("tc_calendars")
 public class Calendar extends ExtendedModel {
 
+    private static final Duration INTERVALS_BEFORE = Duration.ofDays(1);
+    private static final Duration INTERVALS_AFTER = Duration.ofDays(7);
+    private static final int INTERVALS_WINDOWS = 4;
+
+    private record Intervals(long from, long to, long[] starts, long[] ends) {
+    }
+
+    private volatile Intervals[] intervals = new Intervals[0];
+
     private String name;
 
     public String getName() {
@@ -58,6 +71,7 @@ public class Calendar extends ExtendedModel {
     public void setData(byte[] data) throws IOException, ParserException {
         CalendarBuilder builder = new CalendarBuilder();
         calendar = builder.build(new ByteArrayInputStream(data));
+        intervals = new Intervals[0];
         this.data = data;
     }
 
@@ -81,8 +95,61 @@ public class Calendar extends ExtendedModel {
         }
     }
 
+    private Intervals calculateIntervals(Instant instant) {
+        Instant from = instant.minus(INTERVALS_BEFORE);
+        Instant to = instant.plus(INTERVALS_AFTER);
+        var window = new Period<>(from, to);
+        List<Period<Instant>> periods = new ArrayList<>(calendar.<VEvent>getComponents(CalendarComponent.VEVENT)
+                .stream()
+                .flatMap(c -> c.calculateRecurrenceSet(window).stream())
+                .map(p -> new Period<>(temporalToInstant(p.getStart()), temporalToInstant(p.getEnd())))
+                .toList());
+        periods.sort(Comparator.comparing(Period::getStart));
+
+        long[] starts = new long[periods.size()];
+        long[] ends = new long[periods.size()];
+        int count = 0;
+        for (Period<Instant> period : periods) {
+            long start = period.getStart().toEpochMilli();
+            long end = period.getEnd().toEpochMilli();
+            if (count > 0 && start <= ends[count - 1]) {
+                ends[count - 1] = Math.max(ends[count - 1], end);
+            } else {
+                starts[count] = start;
+                ends[count] = end;
+                count += 1;
+            }
+        }
+        return new Intervals(
+                from.toEpochMilli(), to.toEpochMilli(), Arrays.copyOf(starts, count), Arrays.copyOf(ends, count));
+    }
+
     public boolean checkMoment(Date date) {
-        return !findPeriods(date).isEmpty();
+        if (calendar == null) {
+            return false;
+        }
+        long time = date.getTime();
+        Intervals current = null;
+        Intervals[] windows = intervals;
+        for (Intervals window : windows) {
+            if (time >= window.from() && time < window.to()) {
+                current = window;
+                break;
+            }
+        }
+        if (current == null) {
+            // keep a few recent windows so that buffered and live positions don't evict each other
+            current = calculateIntervals(date.toInstant());
+            Intervals[] updated = new Intervals[Math.min(windows.length + 1, INTERVALS_WINDOWS)];
+            updated[0] = current;
+            System.arraycopy(windows, 0, updated, 1, updated.length - 1);
+            intervals = updated;
+        }
+        int index = Arrays.binarySearch(current.starts(), time);
+        if (index < 0) {
+            index = -index - 2;
+        }
+        return index >= 0 && time <= current.ends()[index];
     }
 
     private static Instant temporalToInstant(Temporal temporal) {
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2026 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.model;
+
+import org.traccar.storage.StorageName;
+
+import java.util.Date;
+
+@StorageName("tc_daily_summaries")
+public class DailySummary extends BaseModel {
+
+    private long deviceId;
+
+    public long getDeviceId() {
+        return deviceId;
+    }
+
+    public void setDeviceId(long deviceId) {
+        this.deviceId = deviceId;
+    }
+
+    private Date dayStart;
+
+    public Date getDayStart() {
+        return dayStart;
+    }
+
+    public void setDayStart(Date dayStart) {
+        this.dayStart = dayStart;
+    }
+
+    private Date startTime;
+
+    public Date getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(Date startTime) {
+        this.startTime = startTime;
+    }
+
+    private Date endTime;
+
+    public Date getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(Date endTime) {
+        this.endTime = endTime;
+    }
+
+    private double distance;
+
+    public double getDistance() {
+        return distance;
+    }
+
+    public void setDistance(double distance) {
+        this.distance = distance;
+    }
+
+    private double averageSpeed;
+
+    public double getAverageSpeed() {
+        return averageSpeed;
+    }
+
+    public void setAverageSpeed(double averageSpeed) {
+        this.averageSpeed = averageSpeed;
+    }
+
+    private double maxSpeed;
+
+    public double getMaxSpeed() {
+        return maxSpeed;
+    }
+
+    public void setMaxSpeed(double maxSpeed) {
+        this.maxSpeed = maxSpeed;
+    }
+
+    private double spentFuel;
+
+    public double getSpentFuel() {
+        return spentFuel;
+    }
+
+    public void setSpentFuel(double spentFuel) {
+        this.spentFuel = spentFuel;
+    }
+
+    private double startOdometer;
+
+    public double getStartOdometer() {
+        return startOdometer;
+    }
+
+    public void setStartOdometer(double startOdometer) {
+        this.startOdometer = startOdometer;
+    }
+
+    private double endOdometer;
+
+    public double getEndOdometer() {
+        return endOdometer;
+    }
+
+    public void setEndOdometer(double endOdometer) {
+        this.endOdometer = endOdometer;
+    }
+
+    private long startHours;
+
+    public long getStartHours() {
+        return startHours;
+    }
+
+    public void setStartHours(long startHours) {
+        this.startHours = startHours;
+    }
+
+    private long endHours;
+
+    public long getEndHours() {
+        return endHours;
+    }
+
+    public void setEndHours(long endHours) {
+        this.endHours = endHours;
+    }
+
+}
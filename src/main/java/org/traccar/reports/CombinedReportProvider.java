@@ -1,5 +1,5 @@
 /*
- * Copyright 2023 Anton Tananaev (anton@traccar.org)
+ * Copyright 2023 - 2026 Anton Tananaev (anton@traccar.org)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,8 +17,9 @@ package org.traccar.reports;
 
 import org.traccar.helper.model.DeviceUtil;
 import org.traccar.helper.model.PositionUtil;
-import org.traccar.model.Device;
 import org.traccar.model.Event;
+import org.traccar.model.Position;
+import org.traccar.reports.common.DeviceReportExecutor;
 import org.traccar.reports.common.ReportUtils;
 import org.traccar.reports.model.CombinedReportItem;
 import org.traccar.storage.Storage;
@@ -32,6 +33,7 @@ import jakarta.inject.Inject;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -40,11 +42,13 @@ public class CombinedReportProvider {
     private static final Set<String> EXCLUDE_TYPES = Set.of(Event.TYPE_DEVICE_MOVING);
 
     private final ReportUtils reportUtils;
+    private final DeviceReportExecutor deviceReportExecutor;
     private final Storage storage;
 
     @Inject
-    public CombinedReportProvider(ReportUtils reportUtils, Storage storage) {
+    public CombinedReportProvider(ReportUtils reportUtils, DeviceReportExecutor deviceReportExecutor, Storage storage) {
         this.reportUtils = reportUtils;
+        this.deviceReportExecutor = deviceReportExecutor;
         this.storage = storage;
     }
 
@@ -53,14 +57,10 @@ public class CombinedReportProvider {
             Date from, Date to) throws StorageException {
         reportUtils.checkPeriodLimit(from, to);
 
-        ArrayList<CombinedReportItem> result = new ArrayList<>();
-        for (Device device: DeviceUtil.getAccessibleDevices(storage, userId, deviceIds, groupIds)) {
+        var devices = DeviceUtil.getAccessibleDevices(storage, userId, deviceIds, groupIds);
+        return deviceReportExecutor.execute(devices, device -> {
             CombinedReportItem item = new CombinedReportItem();
             item.setDeviceId(device.getId());
-            var positions = PositionUtil.getPositions(storage, device.getId(), from, to);
-            item.setRoute(positions.stream()
-                    .map(p -> new double[] {p.getLongitude(), p.getLatitude()})
-                    .toList());
             var events = storage.getObjects(Event.class, new Request(
                     new Columns.All(),
                     new Condition.And(
@@ -73,11 +73,19 @@ public class CombinedReportProvider {
             var eventPositions = events.stream()
                     .map(Event::getPositionId)
                     .collect(Collectors.toSet());
-            item.setPositions(positions.stream()
-                    .filter(p -> eventPositions.contains(p.getId()))
-                    .toList());
-            result.add(item);
-        }
-        return result;
+            List<double[]> route = new ArrayList<>();
+            List<Position> positions = new ArrayList<>();
+            try (var stream = PositionUtil.getPositionsCursor(storage, device.getId(), from, to)) {
+                stream.forEach(p -> {
+                    route.add(new double[] {p.getLongitude(), p.getLatitude()});
+                    if (eventPositions.contains(p.getId())) {
+                        positions.add(p);
+                    }
+                });
+            }
+            item.setRoute(route);
+            item.setPositions(positions);
+            return item;
+        });
     }
 }
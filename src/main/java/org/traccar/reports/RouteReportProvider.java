@@ -1,5 +1,5 @@
 /*
- * Copyright 2016 - 2022 Anton Tananaev (anton@traccar.org)
+ * Copyright 2016 - 2026 Anton Tananaev (anton@traccar.org)
  * Copyright 2016 Andrey Kunitsyn (andrey@traccar.org)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
@@ -21,9 +21,9 @@ import org.traccar.config.Config;
 import org.traccar.config.Keys;
 import org.traccar.helper.model.DeviceUtil;
 import org.traccar.helper.model.PositionUtil;
-import org.traccar.model.Device;
 import org.traccar.model.Group;
 import org.traccar.model.Position;
+import org.traccar.reports.common.DeviceReportExecutor;
 import org.traccar.reports.common.ReportUtils;
 import org.traccar.reports.model.DeviceReportSection;
 import org.traccar.storage.Storage;
@@ -44,31 +44,38 @@ import java.util.Collection;
 import java.util.Date;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.stream.Stream;
 
 public class RouteReportProvider {
 
     private final Config config;
     private final ReportUtils reportUtils;
+    private final DeviceReportExecutor deviceReportExecutor;
     private final Storage storage;
 
     private final Map<String, Integer> namesCount = new HashMap<>();
 
     @Inject
-    public RouteReportProvider(Config config, ReportUtils reportUtils, Storage storage) {
+    public RouteReportProvider(
+            Config config, ReportUtils reportUtils, DeviceReportExecutor deviceReportExecutor, Storage storage) {
         this.config = config;
         this.reportUtils = reportUtils;
+        this.deviceReportExecutor = deviceReportExecutor;
         this.storage = storage;
     }
 
-    public Collection<Position> getObjects(long userId, Collection<Long> deviceIds, Collection<Long> groupIds,
+    public Stream<Position> getObjects(long userId, Collection<Long> deviceIds, Collection<Long> groupIds,
             Date from, Date to) throws StorageException {
         reportUtils.checkPeriodLimit(from, to);
 
-        ArrayList<Position> result = new ArrayList<>();
-        for (Device device: DeviceUtil.getAccessibleDevices(storage, userId, deviceIds, groupIds)) {
-            result.addAll(PositionUtil.getPositions(storage, device.getId(), from, to));
-        }
-        return result;
+        var devices = DeviceUtil.getAccessibleDevices(storage, userId, deviceIds, groupIds);
+        return devices.stream().flatMap(device -> {
+            try {
+                return PositionUtil.getPositionsCursor(storage, device.getId(), from, to);
+            } catch (StorageException e) {
+                throw new RuntimeException(e);
+            }
+        });
     }
 
 
@@ -84,11 +91,11 @@ public class RouteReportProvider {
 
         ArrayList<DeviceReportSection> devicesRoutes = new ArrayList<>();
         ArrayList<String> sheetNames = new ArrayList<>();
-        for (Device device: DeviceUtil.getAccessibleDevices(storage, userId, deviceIds, groupIds)) {
+        var devices = DeviceUtil.getAccessibleDevices(storage, userId, deviceIds, groupIds);
+        devicesRoutes.addAll(deviceReportExecutor.execute(devices, device -> {
             var positions = PositionUtil.getPositions(storage, device.getId(), from, to);
             DeviceReportSection deviceRoutes = new DeviceReportSection();
             deviceRoutes.setDeviceName(device.getName());
-            sheetNames.add(WorkbookUtil.createSafeSheetName(getUniqueSheetName(deviceRoutes.getDeviceName())));
             if (device.getGroupId() > 0) {
                 Group group = storage.getObject(Group.class, new Request(
                         new Columns.All(), new Condition.Equals("id", device.getGroupId())));
@@ -97,7 +104,10 @@ public class RouteReportProvider {
                 }
             }
             deviceRoutes.setObjects(positions);
-            devicesRoutes.add(deviceRoutes);
+            return deviceRoutes;
+        }));
+        for (DeviceReportSection deviceRoutes : devicesRoutes) {
+            sheetNames.add(WorkbookUtil.createSafeSheetName(getUniqueSheetName(deviceRoutes.getDeviceName())));
         }
 
         File file = Paths.get(config.getString(Keys.TEMPLATES_ROOT), "export", "route.xlsx").toFile();
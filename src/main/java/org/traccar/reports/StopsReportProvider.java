@@ -1,5 +1,5 @@
 /*
- * Copyright 2017 - 2022 Anton Tananaev (anton@traccar.org)
+ * Copyright 2017 - 2026 Anton Tananaev (anton@traccar.org)
  * Copyright 2017 Andrey Kunitsyn (andrey@traccar.org)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
@@ -20,8 +20,8 @@ import org.apache.poi.ss.util.WorkbookUtil;
 import org.traccar.config.Config;
 import org.traccar.config.Keys;
 import org.traccar.helper.model.DeviceUtil;
-import org.traccar.model.Device;
 import org.traccar.model.Group;
+import org.traccar.reports.common.DeviceReportExecutor;
 import org.traccar.reports.common.ReportUtils;
 import org.traccar.reports.model.DeviceReportSection;
 import org.traccar.reports.model.StopReportItem;
@@ -46,12 +46,15 @@ public class StopsReportProvider {
 
     private final Config config;
     private final ReportUtils reportUtils;
+    private final DeviceReportExecutor deviceReportExecutor;
     private final Storage storage;
 
     @Inject
-    public StopsReportProvider(Config config, ReportUtils reportUtils, Storage storage) {
+    public StopsReportProvider(
+            Config config, ReportUtils reportUtils, DeviceReportExecutor deviceReportExecutor, Storage storage) {
         this.config = config;
         this.reportUtils = reportUtils;
+        this.deviceReportExecutor = deviceReportExecutor;
         this.storage = storage;
     }
 
@@ -61,9 +64,12 @@ public class StopsReportProvider {
         reportUtils.checkPeriodLimit(from, to);
 
         ArrayList<StopReportItem> result = new ArrayList<>();
-        for (Device device: DeviceUtil.getAccessibleDevices(storage, userId, deviceIds, groupIds)) {
-            result.addAll(reportUtils.detectTripsAndStops(device, from, to, StopReportItem.class));
+        var devices = DeviceUtil.getAccessibleDevices(storage, userId, deviceIds, groupIds);
+        for (var deviceResult : deviceReportExecutor.execute(
+                devices, device -> reportUtils.detectTripsAndStops(device, from, to, StopReportItem.class))) {
+            result.addAll(deviceResult);
         }
+        reportUtils.resolveAddresses(result);
         return result;
     }
 
@@ -74,11 +80,11 @@ public class StopsReportProvider {
 
         ArrayList<DeviceReportSection> devicesStops = new ArrayList<>();
         ArrayList<String> sheetNames = new ArrayList<>();
-        for (Device device: DeviceUtil.getAccessibleDevices(storage, userId, deviceIds, groupIds)) {
+        var devices = DeviceUtil.getAccessibleDevices(storage, userId, deviceIds, groupIds);
+        devicesStops.addAll(deviceReportExecutor.execute(devices, device -> {
             Collection<StopReportItem> stops = reportUtils.detectTripsAndStops(device, from, to, StopReportItem.class);
             DeviceReportSection deviceStops = new DeviceReportSection();
             deviceStops.setDeviceName(device.getName());
-            sheetNames.add(WorkbookUtil.createSafeSheetName(deviceStops.getDeviceName()));
             if (device.getGroupId() > 0) {
                 Group group = storage.getObject(Group.class, new Request(
                         new Columns.All(), new Condition.Equals("id", device.getGroupId())));
@@ -87,7 +93,11 @@ public class StopsReportProvider {
                 }
             }
             deviceStops.setObjects(stops);
-            devicesStops.add(deviceStops);
+            return deviceStops;
+        }));
+        reportUtils.resolveAddresses(devicesStops.stream().flatMap(section -> section.getObjects().stream()).toList());
+        for (DeviceReportSection deviceStops : devicesStops) {
+            sheetNames.add(WorkbookUtil.createSafeSheetName(deviceStops.getDeviceName()));
         }
 
         File file = Paths.get(config.getString(Keys.TEMPLATES_ROOT), "export", "stops.xlsx").toFile();
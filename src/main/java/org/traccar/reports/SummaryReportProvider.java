@@ -1,5 +1,5 @@
 /*
- * Copyright 2016 - 2024 Anton Tananaev (anton@traccar.org)
+ * Copyright 2016 - 2026 Anton Tananaev (anton@traccar.org)
  * Copyright 2016 Andrey Kunitsyn (andrey@traccar.org)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
@@ -25,8 +25,10 @@ import org.traccar.helper.model.AttributeUtil;
 import org.traccar.helper.model.DeviceUtil;
 import org.traccar.helper.model.PositionUtil;
 import org.traccar.helper.model.UserUtil;
+import org.traccar.model.DailySummary;
 import org.traccar.model.Device;
 import org.traccar.model.Position;
+import org.traccar.reports.common.DeviceReportExecutor;
 import org.traccar.reports.common.ReportUtils;
 import org.traccar.reports.common.TripsConfig;
 import org.traccar.reports.model.SummaryReportItem;
@@ -51,21 +53,33 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 public class SummaryReportProvider {
 
+    private static final long DAY_MILLIS = TimeUnit.DAYS.toMillis(1);
+    private static final int ROLLUP_MIN_DAYS = 2;
+
     private final Config config;
     private final ReportUtils reportUtils;
+    private final DeviceReportExecutor deviceReportExecutor;
     private final PermissionsService permissionsService;
     private final Storage storage;
 
+    private final boolean rollupEnabled;
+
     @Inject
     public SummaryReportProvider(
-            Config config, ReportUtils reportUtils, PermissionsService permissionsService, Storage storage) {
+            Config config, ReportUtils reportUtils, DeviceReportExecutor deviceReportExecutor,
+            PermissionsService permissionsService, Storage storage) {
         this.config = config;
         this.reportUtils = reportUtils;
+        this.deviceReportExecutor = deviceReportExecutor;
         this.permissionsService = permissionsService;
         this.storage = storage;
+        rollupEnabled = config.getBoolean(Keys.REPORT_ROLLUP_ENABLE);
     }
 
     private Position getEdgePosition(long deviceId, Date from, Date to, boolean end) throws StorageException {
@@ -77,28 +91,82 @@ public class SummaryReportProvider {
                 new Order("fixTime", end, 1)));
     }
 
-    private Collection<SummaryReportItem> calculateDeviceResult(
+    private double queryMaxSpeed(long deviceId, Date from, Date to) throws StorageException {
+        Position position = storage.getObject(Position.class, new Request(
+                new Columns.Aggregate("MAX", "speed"),
+                new Condition.And(
+                        new Condition.Equals("deviceId", deviceId),
+                        new Condition.Between("fixTime", from, to))));
+        return position != null ? position.getSpeed() : 0;
+    }
+
+    private Map<Long, DailySummary> getDailySummaries(
+            long deviceId, Date from, Date to) throws StorageException {
+        return storage.getObjects(DailySummary.class, new Request(
+                new Columns.All(),
+                new Condition.And(
+                        new Condition.Equals("deviceId", deviceId),
+                        new Condition.Between("dayStart", from, to))))
+                .stream()
+                .collect(Collectors.toMap(summary -> summary.getDayStart().getTime(), summary -> summary));
+    }
+
+    /**
+     * Takes complete UTC days from daily summaries and queries only the partial days at the edges. Returns null if
+     * the period covers too few days to benefit or some of the days don't have a summary.
+     */
+    private Double getRollupMaxSpeed(long deviceId, Date from, Date to) throws StorageException {
+        long firstDay = Math.floorDiv(from.getTime() + DAY_MILLIS - 1, DAY_MILLIS) * DAY_MILLIS;
+        long lastDay = Math.floorDiv(to.getTime() + 1, DAY_MILLIS) * DAY_MILLIS;
+        if (lastDay - firstDay < ROLLUP_MIN_DAYS * DAY_MILLIS) {
+            return null;
+        }
+        var summaries = getDailySummaries(deviceId, new Date(firstDay), new Date(lastDay - DAY_MILLIS));
+        if (summaries.size() != (lastDay - firstDay) / DAY_MILLIS) {
+            return null;
+        }
+        double maxSpeed = summaries.values().stream().mapToDouble(DailySummary::getMaxSpeed).max().orElse(0);
+        if (from.getTime() < firstDay) {
+            maxSpeed = Math.max(maxSpeed, queryMaxSpeed(deviceId, from, new Date(firstDay - 1)));
+        }
+        if (lastDay <= to.getTime()) {
+            maxSpeed = Math.max(maxSpeed, queryMaxSpeed(deviceId, new Date(lastDay), to));
+        }
+        return maxSpeed;
+    }
+
+    private SummaryReportItem createResult(Device device, DailySummary summary) {
+        SummaryReportItem result = new SummaryReportItem();
+        result.setDeviceId(device.getId());
+        result.setDeviceName(device.getName());
+        result.setStartTime(summary.getStartTime());
+        result.setEndTime(summary.getEndTime());
+        result.setDistance(summary.getDistance());
+        result.setAverageSpeed(summary.getAverageSpeed());
+        result.setMaxSpeed(summary.getMaxSpeed());
+        result.setSpentFuel(summary.getSpentFuel());
+        result.setStartOdometer(summary.getStartOdometer());
+        result.setEndOdometer(summary.getEndOdometer());
+        result.setStartHours(summary.getStartHours());
+        result.setEndHours(summary.getEndHours());
+        return result;
+    }
+
+    public Collection<SummaryReportItem> calculateDeviceResult(
             Device device, Date from, Date to, boolean fast) throws StorageException {
 
         SummaryReportItem result = new SummaryReportItem();
         result.setDeviceId(device.getId());
         result.setDeviceName(device.getName());
 
-        Position first = null;
-        Position last = null;
-        if (fast) {
-            first = getEdgePosition(device.getId(), from, to, false);
-            last = getEdgePosition(device.getId(), from, to, true);
-        } else {
-            var positions = PositionUtil.getPositions(storage, device.getId(), from, to);
-            for (Position position : positions) {
-                if (first == null) {
-                    first = position;
-                }
-                if (position.getSpeed() > result.getMaxSpeed()) {
-                    result.setMaxSpeed(position.getSpeed());
-                }
-                last = position;
+        Position first = getEdgePosition(device.getId(), from, to, false);
+        Position last = getEdgePosition(device.getId(), from, to, true);
+        if (first != null) {
+            Double maxSpeed = rollupEnabled ? getRollupMaxSpeed(device.getId(), from, to) : null;
+            if (maxSpeed != null) {
+                result.setMaxSpeed(maxSpeed);
+            } else if (!fast) {
+                result.setMaxSpeed(queryMaxSpeed(device.getId(), from, to));
             }
         }
 
@@ -141,11 +209,21 @@ public class SummaryReportProvider {
         boolean fast = Duration.between(from, to).toSeconds() > config.getLong(Keys.REPORT_FAST_THRESHOLD);
         var results = new ArrayList<SummaryReportItem>();
         if (daily) {
+            // whole days matching UTC days are served from daily summaries when available
+            Map<Long, DailySummary> summaries = rollupEnabled
+                    ? getDailySummaries(device.getId(), Date.from(from.toInstant()), Date.from(to.toInstant()))
+                    : Map.of();
             while (from.truncatedTo(ChronoUnit.DAYS).isBefore(to.truncatedTo(ChronoUnit.DAYS))) {
                 ZonedDateTime fromDay = from.truncatedTo(ChronoUnit.DAYS);
                 ZonedDateTime nextDay = fromDay.plusDays(1);
-                results.addAll(calculateDeviceResult(
-                        device, Date.from(from.toInstant()), Date.from(nextDay.toInstant()), fast));
+                long start = from.toInstant().toEpochMilli();
+                DailySummary summary = summaries.get(start);
+                if (summary != null && nextDay.toInstant().toEpochMilli() - start == DAY_MILLIS) {
+                    results.add(createResult(device, summary));
+                } else {
+                    results.addAll(calculateDeviceResult(
+                            device, Date.from(from.toInstant()), Date.from(nextDay.toInstant()), fast));
+                }
                 from = nextDay;
             }
         }
@@ -161,9 +239,9 @@ public class SummaryReportProvider {
         var tz = UserUtil.getTimezone(permissionsService.getServer(), permissionsService.getUser(userId)).toZoneId();
 
         ArrayList<SummaryReportItem> result = new ArrayList<>();
-        for (Device device: DeviceUtil.getAccessibleDevices(storage, userId, deviceIds, groupIds)) {
-            var deviceResults = calculateDeviceResults(
-                    device, from.toInstant().atZone(tz), to.toInstant().atZone(tz), daily);
+        var devices = DeviceUtil.getAccessibleDevices(storage, userId, deviceIds, groupIds);
+        for (var deviceResults : deviceReportExecutor.execute(devices, device -> calculateDeviceResults(
+                device, from.toInstant().atZone(tz), to.toInstant().atZone(tz), daily))) {
             for (SummaryReportItem summaryReport : deviceResults) {
                 if (summaryReport.getStartTime() != null && summaryReport.getEndTime() != null) {
                     result.add(summaryReport);
@@ -1,5 +1,5 @@
 /*
- * Copyright 2016 - 2022 Anton Tananaev (anton@traccar.org)
+ * Copyright 2016 - 2026 Anton Tananaev (anton@traccar.org)
  * Copyright 2016 Andrey Kunitsyn (andrey@traccar.org)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
@@ -20,8 +20,8 @@ import org.apache.poi.ss.util.WorkbookUtil;
 import org.traccar.config.Config;
 import org.traccar.config.Keys;
 import org.traccar.helper.model.DeviceUtil;
-import org.traccar.model.Device;
 import org.traccar.model.Group;
+import org.traccar.reports.common.DeviceReportExecutor;
 import org.traccar.reports.common.ReportUtils;
 import org.traccar.reports.model.DeviceReportSection;
 import org.traccar.reports.model.TripReportItem;
@@ -46,12 +46,15 @@ public class TripsReportProvider {
 
     private final Config config;
     private final ReportUtils reportUtils;
+    private final DeviceReportExecutor deviceReportExecutor;
     private final Storage storage;
 
     @Inject
-    public TripsReportProvider(Config config, ReportUtils reportUtils, Storage storage) {
+    public TripsReportProvider(
+            Config config, ReportUtils reportUtils, DeviceReportExecutor deviceReportExecutor, Storage storage) {
         this.config = config;
         this.reportUtils = reportUtils;
+        this.deviceReportExecutor = deviceReportExecutor;
         this.storage = storage;
     }
 
@@ -61,9 +64,12 @@ public class TripsReportProvider {
         reportUtils.checkPeriodLimit(from, to);
 
         ArrayList<TripReportItem> result = new ArrayList<>();
-        for (Device device: DeviceUtil.getAccessibleDevices(storage, userId, deviceIds, groupIds)) {
-            result.addAll(reportUtils.detectTripsAndStops(device, from, to, TripReportItem.class));
+        var devices = DeviceUtil.getAccessibleDevices(storage, userId, deviceIds, groupIds);
+        for (var deviceResult : deviceReportExecutor.execute(
+                devices, device -> reportUtils.detectTripsAndStops(device, from, to, TripReportItem.class))) {
+            result.addAll(deviceResult);
         }
+        reportUtils.resolveAddresses(result);
         return result;
     }
 
@@ -74,11 +80,11 @@ public class TripsReportProvider {
 
         ArrayList<DeviceReportSection> devicesTrips = new ArrayList<>();
         ArrayList<String> sheetNames = new ArrayList<>();
-        for (Device device: DeviceUtil.getAccessibleDevices(storage, userId, deviceIds, groupIds)) {
+        var devices = DeviceUtil.getAccessibleDevices(storage, userId, deviceIds, groupIds);
+        devicesTrips.addAll(deviceReportExecutor.execute(devices, device -> {
             Collection<TripReportItem> trips = reportUtils.detectTripsAndStops(device, from, to, TripReportItem.class);
             DeviceReportSection deviceTrips = new DeviceReportSection();
             deviceTrips.setDeviceName(device.getName());
-            sheetNames.add(WorkbookUtil.createSafeSheetName(deviceTrips.getDeviceName()));
             if (device.getGroupId() > 0) {
                 Group group = storage.getObject(Group.class, new Request(
                         new Columns.All(), new Condition.Equals("id", device.getGroupId())));
@@ -87,7 +93,11 @@ public class TripsReportProvider {
                 }
             }
             deviceTrips.setObjects(trips);
-            devicesTrips.add(deviceTrips);
+            return deviceTrips;
+        }));
+        reportUtils.resolveAddresses(devicesTrips.stream().flatMap(section -> section.getObjects().stream()).toList());
+        for (DeviceReportSection deviceTrips : devicesTrips) {
+            sheetNames.add(WorkbookUtil.createSafeSheetName(deviceTrips.getDeviceName()));
         }
 
         File file = Paths.get(config.getString(Keys.TEMPLATES_ROOT), "export", "trips.xlsx").toFile();
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2026 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.reports.common;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+import org.traccar.database.ExecutorManager;
+import org.traccar.model.Device;
+import org.traccar.storage.StorageException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Runs per-device report calculations in parallel. Results keep the order of devices. The number of devices processed
+ * at the same time is limited per report and across all reports, so reports can't exhaust the database pool.
+ */
+@Singleton
+public class DeviceReportExecutor {
+
+    public interface DeviceTask<T> {
+        T run(Device device) throws StorageException;
+    }
+
+    private final ExecutorService executorService;
+    private final int parallelism;
+    private final Semaphore queries;
+
+    @Inject
+    public DeviceReportExecutor(Config config, ExecutorManager executorManager) {
+        this(config, executorManager.getExecutor(ExecutorManager.Workload.REPORT_DEVICES));
+    }
+
+    public DeviceReportExecutor(Config config, ExecutorService executorService) {
+        this.executorService = executorService;
+        parallelism = Math.max(config.getInteger(Keys.REPORT_PARALLELISM), 1);
+        queries = new Semaphore(Math.max(config.getInteger(Keys.REPORT_MAX_QUERIES), 1), true);
+    }
+
+    public <T> List<T> execute(Collection<Device> devices, DeviceTask<T> task) throws StorageException {
+        List<Device> deviceList = List.copyOf(devices);
+        AtomicReferenceArray<T> results = new AtomicReferenceArray<>(deviceList.size());
+        AtomicInteger next = new AtomicInteger();
+        AtomicReference<Exception> error = new AtomicReference<>();
+
+        Runnable worker = () -> {
+            int index;
+            while (error.get() == null && (index = next.getAndIncrement()) < deviceList.size()) {
+                try {
+                    queries.acquire();
+                    try {
+                        results.set(index, task.run(deviceList.get(index)));
+                    } finally {
+                        queries.release();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    error.compareAndSet(null, e);
+                } catch (StorageException | RuntimeException e) {
+                    error.compareAndSet(null, e);
+                }
+            }
+        };
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 1; i < Math.min(parallelism, deviceList.size()); i++) {
+            try {
+                futures.add(executorService.submit(worker));
+            } catch (RejectedExecutionException e) {
+                break; // pool is busy, the calling thread still processes the remaining devices
+            }
+        }
+        worker.run();
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                error.compareAndSet(null, e);
+                futures.forEach(f -> f.cancel(true));
+                break;
+            } catch (ExecutionException e) {
+                error.compareAndSet(null, new StorageException(e.getCause()));
+            }
+        }
+
+        Exception exception = error.get();
+        if (exception instanceof StorageException storageException) {
+            throw storageException;
+        } else if (exception instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        } else if (exception != null) {
+            throw new StorageException(exception);
+        }
+
+        List<T> result = new ArrayList<>(deviceList.size());
+        for (int i = 0; i < deviceList.size(); i++) {
+            result.add(results.get(i));
+        }
+        return result;
+    }
+
+}
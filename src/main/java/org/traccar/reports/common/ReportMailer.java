@@ -1,5 +1,5 @@
 /*
- * Copyright 2023 Anton Tananaev (anton@traccar.org)
+ * Copyright 2023 - 2026 Anton Tananaev (anton@traccar.org)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,7 @@ package org.traccar.reports.common;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.traccar.api.security.PermissionsService;
+import org.traccar.database.ExecutorManager;
 import org.traccar.mail.MailManager;
 import org.traccar.model.User;
 import org.traccar.storage.StorageException;
@@ -29,6 +30,7 @@ import jakarta.mail.internet.MimeBodyPart;
 import jakarta.mail.util.ByteArrayDataSource;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.concurrent.ExecutorService;
 
 public class ReportMailer {
 
@@ -36,15 +38,18 @@ public class ReportMailer {
 
     private final PermissionsService permissionsService;
     private final MailManager mailManager;
+    private final ExecutorService executorService;
 
     @Inject
-    public ReportMailer(PermissionsService permissionsService, MailManager mailManager) {
+    public ReportMailer(
+            PermissionsService permissionsService, MailManager mailManager, ExecutorManager executorManager) {
         this.permissionsService = permissionsService;
         this.mailManager = mailManager;
+        this.executorService = executorManager.getExecutor(ExecutorManager.Workload.REPORTS);
     }
 
     public void sendAsync(long userId, ReportExecutor executor) {
-        new Thread(() -> {
+        executorService.execute(() -> {
             try {
                 var stream = new ByteArrayOutputStream();
                 executor.execute(stream);
@@ -59,7 +64,7 @@ public class ReportMailer {
             } catch (StorageException | IOException | MessagingException e) {
                 LOGGER.warn("Email report failed", e);
             }
-        }).start();
+        });
     }
 
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2016 - 2023 Anton Tananaev (anton@traccar.org)
+ * Copyright 2016 - 2026 Anton Tananaev (anton@traccar.org)
  * Copyright 2016 - 2017 Andrey Kunitsyn (andrey@traccar.org)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
@@ -32,6 +32,7 @@ import org.traccar.api.security.PermissionsService;
 import org.traccar.config.Config;
 import org.traccar.config.Keys;
 import org.traccar.geocoder.Geocoder;
+import org.traccar.geocoder.GeocoderLimitException;
 import org.traccar.helper.UnitsConverter;
 import org.traccar.helper.model.AttributeUtil;
 import org.traccar.helper.model.PositionUtil;
@@ -40,6 +41,7 @@ import org.traccar.model.BaseModel;
 import org.traccar.model.Device;
 import org.traccar.model.Driver;
 import org.traccar.model.Event;
+import org.traccar.model.MotionSegment;
 import org.traccar.model.Position;
 import org.traccar.model.User;
 import org.traccar.reports.model.BaseReportItem;
@@ -58,20 +60,46 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.time.Duration;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 public class ReportUtils {
 
+    private static final long GEOCODER_TIMEOUT_SECONDS = 30;
+    private static final long GEOCODER_RETRY_MILLIS = 100;
+    private static final int GEOCODER_MAX_OUTSTANDING = 8;
+    private static final int POSITION_BATCH_SIZE = 500;
+
+    private record EventPair(Event start, Event end) {
+    }
+
+    private record Coordinates(double latitude, double longitude) {
+    }
+
+    private record GeocoderResult(Coordinates coordinates, String address, long retryDelay) {
+    }
+
     private final Config config;
     private final Storage storage;
     private final PermissionsService permissionsService;
     private final VelocityEngine velocityEngine;
     private final Geocoder geocoder;
 
+    private volatile Map<String, String> driverNames;
+
     @Inject
     public ReportUtils(
             Config config, Storage storage, PermissionsService permissionsService,
@@ -100,12 +128,7 @@ public class ReportUtils {
     }
 
     public double calculateFuel(Position first, Position last) {
-        if (first.hasAttribute(Position.KEY_FUEL_USED) && last.hasAttribute(Position.KEY_FUEL_USED)) {
-            return last.getDouble(Position.KEY_FUEL_USED) - first.getDouble(Position.KEY_FUEL_USED);
-        } else if (first.hasAttribute(Position.KEY_FUEL_LEVEL) && last.hasAttribute(Position.KEY_FUEL_LEVEL)) {
-            return first.getDouble(Position.KEY_FUEL_LEVEL) - last.getDouble(Position.KEY_FUEL_LEVEL);
-        }
-        return 0;
+        return PositionUtil.calculateFuel(first, last);
     }
 
     public String findDriver(Position firstPosition, Position lastPosition) {
@@ -117,14 +140,30 @@ public class ReportUtils {
         return null;
     }
 
+    /**
+     * Driver names are loaded once and reused for all devices of the report.
+     */
+    private Map<String, String> getDriverNames() throws StorageException {
+        Map<String, String> result = driverNames;
+        if (result == null) {
+            synchronized (this) {
+                result = driverNames;
+                if (result == null) {
+                    result = new HashMap<>();
+                    for (Driver driver : storage.getObjects(Driver.class, new Request(
+                            new Columns.Include("uniqueId", "name")))) {
+                        result.put(driver.getUniqueId(), driver.getName());
+                    }
+                    driverNames = result;
+                }
+            }
+        }
+        return result;
+    }
+
     public String findDriverName(String driverUniqueId) throws StorageException {
         if (driverUniqueId != null) {
-            Driver driver = storage.getObject(Driver.class, new Request(
-                    new Columns.All(),
-                    new Condition.Equals("uniqueId", driverUniqueId)));
-            if (driver != null) {
-                return driver.getName();
-            }
+            return getDriverNames().get(driverUniqueId);
         }
         return null;
     }
@@ -159,6 +198,97 @@ public class ReportUtils {
         transformer.write();
     }
 
+    /**
+     * Fills in missing addresses of trips and stops. Each distinct location is geocoded once per report with a small
+     * number of requests in flight, whether or not a geocoder limiter is configured. Requests rejected by the limiter
+     * are retried until the overall timeout expires, so locations not resolved in time are left without an address.
+     */
+    public void resolveAddresses(Collection<?> items) {
+        if (geocoder == null || !config.getBoolean(Keys.GEOCODER_ON_REQUEST)) {
+            return;
+        }
+
+        Set<Coordinates> unique = new LinkedHashSet<>();
+        for (Object item : items) {
+            if (item instanceof TripReportItem trip) {
+                if (trip.getStartAddress() == null) {
+                    unique.add(new Coordinates(trip.getStartLat(), trip.getStartLon()));
+                }
+                if (trip.getEndAddress() == null) {
+                    unique.add(new Coordinates(trip.getEndLat(), trip.getEndLon()));
+                }
+            } else if (item instanceof StopReportItem stop && stop.getAddress() == null) {
+                unique.add(new Coordinates(stop.getLatitude(), stop.getLongitude()));
+            }
+        }
+        if (unique.isEmpty()) {
+            return;
+        }
+
+        Deque<Coordinates> pending = new ArrayDeque<>(unique);
+        Map<Coordinates, String> addresses = new HashMap<>();
+        BlockingQueue<GeocoderResult> results = new LinkedBlockingQueue<>();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(GEOCODER_TIMEOUT_SECONDS);
+        long retryTime = System.nanoTime();
+        int outstanding = 0;
+        try {
+            while (!pending.isEmpty() || outstanding > 0) {
+                long now = System.nanoTime();
+                if (now - deadline >= 0) {
+                    break;
+                }
+                GeocoderResult result;
+                boolean ready = !pending.isEmpty() && outstanding < GEOCODER_MAX_OUTSTANDING;
+                if (ready && now - retryTime >= 0) {
+                    Coordinates coordinates = pending.poll();
+                    outstanding += 1;
+                    geocoder.getAddress(coordinates.latitude(), coordinates.longitude(),
+                            new Geocoder.ReverseGeocoderCallback() {
+                        @Override
+                        public void onSuccess(String address) {
+                            results.add(new GeocoderResult(coordinates, address, -1));
+                        }
+
+                        @Override
+                        public void onFailure(Throwable e) {
+                            long delay = e instanceof GeocoderLimitException limitException
+                                    ? Math.max(limitException.getDelay(), GEOCODER_RETRY_MILLIS) : -1;
+                            results.add(new GeocoderResult(coordinates, null, delay));
+                        }
+                    });
+                    result = results.poll();
+                } else {
+                    long wait = ready ? Math.min(deadline, retryTime) - now : deadline - now;
+                    result = results.poll(wait, TimeUnit.NANOSECONDS);
+                }
+                if (result != null) {
+                    outstanding -= 1;
+                    if (result.retryDelay() >= 0) {
+                        pending.addFirst(result.coordinates());
+                        retryTime = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(result.retryDelay());
+                    } else if (result.address() != null) {
+                        addresses.put(result.coordinates(), result.address());
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        for (Object item : items) {
+            if (item instanceof TripReportItem trip) {
+                if (trip.getStartAddress() == null) {
+                    trip.setStartAddress(addresses.get(new Coordinates(trip.getStartLat(), trip.getStartLon())));
+                }
+                if (trip.getEndAddress() == null) {
+                    trip.setEndAddress(addresses.get(new Coordinates(trip.getEndLat(), trip.getEndLon())));
+                }
+            } else if (item instanceof StopReportItem stop && stop.getAddress() == null) {
+                stop.setAddress(addresses.get(new Coordinates(stop.getLatitude(), stop.getLongitude())));
+            }
+        }
+    }
+
     private TripReportItem calculateTrip(
             Device device, Position startTrip, Position endTrip, double maxSpeed,
             boolean ignoreOdometer) throws StorageException {
@@ -174,21 +304,13 @@ public class ReportUtils {
         trip.setStartLat(startTrip.getLatitude());
         trip.setStartLon(startTrip.getLongitude());
         trip.setStartTime(startTrip.getFixTime());
-        String startAddress = startTrip.getAddress();
-        if (startAddress == null && geocoder != null && config.getBoolean(Keys.GEOCODER_ON_REQUEST)) {
-            startAddress = geocoder.getAddress(startTrip.getLatitude(), startTrip.getLongitude(), null);
-        }
-        trip.setStartAddress(startAddress);
+        trip.setStartAddress(startTrip.getAddress());
 
         trip.setEndPositionId(endTrip.getId());
         trip.setEndLat(endTrip.getLatitude());
         trip.setEndLon(endTrip.getLongitude());
         trip.setEndTime(endTrip.getFixTime());
-        String endAddress = endTrip.getAddress();
-        if (endAddress == null && geocoder != null && config.getBoolean(Keys.GEOCODER_ON_REQUEST)) {
-            endAddress = geocoder.getAddress(endTrip.getLatitude(), endTrip.getLongitude(), null);
-        }
-        trip.setEndAddress(endAddress);
+        trip.setEndAddress(endTrip.getAddress());
 
         trip.setDistance(PositionUtil.calculateDistance(startTrip, endTrip, !ignoreOdometer));
         trip.setDuration(tripDuration);
@@ -227,11 +349,7 @@ public class ReportUtils {
         stop.setLatitude(startStop.getLatitude());
         stop.setLongitude(startStop.getLongitude());
         stop.setStartTime(startStop.getFixTime());
-        String address = startStop.getAddress();
-        if (address == null && geocoder != null && config.getBoolean(Keys.GEOCODER_ON_REQUEST)) {
-            address = geocoder.getAddress(stop.getLatitude(), stop.getLongitude(), null);
-        }
-        stop.setAddress(address);
+        stop.setAddress(startStop.getAddress());
 
         stop.setEndTime(endStop.getFixTime());
 
@@ -269,30 +387,173 @@ public class ReportUtils {
         }
     }
 
-    private boolean isMoving(List<Position> positions, int index, TripsConfig tripsConfig) {
+    private boolean isMoving(Position previous, Position position, Position next, TripsConfig tripsConfig) {
         if (tripsConfig.getMinimalNoDataDuration() > 0) {
-            boolean beforeGap = index < positions.size() - 1
-                    && positions.get(index + 1).getFixTime().getTime() - positions.get(index).getFixTime().getTime()
+            boolean beforeGap = next != null
+                    && next.getFixTime().getTime() - position.getFixTime().getTime()
                     >= tripsConfig.getMinimalNoDataDuration();
-            boolean afterGap = index > 0
-                    && positions.get(index).getFixTime().getTime() - positions.get(index - 1).getFixTime().getTime()
+            boolean afterGap = previous != null
+                    && position.getFixTime().getTime() - previous.getFixTime().getTime()
                     >= tripsConfig.getMinimalNoDataDuration();
             if (beforeGap || afterGap) {
                 return false;
             }
         }
-        return positions.get(index).getBoolean(Position.KEY_MOTION);
+        return position.getBoolean(Position.KEY_MOTION);
+    }
+
+    private TripReportItem createTrip(Device device, MotionSegment segment) throws StorageException {
+        TripReportItem trip = new TripReportItem();
+        trip.setDeviceId(device.getId());
+        trip.setDeviceName(device.getName());
+        trip.setStartPositionId(segment.getStartPositionId());
+        trip.setStartLat(segment.getStartLat());
+        trip.setStartLon(segment.getStartLon());
+        trip.setStartTime(segment.getStartTime());
+        trip.setStartAddress(segment.getStartAddress());
+        trip.setEndPositionId(segment.getEndPositionId());
+        trip.setEndLat(segment.getEndLat());
+        trip.setEndLon(segment.getEndLon());
+        trip.setEndTime(segment.getEndTime());
+        trip.setEndAddress(segment.getEndAddress());
+        trip.setDistance(segment.getDistance());
+        trip.setDuration(segment.getDuration());
+        trip.setAverageSpeed(segment.getAverageSpeed());
+        trip.setMaxSpeed(segment.getMaxSpeed());
+        trip.setSpentFuel(segment.getSpentFuel());
+        trip.setStartOdometer(segment.getStartOdometer());
+        trip.setEndOdometer(segment.getEndOdometer());
+        trip.setDriverUniqueId(segment.getDriverUniqueId());
+        trip.setDriverName(findDriverName(segment.getDriverUniqueId()));
+        return trip;
+    }
+
+    private StopReportItem createStop(Device device, MotionSegment segment) {
+        StopReportItem stop = new StopReportItem();
+        stop.setDeviceId(device.getId());
+        stop.setDeviceName(device.getName());
+        stop.setPositionId(segment.getStartPositionId());
+        stop.setLatitude(segment.getStartLat());
+        stop.setLongitude(segment.getStartLon());
+        stop.setStartTime(segment.getStartTime());
+        stop.setAddress(segment.getStartAddress());
+        stop.setEndTime(segment.getEndTime());
+        stop.setDuration(segment.getDuration());
+        stop.setSpentFuel(segment.getSpentFuel());
+        stop.setEngineHours(segment.getEngineHours());
+        stop.setStartOdometer(segment.getStartOdometer());
+        stop.setEndOdometer(segment.getEndOdometer());
+        return stop;
+    }
+
+    private Position getEdgePosition(long deviceId, Date from, Date to, boolean end) throws StorageException {
+        return storage.getObject(Position.class, new Request(
+                new Columns.All(),
+                new Condition.And(
+                        new Condition.Equals("deviceId", deviceId),
+                        new Condition.Between("fixTime", from, to)),
+                new Order("fixTime", end, 1)));
+    }
+
+    /**
+     * Recalculates a recorded segment that extends beyond the period from the first and the last positions inside
+     * of it, same as a calculation from positions of the period would do. Returns null if there is nothing left.
+     */
+    private <T extends BaseReportItem> T clipSegment(
+            Device device, MotionSegment segment, Date from, Date to,
+            boolean ignoreOdometer, Class<T> reportClass) throws StorageException {
+
+        Date start = segment.getStartTime().before(from) ? from : segment.getStartTime();
+        Date end = segment.getEndPositionId() == 0 || segment.getEndTime().after(to) ? to : segment.getEndTime();
+        Position startPosition = getEdgePosition(device.getId(), start, end, false);
+        Position endPosition = getEdgePosition(device.getId(), start, end, true);
+        if (startPosition == null || endPosition == null || startPosition.getId() == endPosition.getId()) {
+            return null;
+        }
+
+        double maxSpeed = 0;
+        if (segment.getMoving()) {
+            Position position = storage.getObject(Position.class, new Request(
+                    new Columns.Aggregate("MAX", "speed"),
+                    new Condition.And(
+                            new Condition.Equals("deviceId", device.getId()),
+                            new Condition.Between("fixTime", startPosition.getFixTime(), endPosition.getFixTime()))));
+            maxSpeed = position != null ? position.getSpeed() : 0;
+        }
+        return calculateTripOrStop(device, startPosition, endPosition, maxSpeed, ignoreOdometer, reportClass);
+    }
+
+    /**
+     * Reads trips or stops recorded during position processing. Returns null if recording started after the
+     * beginning of the period, so the caller has to calculate them from positions instead.
+     */
+    @SuppressWarnings("unchecked")
+    private <T extends BaseReportItem> List<T> storedTripsAndStops(
+            Device device, Date from, Date to, Class<T> reportClass) throws StorageException {
+
+        MotionSegment first = storage.getObject(MotionSegment.class, new Request(
+                new Columns.Include("startTime"),
+                new Condition.Equals("deviceId", device.getId()),
+                new Order("startTime", false, 1)));
+        if (first == null || first.getStartTime().after(from)) {
+            return null;
+        }
+
+        TripsConfig tripsConfig = new TripsConfig(
+                new AttributeUtil.StorageProvider(config, storage, permissionsService, device));
+        boolean trips = reportClass.equals(TripReportItem.class);
+        List<MotionSegment> segments = new ArrayList<>(storage.getObjects(MotionSegment.class, new Request(
+                new Columns.All(),
+                new Condition.And(
+                        new Condition.And(
+                                new Condition.Equals("deviceId", device.getId()),
+                                new Condition.Equals("moving", trips)),
+                        new Condition.And(
+                                new Condition.Compare("startTime", "<=", to),
+                                new Condition.Compare("endTime", ">=", from))),
+                new Order("startTime"))));
+
+        // open segment has no end time yet, so it is checked separately
+        MotionSegment latest = storage.getObject(MotionSegment.class, new Request(
+                new Columns.All(),
+                new Condition.Equals("deviceId", device.getId()),
+                new Order("startTime", true, 1)));
+        if (latest != null && latest.getEndPositionId() == 0
+                && latest.getMoving() == trips && !latest.getStartTime().after(to)) {
+            segments.add(latest);
+        }
+
+        List<T> result = new ArrayList<>();
+        for (MotionSegment segment : segments) {
+            if (segment.getEndPositionId() > 0
+                    && !segment.getStartTime().before(from) && !segment.getEndTime().after(to)) {
+                result.add(trips ? (T) createTrip(device, segment) : (T) createStop(device, segment));
+            } else {
+                T item = clipSegment(device, segment, from, to, tripsConfig.getIgnoreOdometer(), reportClass);
+                if (item != null) {
+                    result.add(item);
+                }
+            }
+        }
+        return result;
     }
 
     public <T extends BaseReportItem> List<T> detectTripsAndStops(
             Device device, Date from, Date to, Class<T> reportClass) throws StorageException {
 
-        long threshold = config.getLong(Keys.REPORT_FAST_THRESHOLD);
-        if (Duration.between(from.toInstant(), to.toInstant()).toSeconds() > threshold) {
-            return fastTripsAndStops(device, from, to, reportClass);
-        } else {
-            return slowTripsAndStops(device, from, to, reportClass);
+        List<T> result = null;
+        if (config.getBoolean(Keys.REPORT_TRIP_MATERIALIZE)) {
+            result = storedTripsAndStops(device, from, to, reportClass);
+        }
+        if (result == null) {
+            long threshold = config.getLong(Keys.REPORT_FAST_THRESHOLD);
+            if (Duration.between(from.toInstant(), to.toInstant()).toSeconds() > threshold) {
+                result = fastTripsAndStops(device, from, to, reportClass);
+            } else {
+                result = slowTripsAndStops(device, from, to, reportClass);
+            }
         }
+        return result;
     }
 
     public <T extends BaseReportItem> List<T> slowTripsAndStops(
@@ -303,55 +564,65 @@ public class ReportUtils {
                 new AttributeUtil.StorageProvider(config, storage, permissionsService, device));
         boolean ignoreOdometer = tripsConfig.getIgnoreOdometer();
 
-        var positions = PositionUtil.getPositions(storage, device.getId(), from, to);
-        if (!positions.isEmpty()) {
+        try (var positions = PositionUtil.getPositionsCursor(storage, device.getId(), from, to)) {
+            Iterator<Position> iterator = positions.iterator();
+            if (!iterator.hasNext()) {
+                return result;
+            }
+
+            // only neighbours of the current position are needed, so positions are consumed as they are read
+            Position previous = null;
+            Position position = iterator.next();
+            Position next = iterator.hasNext() ? iterator.next() : null;
+
             boolean trips = reportClass.equals(TripReportItem.class);
 
             MotionState motionState = new MotionState();
-            boolean initialValue = isMoving(positions, 0, tripsConfig);
+            boolean initialValue = isMoving(previous, position, next, tripsConfig);
             motionState.setMotionStreak(initialValue);
             motionState.setMotionState(initialValue);
 
             boolean detected = trips == motionState.getMotionState();
             double maxSpeed = 0;
-            int startEventIndex = detected ? 0 : -1;
-            int startNoEventIndex = -1;
-            for (int i = 0; i < positions.size(); i++) {
-                boolean motion = isMoving(positions, i, tripsConfig);
+            Position startEvent = detected ? position : null;
+            Position startNoEvent = null;
+            while (position != null) {
+                boolean motion = isMoving(previous, position, next, tripsConfig);
                 if (motionState.getMotionState() != motion) {
                     if (motion == trips) {
                         if (!detected) {
-                            startEventIndex = i;
-                            maxSpeed = positions.get(i).getSpeed();
+                            startEvent = position;
+                            maxSpeed = position.getSpeed();
                         }
-                        startNoEventIndex = -1;
+                        startNoEvent = null;
                     } else {
-                        startNoEventIndex = i;
+                        startNoEvent = position;
                     }
                 } else {
-                    maxSpeed = Math.max(maxSpeed, positions.get(i).getSpeed());
+                    maxSpeed = Math.max(maxSpeed, position.getSpeed());
                 }
 
-                MotionProcessor.updateState(motionState, positions.get(i), motion, tripsConfig);
+                MotionProcessor.updateState(motionState, position, motion, tripsConfig);
                 if (motionState.getEvent() != null) {
                     if (motion == trips) {
                         detected = true;
-                        startNoEventIndex = -1;
-                    } else if (startEventIndex >= 0 && startNoEventIndex >= 0) {
+                        startNoEvent = null;
+                    } else if (startEvent != null && startNoEvent != null) {
                         result.add(calculateTripOrStop(
-                                device, positions.get(startEventIndex), positions.get(startNoEventIndex),
-                                maxSpeed, ignoreOdometer, reportClass));
+                                device, startEvent, startNoEvent, maxSpeed, ignoreOdometer, reportClass));
                         detected = false;
-                        startEventIndex = -1;
-                        startNoEventIndex = -1;
+                        startEvent = null;
+                        startNoEvent = null;
                     }
                 }
+
+                previous = position;
+                position = next;
+                next = iterator.hasNext() ? iterator.next() : null;
             }
-            if (detected & startEventIndex >= 0 && startEventIndex < positions.size() - 1) {
-                int endIndex = startNoEventIndex >= 0 ? startNoEventIndex : positions.size() - 1;
-                result.add(calculateTripOrStop(
-                        device, positions.get(startEventIndex), positions.get(endIndex),
-                        maxSpeed, ignoreOdometer, reportClass));
+            if (detected && startEvent != null && startEvent != previous) {
+                Position end = startNoEvent != null ? startNoEvent : previous;
+                result.add(calculateTripOrStop(device, startEvent, end, maxSpeed, ignoreOdometer, reportClass));
             }
         }
 
@@ -378,24 +649,50 @@ public class ReportUtils {
                 .filter(event -> filter.contains(event.getType()))
                 .toList();
 
+        List<EventPair> pairs = new ArrayList<>();
         Event startEvent = null;
         for (Event event : filteredEvents) {
             boolean motion = event.getType().equals(Event.TYPE_DEVICE_MOVING);
             if (motion == trips) {
                 startEvent = event;
             } else if (startEvent != null) {
-                Position startPosition = storage.getObject(Position.class, new Request(
-                        new Columns.All(), new Condition.Equals("id", startEvent.getPositionId())));
-                Position endPosition = storage.getObject(Position.class, new Request(
-                        new Columns.All(), new Condition.Equals("id", event.getPositionId())));
-                if (startPosition != null && endPosition != null) {
-                    result.add(calculateTripOrStop(
-                            device, startPosition, endPosition, 0, ignoreOdometer, reportClass));
-                }
+                pairs.add(new EventPair(startEvent, event));
                 startEvent = null;
             }
         }
 
+        Set<Long> positionIds = new LinkedHashSet<>();
+        for (EventPair pair : pairs) {
+            positionIds.add(pair.start().getPositionId());
+            positionIds.add(pair.end().getPositionId());
+        }
+        Map<Long, Position> positions = getPositions(device.getId(), positionIds);
+
+        for (EventPair pair : pairs) {
+            Position startPosition = positions.get(pair.start().getPositionId());
+            Position endPosition = positions.get(pair.end().getPositionId());
+            if (startPosition != null && endPosition != null) {
+                result.add(calculateTripOrStop(
+                        device, startPosition, endPosition, 0, ignoreOdometer, reportClass));
+            }
+        }
+
+        return result;
+    }
+
+    private Map<Long, Position> getPositions(long deviceId, Collection<Long> positionIds) throws StorageException {
+        Map<Long, Position> result = new HashMap<>();
+        List<Long> ids = new ArrayList<>(positionIds);
+        for (int i = 0; i < ids.size(); i += POSITION_BATCH_SIZE) {
+            var batch = ids.subList(i, Math.min(i + POSITION_BATCH_SIZE, ids.size()));
+            try (var positions = storage.getObjectsStream(Position.class, new Request(
+                    new Columns.All(),
+                    new Condition.And(
+                            new Condition.Equals("deviceId", deviceId),
+                            new Condition.In("id", batch))))) {
+                positions.forEach(position -> result.put(position.getId(), position));
+            }
+        }
         return result;
     }
 
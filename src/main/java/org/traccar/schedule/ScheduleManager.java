@@ -1,5 +1,5 @@
 /*
- * Copyright 2020 - 2024 Anton Tananaev (anton@traccar.org)
+ * Copyright 2020 - 2026 Anton Tananaev (anton@traccar.org)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -49,6 +49,7 @@ public class ScheduleManager implements LifecycleObject {
                 TaskExpirations.class,
                 TaskDeleteTemporary.class,
                 TaskReports.class,
+                TaskDailySummaries.class,
                 TaskDeviceInactivityCheck.class,
                 TaskWebSocketKeepalive.class)
                 .forEachOrdered(taskClass -> {
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2026 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.schedule;
+
+import com.google.inject.Injector;
+import com.google.inject.servlet.RequestScoper;
+import com.google.inject.servlet.ServletScopes;
+import jakarta.inject.Inject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+import org.traccar.model.DailySummary;
+import org.traccar.model.Device;
+import org.traccar.reports.SummaryReportProvider;
+import org.traccar.reports.model.SummaryReportItem;
+import org.traccar.storage.Storage;
+import org.traccar.storage.StorageException;
+import org.traccar.storage.query.Columns;
+import org.traccar.storage.query.Condition;
+import org.traccar.storage.query.Request;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Builds missing daily summaries for closed days within the configured window. Rows removed because of late
+ * positions are rebuilt on the next run.
+ */
+public class TaskDailySummaries extends SingleScheduleTask {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TaskDailySummaries.class);
+
+    private static final long CHECK_PERIOD_MINUTES = 60;
+    private static final long DAY_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    private final Config config;
+    private final Storage storage;
+    private final Injector injector;
+
+    @Inject
+    public TaskDailySummaries(Config config, Storage storage, Injector injector) {
+        this.config = config;
+        this.storage = storage;
+        this.injector = injector;
+    }
+
+    @Override
+    public void schedule(ScheduledExecutorService executor) {
+        if (config.getBoolean(Keys.REPORT_ROLLUP_ENABLE)) {
+            executor.scheduleAtFixedRate(this, 1, CHECK_PERIOD_MINUTES, TimeUnit.MINUTES);
+        }
+    }
+
+    @Override
+    public void run() {
+        long delay = TimeUnit.SECONDS.toMillis(config.getLong(Keys.REPORT_ROLLUP_DELAY));
+        long currentDay = Math.floorDiv(System.currentTimeMillis() - delay, DAY_MILLIS) * DAY_MILLIS;
+        long firstDay = currentDay - config.getInteger(Keys.REPORT_ROLLUP_DAYS) * DAY_MILLIS;
+        RequestScoper scope = ServletScopes.scopeRequest(Collections.emptyMap());
+        try (RequestScoper.CloseableScope ignored = scope.open()) {
+            var summaryReportProvider = injector.getInstance(SummaryReportProvider.class);
+            for (Device device : storage.getObjects(Device.class, new Request(new Columns.All()))) {
+                Set<Long> existing = storage.getObjects(DailySummary.class, new Request(
+                        new Columns.Include("dayStart"),
+                        new Condition.And(
+                                new Condition.Equals("deviceId", device.getId()),
+                                new Condition.Between("dayStart", new Date(firstDay), new Date(currentDay)))))
+                        .stream()
+                        .map(summary -> summary.getDayStart().getTime())
+                        .collect(Collectors.toSet());
+                for (long day = firstDay; day < currentDay; day += DAY_MILLIS) {
+                    if (existing.contains(day)) {
+                        continue;
+                    }
+                    storage.addObject(
+                            calculateSummary(
+                                    summaryReportProvider, device, new Date(day), new Date(day + DAY_MILLIS - 1)),
+                            new Request(new Columns.Exclude("id")));
+                }
+            }
+        } catch (StorageException e) {
+            LOGGER.warn("Daily summaries error", e);
+        }
+    }
+
+    private DailySummary calculateSummary(
+            SummaryReportProvider summaryReportProvider, Device device, Date from, Date to) throws StorageException {
+        DailySummary summary = new DailySummary();
+        summary.setDeviceId(device.getId());
+        summary.setDayStart(from);
+
+        for (SummaryReportItem item : summaryReportProvider.calculateDeviceResult(device, from, to, false)) {
+            summary.setStartTime(item.getStartTime());
+            summary.setEndTime(item.getEndTime());
+            summary.setDistance(item.getDistance());
+            summary.setAverageSpeed(item.getAverageSpeed());
+            summary.setMaxSpeed(item.getMaxSpeed());
+            summary.setSpentFuel(item.getSpentFuel());
+            summary.setStartOdometer(item.getStartOdometer());
+            summary.setEndOdometer(item.getEndOdometer());
+            summary.setStartHours(item.getStartHours());
+            summary.setEndHours(item.getEndHours());
+        }
+
+        return summary;
+    }
+
+}
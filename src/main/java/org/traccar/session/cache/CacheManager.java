@@ -1,5 +1,5 @@
 /*
- * Copyright 2022 - 2025 Anton Tananaev (anton@traccar.org)
+ * Copyright 2022 - 2026 Anton Tananaev (anton@traccar.org)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -48,6 +48,7 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 @Singleton
@@ -67,6 +68,8 @@ public class CacheManager implements BroadcastInterface {
     private volatile Server server;
     private final Map<Long, Position> devicePositions = new ConcurrentHashMap<>();
     private final Map<Long, HashSet<Object>> deviceReferences = new ConcurrentHashMap<>();
+    private final Map<Long, ResolvedAttributes> deviceAttributes = new ConcurrentHashMap<>();
+    private final AtomicLong geofencesVersion = new AtomicLong();
 
     @Inject
     public CacheManager(Config config, Storage storage, BroadcastService broadcastService) throws StorageException {
@@ -103,6 +106,20 @@ public class CacheManager implements BroadcastInterface {
         return server;
     }
 
+    /**
+     * Resolved attribute values for a cached device or null if the device is not cached.
+     */
+    public ResolvedAttributes getResolvedAttributes(long deviceId) {
+        return deviceAttributes.get(deviceId);
+    }
+
+    /**
+     * Incremented after any cache change that can affect the set of geofences linked to a device.
+     */
+    public long getGeofencesVersion() {
+        return geofencesVersion.get();
+    }
+
     public Set<User> getNotificationUsers(long notificationId, long deviceId) {
         Set<User> deviceUsers = getDeviceObjects(deviceId, User.class);
         return graph.getObjects(Notification.class, notificationId, User.class, Set.of(), false)
@@ -126,6 +143,8 @@ public class CacheManager implements BroadcastInterface {
                     new Columns.All(), new Condition.Equals("id", deviceId)));
             graph.addObject(device);
             initializeCache(device);
+            geofencesVersion.incrementAndGet();
+            deviceAttributes.put(deviceId, new ResolvedAttributes());
             if (device.getPositionId() > 0) {
                 devicePositions.put(deviceId, storage.getObject(Position.class, new Request(
                         new Columns.All(), new Condition.Equals("id", device.getPositionId()))));
@@ -142,6 +161,7 @@ public class CacheManager implements BroadcastInterface {
             graph.removeObject(Device.class, deviceId);
             devicePositions.remove(deviceId);
             deviceReferences.remove(deviceId);
+            deviceAttributes.remove(deviceId);
         }
         LOGGER.debug("Cache remove device {} references {} key {}", deviceId, references.size(), key);
     }
@@ -161,54 +181,83 @@ public class CacheManager implements BroadcastInterface {
         }
 
         synchronized (this) {
-            if (operation == ObjectOperation.DELETE) {
-                graph.removeObject(clazz, id);
-            }
-            if (operation != ObjectOperation.UPDATE) {
-                return;
+            try {
+                updateObject(clazz, id, operation);
+            } finally {
+                if (clazz.equals(Geofence.class) || clazz.equals(Group.class) || clazz.equals(Device.class)) {
+                    geofencesVersion.incrementAndGet();
+                }
             }
+        }
+    }
 
-            if (clazz.equals(Server.class)) {
-                server = storage.getObject(Server.class, new Request(new Columns.All()));
-                return;
+    private <T extends BaseModel> void updateObject(
+            Class<T> clazz, long id, ObjectOperation operation) throws Exception {
+        if (operation == ObjectOperation.DELETE) {
+            graph.removeObject(clazz, id);
+            if (clazz.equals(Group.class)) {
+                invalidateAttributes(0);
             }
+        }
+        if (operation != ObjectOperation.UPDATE) {
+            return;
+        }
 
-            var after = storage.getObject(clazz, new Request(
-                    new Columns.All(), new Condition.Equals("id", id)));
-            if (after == null) {
-                return;
-            }
-            var before = getObject(after.getClass(), after.getId());
-            if (before == null) {
-                return;
-            }
+        if (clazz.equals(Server.class)) {
+            server = storage.getObject(Server.class, new Request(new Columns.All()));
+            invalidateAttributes(0);
+            return;
+        }
 
-            if (after instanceof GroupedModel) {
-                long beforeGroupId = ((GroupedModel) before).getGroupId();
-                long afterGroupId = ((GroupedModel) after).getGroupId();
-                if (beforeGroupId != afterGroupId) {
-                    if (beforeGroupId > 0) {
-                        invalidatePermission(clazz, id, Group.class, beforeGroupId, false);
-                    }
-                    if (afterGroupId > 0) {
-                        invalidatePermission(clazz, id, Group.class, afterGroupId, true);
-                    }
+        var after = storage.getObject(clazz, new Request(
+                new Columns.All(), new Condition.Equals("id", id)));
+        if (after == null) {
+            return;
+        }
+        var before = getObject(after.getClass(), after.getId());
+        if (before == null) {
+            return;
+        }
+
+        if (after instanceof GroupedModel) {
+            long beforeGroupId = ((GroupedModel) before).getGroupId();
+            long afterGroupId = ((GroupedModel) after).getGroupId();
+            if (beforeGroupId != afterGroupId) {
+                if (beforeGroupId > 0) {
+                    invalidatePermission(clazz, id, Group.class, beforeGroupId, false);
                 }
-            } else if (after instanceof Schedulable) {
-                long beforeCalendarId = ((Schedulable) before).getCalendarId();
-                long afterCalendarId = ((Schedulable) after).getCalendarId();
-                if (beforeCalendarId != afterCalendarId) {
-                    if (beforeCalendarId > 0) {
-                        invalidatePermission(clazz, id, Calendar.class, beforeCalendarId, false);
-                    }
-                    if (afterCalendarId > 0) {
-                        invalidatePermission(clazz, id, Calendar.class, afterCalendarId, true);
-                    }
+                if (afterGroupId > 0) {
+                    invalidatePermission(clazz, id, Group.class, afterGroupId, true);
                 }
-                // TODO handle notification always change
             }
+        } else if (after instanceof Schedulable) {
+            long beforeCalendarId = ((Schedulable) before).getCalendarId();
+            long afterCalendarId = ((Schedulable) after).getCalendarId();
+            if (beforeCalendarId != afterCalendarId) {
+                if (beforeCalendarId > 0) {
+                    invalidatePermission(clazz, id, Calendar.class, beforeCalendarId, false);
+                }
+                if (afterCalendarId > 0) {
+                    invalidatePermission(clazz, id, Calendar.class, afterCalendarId, true);
+                }
+            }
+            // TODO handle notification always change
+        }
+
+        graph.updateObject(after);
+
+        if (clazz.equals(Device.class)) {
+            invalidateAttributes(id);
+        } else if (clazz.equals(Group.class)) {
+            invalidateAttributes(0);
+        }
+    }
 
-            graph.updateObject(after);
+    private void invalidateAttributes(long deviceId) {
+        if (deviceId > 0) {
+            deviceAttributes.computeIfPresent(deviceId, (key, value) -> new ResolvedAttributes());
+        } else {
+            deviceAttributes.replaceAll((key, value) -> new ResolvedAttributes());
         }
     }
 
@@ -225,6 +274,10 @@ public class CacheManager implements BroadcastInterface {
             } else {
                 invalidatePermission(clazz1, id1, clazz2, id2, link);
             }
+            if (clazz1.equals(Geofence.class) || clazz2.equals(Geofence.class)
+                    || clazz1.equals(Group.class) || clazz2.equals(Group.class)) {
+                geofencesVersion.incrementAndGet();
+            }
         }
     }
 
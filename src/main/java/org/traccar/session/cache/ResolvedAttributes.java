@@ -0,0 +1,56 @@
+/*
+ * Copyright 2026 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.session.cache;
+
+import org.traccar.config.ConfigKey;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * Typed attribute values resolved for a single device, indexed by {@link ConfigKey#getIndex()}.
+ */
+public class ResolvedAttributes {
+
+    private static final Object NULL = new Object();
+
+    private volatile Object[] values = new Object[ConfigKey.getIndexCount() + 16];
+
+    @SuppressWarnings("unchecked")
+    public <T> T computeIfAbsent(ConfigKey<T> key, Supplier<T> resolver) {
+        int index = key.getIndex();
+        Object[] current = values;
+        if (index < current.length) {
+            Object value = current[index];
+            if (value != null) {
+                return value == NULL ? null : (T) value;
+            }
+        }
+        T result = resolver.get();
+        if (index >= current.length) {
+            synchronized (this) {
+                current = values;
+                if (index >= current.length) {
+                    current = Arrays.copyOf(current, Math.max(index + 1, current.length * 2));
+                    values = current;
+                }
+            }
+        }
+        current[index] = result != null ? result : NULL;
+        return result;
+    }
+
+}
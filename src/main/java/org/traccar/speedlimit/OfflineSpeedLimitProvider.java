@@ -0,0 +1,173 @@
+/*
+ * Copyright 2026 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.speedlimit;
+
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Speed limit provider backed by ways with maxspeed tags from a local OSM XML extract.
+ */
+public class OfflineSpeedLimitProvider implements SpeedLimitProvider {
+
+    private record Way(long[] nodes, double speedLimit) {
+    }
+
+    private final int accuracy;
+    private final SpeedLimitIndex index = new SpeedLimitIndex();
+
+    public OfflineSpeedLimitProvider(Config config, String file) throws IOException {
+        accuracy = config.getInteger(Keys.SPEED_LIMIT_ACCURACY);
+        Path path = Path.of(file);
+        try {
+            List<Way> ways = new ArrayList<>();
+            Map<Long, double[]> nodes = new HashMap<>();
+            try (InputStream inputStream = open(path)) {
+                readWays(inputStream, ways, nodes);
+            }
+            try (InputStream inputStream = open(path)) {
+                readNodes(inputStream, nodes);
+            }
+            for (Way way : ways) {
+                addWay(way, nodes);
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        }
+        index.build();
+    }
+
+    private static InputStream open(Path path) throws IOException {
+        InputStream inputStream = new BufferedInputStream(Files.newInputStream(path));
+        if (path.toString().endsWith(".gz")) {
+            inputStream = new GZIPInputStream(inputStream);
+        }
+        return inputStream;
+    }
+
+    private static XMLStreamReader createReader(InputStream inputStream) throws XMLStreamException {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory.createXMLStreamReader(inputStream);
+    }
+
+    private static void readWays(
+            InputStream inputStream, List<Way> ways, Map<Long, double[]> nodes) throws XMLStreamException {
+        XMLStreamReader reader = createReader(inputStream);
+        List<Long> wayNodes = new ArrayList<>();
+        String maxSpeed = null;
+        boolean inWay = false;
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                switch (reader.getLocalName()) {
+                    case "way" -> {
+                        inWay = true;
+                        wayNodes.clear();
+                        maxSpeed = null;
+                    }
+                    case "nd" -> {
+                        if (inWay) {
+                            wayNodes.add(Long.parseLong(reader.getAttributeValue(null, "ref")));
+                        }
+                    }
+                    case "tag" -> {
+                        if (inWay && "maxspeed".equals(reader.getAttributeValue(null, "k"))) {
+                            maxSpeed = reader.getAttributeValue(null, "v");
+                        }
+                    }
+                    default -> {
+                    }
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT && reader.getLocalName().equals("way")) {
+                inWay = false;
+                Double speedLimit = maxSpeed != null ? SpeedLimitIndex.parseSpeed(maxSpeed) : null;
+                if (speedLimit != null && wayNodes.size() > 1) {
+                    long[] refs = wayNodes.stream().mapToLong(Long::longValue).toArray();
+                    for (long ref : refs) {
+                        nodes.put(ref, null);
+                    }
+                    ways.add(new Way(refs, speedLimit));
+                }
+            }
+        }
+        reader.close();
+    }
+
+    private static void readNodes(InputStream inputStream, Map<Long, double[]> nodes) throws XMLStreamException {
+        XMLStreamReader reader = createReader(inputStream);
+        while (reader.hasNext()) {
+            if (reader.next() == XMLStreamConstants.START_ELEMENT && reader.getLocalName().equals("node")) {
+                long id = Long.parseLong(reader.getAttributeValue(null, "id"));
+                if (nodes.containsKey(id)) {
+                    nodes.put(id, new double[] {
+                            Double.parseDouble(reader.getAttributeValue(null, "lat")),
+                            Double.parseDouble(reader.getAttributeValue(null, "lon"))});
+                }
+            }
+        }
+        reader.close();
+    }
+
+    private void addWay(Way way, Map<Long, double[]> nodes) {
+        double[] latitudes = new double[way.nodes().length];
+        double[] longitudes = new double[way.nodes().length];
+        int count = 0;
+        for (long ref : way.nodes()) {
+            double[] node = nodes.get(ref);
+            if (node != null) {
+                latitudes[count] = node[0];
+                longitudes[count] = node[1];
+                count += 1;
+            }
+        }
+        if (count > 1) {
+            if (count < latitudes.length) {
+                latitudes = Arrays.copyOf(latitudes, count);
+                longitudes = Arrays.copyOf(longitudes, count);
+            }
+            index.addWay(latitudes, longitudes, way.speedLimit());
+        }
+    }
+
+    @Override
+    public void getSpeedLimit(double latitude, double longitude, SpeedLimitProviderCallback callback) {
+        Double speedLimit = index.getSpeedLimit(latitude, longitude, accuracy);
+        if (speedLimit != null) {
+            callback.onSuccess(speedLimit);
+        } else {
+            callback.onFailure(new SpeedLimitException("Not found"));
+        }
+    }
+
+}
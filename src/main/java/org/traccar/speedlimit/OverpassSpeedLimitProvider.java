@@ -1,5 +1,5 @@
 /*
- * Copyright 2020 - 2023 Anton Tananaev (anton@traccar.org)
+ * Copyright 2020 - 2026 Anton Tananaev (anton@traccar.org)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,7 +17,6 @@ package org.traccar.speedlimit;
 
 import org.traccar.config.Config;
 import org.traccar.config.Keys;
-import org.traccar.helper.UnitsConverter;
 
 import jakarta.json.JsonArray;
 import jakarta.json.JsonObject;
@@ -25,31 +24,144 @@ import jakarta.ws.rs.client.AsyncInvoker;
 import jakarta.ws.rs.client.Client;
 import jakarta.ws.rs.client.InvocationCallback;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
 public class OverpassSpeedLimitProvider implements SpeedLimitProvider {
 
+    private static final double METERS_PER_DEGREE = 111320;
+
     private final Client client;
     private final String url;
+    private final String tileUrl;
+    private final int accuracy;
+
+    private final double tileStep;
+    private final Map<Long, SpeedLimitIndex> tiles;
+    private final Map<Long, CompletableFuture<SpeedLimitIndex>> pending = new ConcurrentHashMap<>();
 
     public OverpassSpeedLimitProvider(Config config, Client client, String url) {
-        int accuracy = config.getInteger(Keys.SPEED_LIMIT_ACCURACY);
+        accuracy = config.getInteger(Keys.SPEED_LIMIT_ACCURACY);
         this.client = client;
         this.url = url + "?data=[out:json];way[maxspeed](around:" + accuracy + ",%f,%f);out%%20tags;";
+        tileUrl = url + "?data=[out:json];way[maxspeed](%f,%f,%f,%f);out%%20tags%%20geom;";
+
+        int cacheSize = config.getInteger(Keys.SPEED_LIMIT_CACHE_SIZE);
+        tileStep = config.getInteger(Keys.SPEED_LIMIT_TILE_SIZE) / METERS_PER_DEGREE;
+        if (cacheSize > 0 && tileStep > 0) {
+            tiles = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry eldest) {
+                    return size() > cacheSize;
+                }
+            });
+        } else {
+            tiles = null;
+        }
+    }
+
+    private double getLongitudeStep(long row) {
+        return tileStep / Math.max(Math.cos(Math.toRadians((row + 0.5) * tileStep)), 0.01);
     }
 
-    private Double parseSpeed(String value) {
-        if (value.endsWith(" mph")) {
-            return UnitsConverter.knotsFromMph(Double.parseDouble(value.substring(0, value.length() - 4)));
-        } else if (value.endsWith(" knots")) {
-            return Double.parseDouble(value.substring(0, value.length() - 6));
-        } else if (value.matches("\\d+")) {
-            return UnitsConverter.knotsFromKph(Double.parseDouble(value));
+    private SpeedLimitIndex parseTile(JsonObject json) {
+        SpeedLimitIndex index = new SpeedLimitIndex();
+        for (JsonObject element : json.getJsonArray("elements").getValuesAs(JsonObject.class)) {
+            JsonObject tags = element.getJsonObject("tags");
+            JsonArray geometry = element.getJsonArray("geometry");
+            if (tags == null || geometry == null || !tags.containsKey("maxspeed")) {
+                continue;
+            }
+            Double speedLimit = SpeedLimitIndex.parseSpeed(tags.getString("maxspeed"));
+            if (speedLimit != null) {
+                double[] latitudes = new double[geometry.size()];
+                double[] longitudes = new double[geometry.size()];
+                for (int i = 0; i < geometry.size(); i++) {
+                    JsonObject point = geometry.getJsonObject(i);
+                    latitudes[i] = point.getJsonNumber("lat").doubleValue();
+                    longitudes[i] = point.getJsonNumber("lon").doubleValue();
+                }
+                index.addWay(latitudes, longitudes, speedLimit);
+            }
+        }
+        index.build();
+        return index;
+    }
+
+    private void requestTile(long key, long row, long column, CompletableFuture<SpeedLimitIndex> future) {
+        double longitudeStep = getLongitudeStep(row);
+        double latitudeMargin = accuracy / METERS_PER_DEGREE;
+        double longitudeMargin = latitudeMargin * longitudeStep / tileStep;
+        String formattedUrl = String.format(Locale.US, tileUrl,
+                row * tileStep - latitudeMargin, column * longitudeStep - longitudeMargin,
+                (row + 1) * tileStep + latitudeMargin, (column + 1) * longitudeStep + longitudeMargin);
+        client.target(formattedUrl).request().async().get(new InvocationCallback<JsonObject>() {
+            @Override
+            public void completed(JsonObject json) {
+                try {
+                    SpeedLimitIndex index = parseTile(json);
+                    tiles.put(key, index);
+                    pending.remove(key);
+                    future.complete(index);
+                } catch (RuntimeException e) {
+                    failed(e);
+                }
+            }
+
+            @Override
+            public void failed(Throwable throwable) {
+                pending.remove(key);
+                future.completeExceptionally(throwable);
+            }
+        });
+    }
+
+    private void getCachedSpeedLimit(double latitude, double longitude, SpeedLimitProviderCallback callback) {
+        long row = (long) Math.floor(latitude / tileStep);
+        long column = (long) Math.floor(longitude / getLongitudeStep(row));
+        long key = (row << 32) | (column & 0xffffffffL);
+
+        SpeedLimitIndex index = tiles.get(key);
+        if (index == null) {
+            CompletableFuture<SpeedLimitIndex> future = new CompletableFuture<>();
+            CompletableFuture<SpeedLimitIndex> existing = pending.putIfAbsent(key, future);
+            if (existing == null) {
+                requestTile(key, row, column, future);
+            } else {
+                future = existing;
+            }
+            future.whenComplete((result, error) -> {
+                if (error != null) {
+                    callback.onFailure(error);
+                } else {
+                    completeSpeedLimit(result, latitude, longitude, callback);
+                }
+            });
+        } else {
+            completeSpeedLimit(index, latitude, longitude, callback);
+        }
+    }
+
+    private void completeSpeedLimit(
+            SpeedLimitIndex index, double latitude, double longitude, SpeedLimitProviderCallback callback) {
+        Double speedLimit = index.getSpeedLimit(latitude, longitude, accuracy);
+        if (speedLimit != null) {
+            callback.onSuccess(speedLimit);
         } else {
-            return null;
+            callback.onFailure(new SpeedLimitException("Not found"));
         }
     }
 
     @Override
     public void getSpeedLimit(double latitude, double longitude, SpeedLimitProviderCallback callback) {
+        if (tiles != null) {
+            getCachedSpeedLimit(latitude, longitude, callback);
+            return;
+        }
         String formattedUrl = String.format(url, latitude, longitude);
         AsyncInvoker invoker = client.target(formattedUrl).request().async();
         invoker.get(new InvocationCallback<JsonObject>() {
@@ -57,7 +169,7 @@ public class OverpassSpeedLimitProvider implements SpeedLimitProvider {
             public void completed(JsonObject json) {
                 JsonArray elements = json.getJsonArray("elements");
                 if (!elements.isEmpty()) {
-                    Double maxSpeed = parseSpeed(
+                    Double maxSpeed = SpeedLimitIndex.parseSpeed(
                             elements.getJsonObject(0).getJsonObject("tags").getString("maxspeed"));
                     if (maxSpeed != null) {
                         callback.onSuccess(maxSpeed);
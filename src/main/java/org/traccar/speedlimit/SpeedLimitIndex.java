@@ -0,0 +1,95 @@
+/*
+ * Copyright 2026 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.speedlimit;
+
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.index.strtree.STRtree;
+import org.traccar.helper.DistanceCalculator;
+import org.traccar.helper.UnitsConverter;
+
+/**
+ * Spatial index of road segments with speed limits. Ways are added first and the index is read-only after
+ * {@link #build()}.
+ */
+public class SpeedLimitIndex {
+
+    private static final double METERS_PER_DEGREE = 111320;
+
+    private record Segment(double lat1, double lon1, double lat2, double lon2, double speedLimit) {
+    }
+
+    private final STRtree tree = new STRtree();
+    private int size;
+
+    public static Double parseSpeed(String value) {
+        if (value.endsWith(" mph")) {
+            return UnitsConverter.knotsFromMph(Double.parseDouble(value.substring(0, value.length() - 4)));
+        } else if (value.endsWith(" knots")) {
+            return Double.parseDouble(value.substring(0, value.length() - 6));
+        } else if (value.matches("\\d+")) {
+            return UnitsConverter.knotsFromKph(Double.parseDouble(value));
+        } else {
+            return null;
+        }
+    }
+
+    public void addWay(double[] latitudes, double[] longitudes, double speedLimit) {
+        for (int i = 1; i < latitudes.length; i++) {
+            Segment segment = new Segment(
+                    latitudes[i - 1], longitudes[i - 1], latitudes[i], longitudes[i], speedLimit);
+            tree.insert(new Envelope(segment.lon1(), segment.lon2(), segment.lat1(), segment.lat2()), segment);
+            size += 1;
+        }
+    }
+
+    public void build() {
+        if (size > 0) {
+            tree.build();
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Speed limit of the closest segment within the accuracy radius in meters or null if there is no such segment.
+     */
+    public Double getSpeedLimit(double latitude, double longitude, double accuracy) {
+        if (size == 0) {
+            return null;
+        }
+        double latitudeDelta = accuracy / METERS_PER_DEGREE;
+        double longitudeDelta = latitudeDelta / Math.max(Math.cos(Math.toRadians(latitude)), 0.01);
+        Envelope envelope = new Envelope(
+                longitude - longitudeDelta, longitude + longitudeDelta,
+                latitude - latitudeDelta, latitude + latitudeDelta);
+
+        Double result = null;
+        double best = accuracy;
+        for (Object item : tree.query(envelope)) {
+            Segment segment = (Segment) item;
+            double distance = DistanceCalculator.distanceToLine(
+                    latitude, longitude, segment.lat1(), segment.lon1(), segment.lat2(), segment.lon2());
+            if (distance <= best) {
+                best = distance;
+                result = segment.speedLimit();
+            }
+        }
+        return result;
+    }
+
+}
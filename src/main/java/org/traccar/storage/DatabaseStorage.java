@@ -1,5 +1,5 @@
 /*
- * Copyright 2022 - 2025 Anton Tananaev (anton@traccar.org)
+ * Copyright 2022 - 2026 Anton Tananaev (anton@traccar.org)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -31,6 +31,7 @@ import jakarta.inject.Inject;
 import javax.sql.DataSource;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.function.Function;
@@ -66,9 +67,22 @@ public class DatabaseStorage extends Storage {
 
     @Override
     public <T> Stream<T> getObjectsStream(Class<T> clazz, Request request) throws StorageException {
+        return getObjectsStream(clazz, request, false);
+    }
+
+    @Override
+    public <T> Stream<T> getObjectsCursor(Class<T> clazz, Request request) throws StorageException {
+        return getObjectsStream(clazz, request, true);
+    }
+
+    private <T> Stream<T> getObjectsStream(
+            Class<T> clazz, Request request, boolean cursor) throws StorageException {
         StringBuilder query = new StringBuilder("SELECT ");
         if (request.getColumns() instanceof Columns.All) {
             query.append('*');
+        } else if (request.getColumns() instanceof Columns.Aggregate aggregate) {
+            query.append(formatColumns(
+                    aggregate.getColumns(clazz, "set"), c -> aggregate.getFunction() + "(" + c + ") AS " + c));
         } else {
             query.append(formatColumns(request.getColumns().getColumns(clazz, "set"), c -> c));
         }
@@ -81,7 +95,7 @@ public class DatabaseStorage extends Storage {
             for (int index = 0; index < values.size(); index++) {
                 builder.setValue(index, values.get(index));
             }
-            return builder.executeQueryStreamed(clazz);
+            return builder.executeQueryStreamed(clazz, cursor);
         } catch (SQLException e) {
             throw new StorageException(e);
         }
@@ -223,6 +237,8 @@ public class DatabaseStorage extends Storage {
         } else if (genericCondition instanceof Condition.Between condition) {
             results.add(condition.getFromValue());
             results.add(condition.getToValue());
+        } else if (genericCondition instanceof Condition.In condition) {
+            results.addAll(condition.getValues());
         } else if (genericCondition instanceof Condition.Binary condition) {
             results.addAll(getConditionVariables(condition.getFirst()));
             results.addAll(getConditionVariables(condition.getSecond()));
@@ -266,6 +282,17 @@ public class DatabaseStorage extends Storage {
                 result.append(condition.getColumn());
                 result.append(" BETWEEN ? AND ?");
 
+            } else if (genericCondition instanceof Condition.In condition) {
+
+                if (condition.getValues().isEmpty()) {
+                    result.append("1 = 0");
+                } else {
+                    result.append(condition.getColumn());
+                    result.append(" IN (");
+                    result.append(String.join(", ", Collections.nCopies(condition.getValues().size(), "?")));
+                    result.append(")");
+                }
+
             } else if (genericCondition instanceof Condition.Binary condition) {
 
                 result.append(formatCondition(condition.getFirst(), false));
@@ -1,5 +1,5 @@
 /*
- * Copyright 2022 - 2025 Anton Tananaev (anton@traccar.org)
+ * Copyright 2022 - 2026 Anton Tananaev (anton@traccar.org)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -87,6 +87,10 @@ public class MemoryStorage extends Storage {
             int toResult = ((Comparable) toValue).compareTo(condition.getToValue());
             return fromResult >= 0 && toResult <= 0;
 
+        } else if (genericCondition instanceof Condition.In condition) {
+
+            return condition.getValues().contains(retrieveValue(object, condition.getColumn()));
+
         } else if (genericCondition instanceof Condition.Binary condition) {
 
             if (condition.getOperator().equals("AND")) {
@@ -1,5 +1,5 @@
 /*
- * Copyright 2015 - 2025 Anton Tananaev (anton@traccar.org)
+ * Copyright 2015 - 2026 Anton Tananaev (anton@traccar.org)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -58,6 +58,7 @@ public final class QueryBuilder {
     private PreparedStatement statement;
     private final String query;
     private final boolean returnGeneratedKeys;
+    private boolean autoCommitDisabled;
 
     private QueryBuilder(
             Config config, DataSource dataSource, ObjectMapper objectMapper,
@@ -253,12 +254,20 @@ public final class QueryBuilder {
     }
 
     public <T> List<T> executeQuery(Class<T> clazz) throws SQLException {
-        try (var stream = executeQueryStreamed(clazz)) {
+        try (var stream = executeQueryStreamed(clazz, false)) {
             return stream.toList();
         }
     }
 
     public <T> Stream<T> executeQueryStreamed(Class<T> clazz) throws SQLException {
+        return executeQueryStreamed(clazz, false);
+    }
+
+    /**
+     * With cursor enabled, rows are fetched in chunks of the configured fetch size. On PostgreSQL this requires
+     * disabling autocommit for the lifetime of the stream.
+     */
+    public <T> Stream<T> executeQueryStreamed(Class<T> clazz, boolean cursor) throws SQLException {
         if (query == null) {
             return Stream.empty();
         }
@@ -266,6 +275,17 @@ public final class QueryBuilder {
         try {
             logQuery();
 
+            int fetchSize = config.getInteger(Keys.DATABASE_FETCH_SIZE);
+            if (cursor && fetchSize > 0) {
+                statement.setFetchSize(fetchSize);
+                if ("org.postgresql.Driver".equals(config.getString(Keys.DATABASE_DRIVER))
+                        && connection.getAutoCommit()) {
+                    // PostgreSQL only uses a cursor for fetching inside a transaction
+                    connection.setAutoCommit(false);
+                    autoCommitDisabled = true;
+                }
+            }
+
             resultSet = statement.executeQuery();
             ResultSetMetaData resultMetaData = resultSet.getMetaData();
 
@@ -323,6 +343,10 @@ public final class QueryBuilder {
                 resultSet.close();
             }
             statement.close();
+            if (autoCommitDisabled) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
             connection.close();
         } catch (SQLException e) {
             throw new RuntimeException(e);
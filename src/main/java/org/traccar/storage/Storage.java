@@ -1,5 +1,5 @@
 /*
- * Copyright 2022 - 2025 Anton Tananaev (anton@traccar.org)
+ * Copyright 2022 - 2026 Anton Tananaev (anton@traccar.org)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -48,6 +48,14 @@ public abstract class Storage {
         return getPermissions(ownerClass, 0, propertyClass, 0);
     }
 
+    /**
+     * Same as {@link #getObjectsStream} but lets the database fetch rows in chunks through a cursor. Meant for large
+     * sequential reads such as exports. The stream must be closed.
+     */
+    public <T> Stream<T> getObjectsCursor(Class<T> clazz, Request request) throws StorageException {
+        return getObjectsStream(clazz, request);
+    }
+
     public <T> T getObject(Class<T> clazz, Request request) throws StorageException {
         try (var objects = getObjectsStream(clazz, request)) {
             return objects.findFirst().orElse(null);
@@ -1,5 +1,5 @@
 /*
- * Copyright 2022 - 2025 Anton Tananaev (anton@traccar.org)
+ * Copyright 2022 - 2026 Anton Tananaev (anton@traccar.org)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -69,4 +69,27 @@ public abstract class Columns {
         }
     }
 
+    /**
+     * Applies an SQL aggregate function, like MIN, MAX or AVG, to each column. Results keep the column names, so they
+     * are mapped to the same model properties.
+     */
+    public static class Aggregate extends Columns {
+        private final String function;
+        private final List<String> columns;
+
+        public Aggregate(String function, String... columns) {
+            this.function = function;
+            this.columns = List.of(columns);
+        }
+
+        public String getFunction() {
+            return function;
+        }
+
+        @Override
+        public List<String> getColumns(Class<?> clazz, String type) {
+            return columns;
+        }
+    }
+
 }
@@ -52,6 +52,16 @@ public class CalendarTest {
         assertTrue(calendar.checkMoment(format.parse("2016-12-13 06:59:59+05")));
         assertFalse(calendar.checkMoment(format.parse("2016-12-13 07:00:01+05")));
 
+        assertTrue(calendar.checkMoment(format.parse("2017-06-01 02:00:00+05")));
+        assertFalse(calendar.checkMoment(format.parse("2017-06-01 12:00:00+05")));
+        assertFalse(calendar.checkMoment(format.parse("2016-11-30 22:00:00+05")));
+        assertTrue(calendar.checkMoment(format.parse("2016-12-01 06:00:00+05")));
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(calendar.checkMoment(format.parse("2016-12-13 23:00:01+05")));
+            assertFalse(calendar.checkMoment(format.parse("2017-06-01 12:00:00+05")));
+        }
+
         var periods = calendar.findPeriods(format.parse("2016-12-13 06:59:59+05"));
         assertFalse(periods.isEmpty());
     }
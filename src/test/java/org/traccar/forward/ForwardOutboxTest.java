@@ -0,0 +1,120 @@
+package org.traccar.forward;
+
+import io.netty.util.Timer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class ForwardOutboxTest {
+
+    private record Delivery(String data, ResultHandler resultHandler) {
+    }
+
+    private static ForwardOutbox createOutbox(Path directory, List<Delivery> deliveries) throws Exception {
+        Config config = new Config();
+        config.setString(Keys.FORWARD_OUTBOX_DIRECTORY, directory.toString());
+        config.setString(Keys.FORWARD_OUTBOX_SEGMENT_SIZE, "64");
+        config.setString(Keys.FORWARD_OUTBOX_IN_FLIGHT, "2");
+        config.setString(Keys.FORWARD_OUTBOX_RETRY_COUNT, "1");
+        return new ForwardOutbox(config, "test", mock(Timer.class), Runnable::run, (data, resultHandler) ->
+                deliveries.add(new Delivery(new String(data, StandardCharsets.US_ASCII), resultHandler)));
+    }
+
+    @Test
+    public void testReplay(@TempDir Path directory) throws Exception {
+
+        List<Delivery> deliveries = new ArrayList<>();
+        ForwardOutbox outbox = createOutbox(directory, deliveries);
+
+        for (int i = 1; i <= 3; i++) {
+            outbox.append(("record-" + i).repeat(2).getBytes(StandardCharsets.US_ASCII));
+        }
+        assertEquals(2, deliveries.size());
+
+        deliveries.get(0).resultHandler().onResult(true, null);
+        assertEquals(3, deliveries.size());
+        assertEquals("record-3record-3", deliveries.get(2).data());
+
+        outbox.close();
+
+        deliveries.clear();
+        ForwardOutbox reopened = createOutbox(directory, deliveries);
+        reopened.deliver();
+        assertEquals(2, deliveries.size());
+        assertEquals("record-2record-2", deliveries.get(0).data());
+        assertEquals("record-3record-3", deliveries.get(1).data());
+
+    }
+
+    @Test
+    public void testDeadLetter(@TempDir Path directory) throws Exception {
+
+        List<Delivery> deliveries = new ArrayList<>();
+        ForwardOutbox outbox = createOutbox(directory, deliveries);
+
+        outbox.append("first".getBytes(StandardCharsets.US_ASCII));
+        outbox.append("second".getBytes(StandardCharsets.US_ASCII));
+        assertEquals(2, deliveries.size());
+
+        deliveries.get(0).resultHandler().onResult(false, new IOException());
+        deliveries.get(0).resultHandler().onResult(false, new IOException());
+        deliveries.get(1).resultHandler().onResult(true, null);
+
+        Path deadLetter = directory.resolve("test").resolve("dead.log");
+        assertTrue(Files.exists(deadLetter));
+        assertEquals(8 + "first".length(), Files.size(deadLetter));
+
+        outbox.close();
+        assertFalse(Files.exists(directory.resolve("test").resolve("cursor.tmp")));
+
+        deliveries.clear();
+        createOutbox(directory, deliveries).deliver();
+        assertTrue(deliveries.isEmpty());
+
+    }
+
+    @Test
+    public void testSynchronousDrain(@TempDir Path directory) throws Exception {
+
+        Config config = new Config();
+        config.setString(Keys.FORWARD_OUTBOX_DIRECTORY, directory.toString());
+        config.setString(Keys.FORWARD_OUTBOX_SEGMENT_SIZE, "65536");
+        config.setString(Keys.FORWARD_OUTBOX_MAX_SIZE, "16777216");
+        config.setString(Keys.FORWARD_OUTBOX_IN_FLIGHT, "1");
+
+        ForwardOutbox outbox = new ForwardOutbox(
+                config, "test", mock(Timer.class), Runnable::run, (data, resultHandler) -> {
+                });
+        int count = 20000;
+        for (int i = 0; i < count; i++) {
+            outbox.append(("record-" + i).getBytes(StandardCharsets.US_ASCII));
+        }
+        outbox.close();
+
+        List<String> delivered = new ArrayList<>();
+        ForwardOutbox reopened = new ForwardOutbox(
+                config, "test", mock(Timer.class), Runnable::run, (data, resultHandler) -> {
+                    delivered.add(new String(data, StandardCharsets.US_ASCII));
+                    resultHandler.onResult(true, null);
+                });
+        reopened.deliver();
+
+        assertEquals(count, delivered.size());
+        assertEquals("record-" + (count - 1), delivered.get(count - 1));
+
+    }
+
+}
@@ -0,0 +1,67 @@
+package org.traccar.forward;
+
+import io.netty.util.Timeout;
+import io.netty.util.Timer;
+import io.netty.util.TimerTask;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PositionBatcherTest {
+
+    private record Batch(String key, List<PositionData> positions, ResultHandler resultHandler) {
+    }
+
+    @Test
+    public void testBatch() throws Exception {
+
+        var timer = mock(Timer.class);
+        var timeout = mock(Timeout.class);
+        when(timer.newTimeout(any(), anyLong(), any())).thenReturn(timeout);
+
+        List<Batch> batches = new ArrayList<>();
+        var batcher = new PositionBatcher(timer, 2, 1000, (key, positions, resultHandler) ->
+                batches.add(new Batch(key, List.copyOf(positions), resultHandler)));
+
+        var first = mock(ResultHandler.class);
+        var second = mock(ResultHandler.class);
+        var other = mock(ResultHandler.class);
+
+        batcher.add("a", new PositionData(), first);
+        batcher.add("b", new PositionData(), other);
+        assertTrue(batches.isEmpty());
+
+        batcher.add("a", new PositionData(), second);
+        assertEquals(1, batches.size());
+        assertEquals("a", batches.get(0).key());
+        assertEquals(2, batches.get(0).positions().size());
+        verify(timeout).cancel();
+
+        batches.get(0).resultHandler().onResult(true, null);
+        verify(first).onResult(eq(true), any());
+        verify(second).onResult(eq(true), any());
+
+        var task = ArgumentCaptor.forClass(TimerTask.class);
+        verify(timer, times(2)).newTimeout(task.capture(), anyLong(), any());
+        task.getAllValues().get(1).run(timeout);
+        assertEquals(2, batches.size());
+        assertEquals("b", batches.get(1).key());
+
+        task.getAllValues().get(0).run(timeout);
+        assertEquals(2, batches.size());
+
+    }
+
+}
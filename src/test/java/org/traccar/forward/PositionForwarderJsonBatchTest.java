@@ -0,0 +1,81 @@
+package org.traccar.forward;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.util.Timer;
+import jakarta.ws.rs.client.AsyncInvoker;
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.client.Entity;
+import jakarta.ws.rs.client.Invocation;
+import jakarta.ws.rs.client.InvocationCallback;
+import jakarta.ws.rs.client.WebTarget;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.traccar.ProtocolTest;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+import org.traccar.model.Device;
+import org.traccar.session.cache.CacheManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PositionForwarderJsonBatchTest extends ProtocolTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testBatch() throws Exception {
+
+        Config config = new Config();
+        config.setString(Keys.FORWARD_URL, "http://localhost/");
+        config.setString(Keys.FORWARD_BATCH_SIZE, "2");
+
+        var device = new Device();
+        device.setId(1);
+
+        var cacheManager = mock(CacheManager.class);
+        when(cacheManager.getConfig()).thenReturn(config);
+        when(cacheManager.getObject(Device.class, 1L)).thenReturn(device);
+
+        var asyncInvoker = mock(AsyncInvoker.class);
+        var builder = mock(Invocation.Builder.class);
+        when(builder.async()).thenReturn(asyncInvoker);
+        var target = mock(WebTarget.class);
+        when(target.request()).thenReturn(builder);
+        var client = mock(Client.class);
+        when(client.target("http://localhost/")).thenReturn(target);
+
+        var timer = mock(Timer.class);
+        var objectMapper = new ObjectMapper();
+
+        var forwarder = new PositionForwarderJsonBatch(config, client, objectMapper, cacheManager, timer);
+
+        var resultHandler = mock(ResultHandler.class);
+
+        for (int i = 0; i < 2; i++) {
+            PositionData positionData = new PositionData();
+            positionData.setPosition(position("2016-01-01 01:02:03.000", true, 20, 30));
+            positionData.setDevice(device);
+            forwarder.forward(positionData, resultHandler);
+        }
+
+        verify(timer, times(1)).newTimeout(any(), anyLong(), any());
+
+        var entity = ArgumentCaptor.forClass(Entity.class);
+        var callback = ArgumentCaptor.forClass(InvocationCallback.class);
+        verify(asyncInvoker, times(1)).post(entity.capture(), callback.capture());
+        assertEquals(2, objectMapper.readTree((byte[]) entity.getValue().getEntity()).size());
+
+        verify(resultHandler, never()).onResult(eq(false), any());
+        callback.getValue().failed(new RuntimeException());
+        verify(resultHandler, times(2)).onResult(eq(false), any());
+
+    }
+
+}
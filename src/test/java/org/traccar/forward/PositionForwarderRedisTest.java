@@ -0,0 +1,50 @@
+package org.traccar.forward;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+import org.traccar.model.Device;
+import org.traccar.model.Position;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class PositionForwarderRedisTest {
+
+    @Test
+    public void testRejectedWrite() {
+
+        Config config = new Config();
+        config.setString(Keys.FORWARD_URL, "redis://localhost:6379");
+        config.setString(Keys.FORWARD_REDIS_BUFFER, "1");
+
+        ExecutorService executorService = mock(ExecutorService.class);
+        doThrow(new RejectedExecutionException()).when(executorService).execute(any());
+
+        var forwarder = new PositionForwarderRedis(config, new ObjectMapper(), executorService);
+
+        Device device = new Device();
+        device.setUniqueId("123456789012345");
+
+        var resultHandler = mock(ResultHandler.class);
+        for (int i = 0; i < 3; i++) {
+            PositionData positionData = new PositionData();
+            positionData.setPosition(new Position());
+            positionData.setDevice(device);
+            forwarder.forward(positionData, resultHandler);
+        }
+
+        // every rejected position fails right away and frees its place in the buffer
+        verify(resultHandler, times(3)).onResult(eq(false), isA(RejectedExecutionException.class));
+    }
+
+}
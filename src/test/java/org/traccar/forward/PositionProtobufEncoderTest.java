@@ -0,0 +1,43 @@
+package org.traccar.forward;
+
+import org.junit.jupiter.api.Test;
+import org.traccar.ProtocolTest;
+import org.traccar.model.Device;
+import org.traccar.model.Position;
+import org.traccar.protobuf.forward.PositionForward;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PositionProtobufEncoderTest extends ProtocolTest {
+
+    @Test
+    public void testEncode() throws Exception {
+
+        Position position = position("2016-01-01 01:02:03.000", true, 20, 30);
+        position.set(Position.KEY_IGNITION, true);
+        position.set(Position.KEY_ODOMETER, 1000L);
+        position.set(Position.KEY_POWER, 12.5);
+
+        Device device = new Device();
+        device.setId(1);
+        device.setUniqueId("123456789012345");
+
+        PositionData positionData = new PositionData();
+        positionData.setPosition(position);
+        positionData.setDevice(device);
+
+        PositionForward.PositionData decoded = PositionForward.PositionData.parseFrom(
+                PositionProtobufEncoder.encode(positionData));
+
+        assertEquals("123456789012345", decoded.getDevice().getUniqueId());
+        assertEquals(1451610123000L, decoded.getPosition().getFixTime());
+        assertEquals(20, decoded.getPosition().getLatitude(), 0.00001);
+        assertTrue(decoded.getPosition().getValid());
+        assertTrue(decoded.getPosition().getAttributesOrThrow(Position.KEY_IGNITION).getBooleanValue());
+        assertEquals(1000L, decoded.getPosition().getAttributesOrThrow(Position.KEY_ODOMETER).getLongValue());
+        assertEquals(12.5, decoded.getPosition().getAttributesOrThrow(Position.KEY_POWER).getDoubleValue(), 0.001);
+
+    }
+
+}
@@ -0,0 +1,90 @@
+package org.traccar.geocoder;
+
+import jakarta.json.JsonObject;
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.client.InvocationCallback;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class GeocoderCacheTest {
+
+    @Test
+    public void testGrid() {
+        var cache = new GeocoderCache(10, 20, null);
+        assertEquals(cache.getKey(55.751244, 37.618423), cache.getKey(55.751250, 37.618430));
+        assertNotEquals(cache.getKey(55.751244, 37.618423), cache.getKey(55.752244, 37.618423));
+        assertNotEquals(cache.getKey(-33.8688, 151.2093), cache.getKey(-33.8688, -151.2093));
+    }
+
+    @Test
+    public void testExact() {
+        var cache = new GeocoderCache(10, 0, null);
+        assertNotEquals(cache.getKey(55.751244, 37.618423), cache.getKey(55.751250, 37.618430));
+
+        long key = cache.getKey(55.751244, 37.618423);
+        assertNull(cache.get(key));
+        cache.put(key, "Moscow");
+        assertEquals("Moscow", cache.get(key));
+    }
+
+    @Test
+    public void testPending() {
+        var cache = new GeocoderCache(10, 20, null);
+        long key = cache.getKey(55.751244, 37.618423);
+
+        assertNull(cache.join(key));
+        var pending = cache.join(key);
+        assertNotNull(pending);
+        cache.fail(key, new GeocoderException("Error"));
+        assertTrue(pending.isCompletedExceptionally());
+        assertNull(cache.join(key));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRequestFailureReleasesCell() {
+        Client client = mock(Client.class, RETURNS_DEEP_STUBS);
+        when(client.target(anyString()).request().async().get(any(InvocationCallback.class))).thenAnswer(invocation -> {
+            invocation.<InvocationCallback<JsonObject>>getArgument(0).completed(mock(JsonObject.class));
+            return null;
+        });
+
+        JsonGeocoder geocoder = new JsonGeocoder(client, "%f,%f", 0, new AddressFormat()) {
+            @Override
+            public Address parseAddress(JsonObject json) {
+                throw new IllegalStateException("Unexpected response");
+            }
+        };
+        geocoder.setCache(new GeocoderCache(10, 20, null));
+
+        List<Throwable> errors = new ArrayList<>();
+        Geocoder.ReverseGeocoderCallback callback = new Geocoder.ReverseGeocoderCallback() {
+            @Override
+            public void onSuccess(String address) {
+            }
+
+            @Override
+            public void onFailure(Throwable e) {
+                errors.add(e);
+            }
+        };
+        geocoder.getAddress(55.751244, 37.618423, callback);
+        geocoder.getAddress(55.751250, 37.618430, callback);
+
+        assertEquals(2, errors.size());
+    }
+
+}
@@ -0,0 +1,75 @@
+package org.traccar.geocoder;
+
+import jakarta.json.JsonObject;
+import jakarta.ws.rs.client.Client;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class GeocoderLimiterTest {
+
+    @Test
+    public void testRate() {
+        var limiter = new GeocoderLimiter(2, 2, 0);
+        long time = System.nanoTime();
+        assertTrue(limiter.tryAcquire(time));
+        assertTrue(limiter.tryAcquire(time));
+        assertFalse(limiter.tryAcquire(time));
+        time += TimeUnit.MILLISECONDS.toNanos(500);
+        assertTrue(limiter.tryAcquire(time));
+        assertFalse(limiter.tryAcquire(time));
+    }
+
+    @Test
+    public void testInFlight() {
+        var limiter = new GeocoderLimiter(0, 1, 2);
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        limiter.release();
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    public void testCachedNotLimited() {
+        var cache = new GeocoderCache(10, 0, null);
+        cache.put(cache.getKey(55.751244, 37.618423), "Moscow");
+        var limiter = new GeocoderLimiter(0, 1, 1);
+        assertTrue(limiter.tryAcquire());
+
+        JsonGeocoder geocoder = new JsonGeocoder(mock(Client.class), "%f,%f", 0, new AddressFormat()) {
+            @Override
+            public Address parseAddress(JsonObject json) {
+                return null;
+            }
+        };
+        geocoder.setCache(cache);
+        geocoder.setLimiter(limiter);
+
+        assertEquals("Moscow", geocoder.getAddress(55.751244, 37.618423, null));
+        assertNull(geocoder.getAddress(-33.8688, 151.2093, null));
+
+        List<Throwable> errors = new ArrayList<>();
+        geocoder.getAddress(-33.8688, 151.2093, new Geocoder.ReverseGeocoderCallback() {
+            @Override
+            public void onSuccess(String address) {
+            }
+
+            @Override
+            public void onFailure(Throwable e) {
+                errors.add(e);
+            }
+        });
+        assertInstanceOf(GeocoderLimitException.class, errors.get(0));
+    }
+
+}
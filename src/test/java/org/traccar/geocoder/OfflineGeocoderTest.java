@@ -0,0 +1,50 @@
+package org.traccar.geocoder;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class OfflineGeocoderTest {
+
+    private OfflineGeocoder createGeocoder(String data) throws IOException {
+        return new OfflineGeocoder(new BufferedReader(new StringReader(data)), new AddressFormat("%t, %c"));
+    }
+
+    @Test
+    public void testDelimited() throws IOException {
+        var geocoder = createGeocoder("""
+                latitude,longitude,settlement,country
+                55.7558,37.6173,Moscow,RU
+                59.9343,30.3351,Saint Petersburg,RU
+                -33.8688,151.2093,Sydney,AU
+                -36.8485,174.7633,Auckland,NZ
+                invalid,row,Nowhere,XX
+                """);
+        assertEquals("Moscow, RU", geocoder.getAddress(55.7, 37.5, null));
+        assertEquals("Saint Petersburg, RU", geocoder.getAddress(60.0, 30.0, null));
+        assertEquals("Auckland, NZ", geocoder.getAddress(-36.0, 179.9, null));
+        assertEquals("Sydney, AU", geocoder.getAddress(-34.0, 150.0, null));
+    }
+
+    @Test
+    public void testGeoNames() throws IOException {
+        var geocoder = createGeocoder(String.join("\n",
+                "524901\tMoscow\tMoscow\t\t55.75222\t37.61556\tP\tPPLC\tRU\t\t48\t\t\t\t10381222\t\t144"
+                        + "\tEurope/Moscow\t2022-12-10",
+                "2147714\tSydney\tSydney\t\t-33.86785\t151.20732\tP\tPPLA\tAU\t\t02\t\t\t\t4627345\t\t58"
+                        + "\tAustralia/Sydney\t2022-12-10"));
+        assertEquals("Moscow, RU", geocoder.getAddress(55.0, 37.0, null));
+        assertEquals("Sydney, AU", geocoder.getAddress(-33.0, 151.0, null));
+    }
+
+    @Test
+    public void testMissingFile() {
+        assertThrows(IllegalArgumentException.class, () -> new OfflineGeocoder((String) null, new AddressFormat()));
+    }
+
+}
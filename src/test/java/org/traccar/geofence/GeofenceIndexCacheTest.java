@@ -0,0 +1,62 @@
+package org.traccar.geofence;
+
+import org.junit.jupiter.api.Test;
+import org.traccar.config.Config;
+import org.traccar.model.Geofence;
+import org.traccar.session.cache.CacheManager;
+
+import java.text.ParseException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class GeofenceIndexCacheTest {
+
+    private Set<Geofence> createGeofences(int count, double latitude) throws ParseException {
+        Set<Geofence> geofences = new HashSet<>();
+        for (int i = 1; i <= count; i++) {
+            Geofence geofence = new Geofence();
+            geofence.setId(i);
+            geofence.setArea("CIRCLE (" + (latitude + i) + " 0, 100)");
+            geofences.add(geofence);
+        }
+        return geofences;
+    }
+
+    @Test
+    public void testInvalidation() throws ParseException {
+        CacheManager cacheManager = mock(CacheManager.class);
+        when(cacheManager.getGeofencesVersion()).thenReturn(1L);
+        when(cacheManager.getDeviceObjects(1, Geofence.class)).thenReturn(createGeofences(40, 0));
+        when(cacheManager.getDeviceObjects(2, Geofence.class)).thenReturn(createGeofences(2, 0));
+
+        GeofenceIndexCache indexCache = new GeofenceIndexCache(mock(Config.class), cacheManager);
+
+        GeofenceIndex index = indexCache.getIndex(1);
+        assertNotNull(index);
+        assertSame(index, indexCache.getIndex(1));
+        assertEquals(List.of(1L), index.getGeofences(1, 0));
+        verify(cacheManager, times(1)).getDeviceObjects(1, Geofence.class);
+
+        assertNull(indexCache.getIndex(2));
+        assertNull(indexCache.getIndex(2));
+        verify(cacheManager, times(1)).getDeviceObjects(2, Geofence.class);
+
+        when(cacheManager.getGeofencesVersion()).thenReturn(2L);
+        when(cacheManager.getDeviceObjects(1, Geofence.class)).thenReturn(createGeofences(40, 10));
+
+        assertEquals(List.of(1L), indexCache.getIndex(1).getGeofences(11, 0));
+        assertEquals(List.of(), indexCache.getIndex(1).getGeofences(1, 0));
+        verify(cacheManager, times(2)).getDeviceObjects(1, Geofence.class);
+    }
+
+}
@@ -0,0 +1,62 @@
+package org.traccar.geofence;
+
+import org.junit.jupiter.api.Test;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+import org.traccar.model.Geofence;
+
+import java.text.ParseException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class GeofenceIndexTest {
+
+    private Geofence createGeofence(long id, String area) throws ParseException {
+        Geofence geofence = new Geofence();
+        geofence.setId(id);
+        geofence.setArea(area);
+        return geofence;
+    }
+
+    @Test
+    public void testIndex() throws ParseException {
+        Config config = mock(Config.class);
+        when(config.getDouble(Keys.GEOFENCE_POLYLINE_DISTANCE)).thenReturn(35.0);
+
+        Geofence circle = createGeofence(1, "CIRCLE (55.75414 37.6204, 100)");
+        Geofence polygon = createGeofence(2, "POLYGON ((55.75 37.61, 55.76 37.61, 55.76 37.63, 55.75 37.63))");
+        Geofence polyline = createGeofence(3, "LINESTRING (56.83777 60.59833, 56.83766 60.5968)");
+
+        GeofenceIndex index = new GeofenceIndex(config);
+        index.update(List.of(circle, polygon, polyline));
+
+        assertEquals(List.of(1L, 2L), index.getGeofences(55.75414, 37.6204).stream().sorted().toList());
+        assertEquals(List.of(2L), index.getGeofences(55.759, 37.628));
+        assertEquals(List.of(3L), index.getGeofences(56.83801, 60.59748));
+        assertTrue(index.getGeofences(0, 0).isEmpty());
+
+        Geofence moved = createGeofence(1, "CIRCLE (0 0, 100)");
+        index.update(List.of(moved, polygon));
+
+        assertEquals(List.of(2L), index.getGeofences(55.75414, 37.6204));
+        assertEquals(List.of(1L), index.getGeofences(0, 0));
+        assertTrue(index.getGeofences(56.83801, 60.59748).isEmpty());
+    }
+
+    @Test
+    public void testDateLine() throws ParseException {
+        Geofence polygon = createGeofence(1, "POLYGON ((-10 179, 10 179, 10 -179, -10 -179))");
+
+        GeofenceIndex index = new GeofenceIndex(mock(Config.class));
+        index.update(List.of(polygon));
+
+        assertEquals(List.of(1L), index.getGeofences(0, 179.5));
+        assertEquals(List.of(1L), index.getGeofences(0, -179.5));
+        assertTrue(index.getGeofences(0, 170).isEmpty());
+    }
+
+}
@@ -3,6 +3,9 @@ package org.traccar.geofence;
 import org.junit.jupiter.api.Test;
 
 import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -49,4 +52,124 @@ public class GeofencePolygonTest {
         assertFalse(geofenceGeometry.containsPoint(null, null, 50.9477, 0.5836));
     }
 
+    private static double[][] star(double latitude, double longitude, int points) {
+        double[][] vertices = new double[points * 2][];
+        for (int k = 0; k < vertices.length; k++) {
+            double angle = Math.PI * k / points;
+            double radius = k % 2 == 0 ? 1.0 : 0.4;
+            double vertexLongitude = longitude + radius * Math.cos(angle);
+            vertices[k] = new double[] {
+                    latitude + radius * Math.sin(angle),
+                    vertexLongitude > 180 ? vertexLongitude - 360 : vertexLongitude};
+        }
+        return vertices;
+    }
+
+    private static double[][] comb(double latitude, double longitude, int teeth) {
+        double[][] vertices = new double[teeth + 3][];
+        for (int k = 0; k <= teeth; k++) {
+            vertices[k] = new double[] {latitude + (k % 2 == 0 ? 1.0 : 0.5), longitude + k * (2.0 / teeth)};
+        }
+        vertices[teeth + 1] = new double[] {latitude, vertices[teeth][1]};
+        vertices[teeth + 2] = new double[] {latitude, longitude};
+        return vertices;
+    }
+
+    /**
+     * Repeated vertices form zero length edges that never cross the ray, so the shape stays the same while the vertex
+     * count decides whether and how the band index is built.
+     */
+    private static String wkt(double[][] vertices, int count) {
+        List<String> coordinates = new ArrayList<>();
+        for (int i = 0; i < vertices.length; i++) {
+            int repeat = count / vertices.length + (i < count % vertices.length ? 1 : 0);
+            for (int r = 0; r < repeat; r++) {
+                coordinates.add(vertices[i][0] + " " + vertices[i][1]);
+            }
+        }
+        return "POLYGON ((" + String.join(", ", coordinates) + "))";
+    }
+
+    private static void assertIndexedMatches(double[][] vertices, int count) throws ParseException {
+        GeofenceGeometry plain = new GeofencePolygon(wkt(vertices, vertices.length));
+        GeofenceGeometry indexed = new GeofencePolygon(wkt(vertices, count));
+
+        boolean normalize = Arrays.stream(vertices).anyMatch(vertex -> vertex[1] > 90)
+                && Arrays.stream(vertices).anyMatch(vertex -> vertex[1] < -90);
+        double minLatitude = Double.POSITIVE_INFINITY;
+        double maxLatitude = Double.NEGATIVE_INFINITY;
+        double minLongitude = Double.POSITIVE_INFINITY;
+        double maxLongitude = Double.NEGATIVE_INFINITY;
+        for (double[] vertex : vertices) {
+            double vertexLongitude = normalize && vertex[1] < -90 ? vertex[1] + 360 : vertex[1];
+            minLatitude = Math.min(minLatitude, vertex[0]);
+            maxLatitude = Math.max(maxLatitude, vertex[0]);
+            minLongitude = Math.min(minLongitude, vertexLongitude);
+            maxLongitude = Math.max(maxLongitude, vertexLongitude);
+        }
+
+        List<Double> longitudes = new ArrayList<>();
+        int bands = count / 4;
+        double bandWidth = (maxLongitude - minLongitude) / bands;
+        for (int band = 0; band <= bands; band++) {
+            double bandEdge = minLongitude + band * bandWidth;
+            longitudes.add(bandEdge);
+            longitudes.add(Math.nextUp(bandEdge));
+            longitudes.add(Math.nextDown(bandEdge));
+        }
+        for (double[] vertex : vertices) {
+            longitudes.add(vertex[1]);
+            longitudes.add(Math.nextUp(vertex[1]));
+            longitudes.add(Math.nextDown(vertex[1]));
+        }
+        for (double value = minLongitude - 0.1; value <= maxLongitude + 0.1; value += 0.0137) {
+            longitudes.add(value);
+            if (value > 180) {
+                longitudes.add(value - 360);
+            }
+        }
+
+        int inside = 0;
+        for (double latitude = minLatitude - 0.1; latitude <= maxLatitude + 0.1; latitude += 0.01) {
+            for (double longitude : longitudes) {
+                boolean expected = plain.containsPoint(null, null, latitude, longitude);
+                assertEquals(expected, indexed.containsPoint(null, null, latitude, longitude),
+                        "Mismatch at " + latitude + " " + longitude);
+                if (expected) {
+                    inside += 1;
+                }
+            }
+        }
+        assertTrue(inside > 0);
+    }
+
+    @Test
+    public void testContainsIndexedPolygon() throws ParseException {
+        double[][] vertices = star(55.75, 37.62, 30);
+        assertIndexedMatches(vertices, vertices.length * 2);
+
+        GeofenceGeometry geofenceGeometry = new GeofencePolygon(wkt(vertices, vertices.length * 2));
+        assertTrue(geofenceGeometry.containsPoint(null, null, 55.75, 37.62));
+        assertFalse(geofenceGeometry.containsPoint(
+                null, null, 55.75 + 0.7 * Math.sin(Math.PI / 30), 37.62 + 0.7 * Math.cos(Math.PI / 30)));
+    }
+
+    @Test
+    public void testContainsIndexedPolygonBandEdges() throws ParseException {
+        // vertices sit on band boundaries, 32 teeth and 128 vertices give 32 bands
+        assertIndexedMatches(comb(55.75, 37.62, 32), 128);
+    }
+
+    @Test
+    public void testContainsIndexedPolygon180() throws ParseException {
+        double[][] vertices = star(66.9, 180.0, 30);
+        assertIndexedMatches(vertices, vertices.length * 2);
+
+        GeofenceGeometry geofenceGeometry = new GeofencePolygon(wkt(vertices, vertices.length * 2));
+        assertTrue(geofenceGeometry.containsPoint(null, null, 66.9, 180.0));
+        assertTrue(geofenceGeometry.containsPoint(null, null, 66.9, -179.9));
+        assertFalse(geofenceGeometry.containsPoint(
+                null, null, 66.9 + 0.7 * Math.sin(Math.PI / 30), 180.0 - 0.7 * Math.cos(Math.PI / 30)));
+    }
+
 }
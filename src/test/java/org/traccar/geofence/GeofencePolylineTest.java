@@ -6,6 +6,8 @@ import org.traccar.config.Keys;
 import org.traccar.model.Geofence;
 
 import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -56,4 +58,94 @@ public class GeofencePolylineTest {
         assertFalse(geofenceGeometry.containsPoint(config, mock(Geofence.class), 66.9509, -179.83));
     }
 
+
+    private static double[][] meander(double latitude, double longitude, double width) {
+        double[][] vertices = new double[50][];
+        for (int run = 0; run < 10; run++) {
+            for (int k = 0; k <= 4; k++) {
+                double vertexLongitude = longitude + (run % 2 == 0 ? k : 4 - k) * (width / 4);
+                vertices[run * 5 + k] = new double[] {
+                        latitude + run * (0.9 / 9), vertexLongitude > 180 ? vertexLongitude - 360 : vertexLongitude};
+            }
+        }
+        return vertices;
+    }
+
+    /**
+     * Repeated vertices form zero length segments, so the line stays the same while the vertex count decides whether
+     * and how the grid index is built.
+     */
+    private static String wkt(double[][] vertices, int count) {
+        List<String> coordinates = new ArrayList<>();
+        for (int i = 0; i < vertices.length; i++) {
+            int repeat = count / vertices.length + (i < count % vertices.length ? 1 : 0);
+            for (int r = 0; r < repeat; r++) {
+                coordinates.add(vertices[i][0] + " " + vertices[i][1]);
+            }
+        }
+        return "LINESTRING (" + String.join(", ", coordinates) + ")";
+    }
+
+    private static void assertIndexedMatches(double[][] vertices, int count) throws ParseException {
+        GeofenceGeometry plain = new GeofencePolyline(wkt(vertices, vertices.length));
+        GeofenceGeometry indexed = new GeofencePolyline(wkt(vertices, count));
+        Config config = mock(Config.class);
+        when(config.getDouble(Keys.GEOFENCE_POLYLINE_DISTANCE)).thenReturn(2000.0);
+        Geofence geofence = mock(Geofence.class);
+
+        double minLatitude = Double.POSITIVE_INFINITY;
+        double maxLatitude = Double.NEGATIVE_INFINITY;
+        double minLongitude = Double.POSITIVE_INFINITY;
+        double maxLongitude = Double.NEGATIVE_INFINITY;
+        for (double[] vertex : vertices) {
+            minLatitude = Math.min(minLatitude, vertex[0]);
+            maxLatitude = Math.max(maxLatitude, vertex[0]);
+            minLongitude = Math.min(minLongitude, vertex[1]);
+            maxLongitude = Math.max(maxLongitude, vertex[1]);
+        }
+
+        int size = (int) Math.ceil(Math.sqrt(count - 1));
+        List<Double> latitudes = new ArrayList<>();
+        List<Double> longitudes = new ArrayList<>();
+        for (int cell = 0; cell <= size; cell++) {
+            double cellLatitude = minLatitude + cell * ((maxLatitude - minLatitude) / size);
+            double cellLongitude = minLongitude + cell * ((maxLongitude - minLongitude) / size);
+            latitudes.addAll(List.of(cellLatitude, Math.nextUp(cellLatitude), Math.nextDown(cellLatitude)));
+            longitudes.addAll(List.of(cellLongitude, Math.nextUp(cellLongitude), Math.nextDown(cellLongitude)));
+        }
+        for (double[] vertex : vertices) {
+            latitudes.add(vertex[0]);
+            longitudes.add(vertex[1]);
+        }
+        for (int step = 0; step <= 200; step++) {
+            latitudes.add(minLatitude - 0.05 + step * (maxLatitude - minLatitude + 0.1) / 200);
+            longitudes.add(minLongitude - 0.05 + step * (maxLongitude - minLongitude + 0.1) / 200);
+        }
+
+        int inside = 0;
+        for (double latitude : latitudes) {
+            for (double longitude : longitudes) {
+                boolean expected = plain.containsPoint(config, geofence, latitude, longitude);
+                assertEquals(expected, indexed.containsPoint(config, geofence, latitude, longitude),
+                        "Mismatch at " + latitude + " " + longitude);
+                if (expected) {
+                    inside += 1;
+                }
+            }
+        }
+        assertTrue(inside > 0);
+    }
+
+    @Test
+    public void testContainsIndexedPolyline() throws ParseException {
+        // 82 vertices give 81 segments and a 9 by 9 grid, so horizontal runs lie on row boundaries
+        assertIndexedMatches(meander(56.8, 60.6, 1.0), 82);
+    }
+
+    @Test
+    public void testContainsIndexedPolylineNear180() throws ParseException {
+        assertIndexedMatches(meander(66.9, 179.0, 0.99), 82);
+        assertIndexedMatches(meander(66.9, 179.5, 1.0), 82);
+    }
+
 }
@@ -0,0 +1,55 @@
+package org.traccar.geolocation;
+
+import org.junit.jupiter.api.Test;
+import org.traccar.model.CellTower;
+import org.traccar.model.Network;
+import org.traccar.model.WifiAccessPoint;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class GeolocationCacheTest {
+
+    @Test
+    public void testKey() {
+        Network first = new Network(CellTower.from(250, 1, 7723, 12345, -70));
+        first.addWifiAccessPoint(WifiAccessPoint.from("AA:BB:CC:DD:EE:01", -60));
+        first.addWifiAccessPoint(WifiAccessPoint.from("aa-bb-cc-dd-ee-02", -80));
+
+        Network second = new Network(WifiAccessPoint.from("aabbccddee02", -50));
+        second.addWifiAccessPoint(WifiAccessPoint.from("aa:bb:cc:dd:ee:01", -55));
+        second.addCellTower(CellTower.from(250, 1, 7723, 12345, -90));
+
+        assertEquals(GeolocationCache.getKey(first), GeolocationCache.getKey(second));
+
+        Network third = new Network(CellTower.from(250, 1, 7723, 12346));
+        assertNotEquals(GeolocationCache.getKey(first), GeolocationCache.getKey(third));
+
+        assertNull(GeolocationCache.getKey(new Network()));
+    }
+
+    @Test
+    public void testCache() {
+        AtomicLong time = new AtomicLong(1000);
+        var cache = new GeolocationCache(10, 50, null, time::get);
+        String key = GeolocationCache.getKey(new Network(CellTower.from(250, 1, 7723, 12345)));
+
+        assertNull(cache.get(key));
+        cache.put(key, 55.75, 37.62, 500);
+        var location = cache.get(key);
+        assertNotNull(location);
+        assertEquals(55.75, location.latitude());
+        assertEquals(500, location.accuracy());
+
+        time.addAndGet(50);
+        assertNotNull(cache.get(key));
+
+        time.addAndGet(1);
+        assertNull(cache.get(key));
+    }
+
+}
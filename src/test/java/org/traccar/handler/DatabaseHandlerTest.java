@@ -0,0 +1,53 @@
+package org.traccar.handler;
+
+import org.junit.jupiter.api.Test;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+import org.traccar.database.StatisticsManager;
+import org.traccar.model.DailySummary;
+import org.traccar.model.Position;
+import org.traccar.storage.Storage;
+import org.traccar.storage.StorageException;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class DatabaseHandlerTest {
+
+    private DatabaseHandler createHandler(Storage storage) {
+        Config config = mock(Config.class);
+        when(config.getBoolean(Keys.REPORT_ROLLUP_ENABLE)).thenReturn(true);
+        when(config.getLong(Keys.REPORT_ROLLUP_DELAY)).thenReturn(3600L);
+        return new DatabaseHandler(config, storage, mock(StatisticsManager.class));
+    }
+
+    private Position position(long time) {
+        Position position = new Position();
+        position.setDeviceId(1);
+        position.setTime(new Date(time));
+        return position;
+    }
+
+    @Test
+    public void testLatePositionInvalidatesSummary() throws StorageException {
+        Storage storage = mock(Storage.class);
+        createHandler(storage).handlePosition(
+                position(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(3)), filtered -> {});
+        verify(storage).removeObject(eq(DailySummary.class), any());
+    }
+
+    @Test
+    public void testCurrentPositionKeepsSummary() throws StorageException {
+        Storage storage = mock(Storage.class);
+        createHandler(storage).handlePosition(position(System.currentTimeMillis()), filtered -> {});
+        verify(storage, never()).removeObject(eq(DailySummary.class), any());
+    }
+
+}
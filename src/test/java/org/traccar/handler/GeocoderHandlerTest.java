@@ -0,0 +1,127 @@
+package org.traccar.handler;
+
+import io.netty.util.Timeout;
+import io.netty.util.Timer;
+import io.netty.util.TimerTask;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+import org.traccar.geocoder.Geocoder;
+import org.traccar.geocoder.GeocoderLimitException;
+import org.traccar.model.Position;
+import org.traccar.session.cache.CacheManager;
+import org.traccar.storage.Storage;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class GeocoderHandlerTest {
+
+    private Config createConfig(String policy) {
+        Config config = mock(Config.class);
+        when(config.getBoolean(Keys.GEOCODER_PROCESS_INVALID_POSITIONS)).thenReturn(true);
+        when(config.getString(Keys.GEOCODER_SHED_POLICY)).thenReturn(policy);
+        when(config.getInteger(Keys.GEOCODER_DEFER_LIMIT)).thenReturn(10);
+        return config;
+    }
+
+    private Geocoder createGeocoder() {
+        Geocoder geocoder = mock(Geocoder.class);
+        AtomicInteger requests = new AtomicInteger();
+        doAnswer(invocation -> {
+            Geocoder.ReverseGeocoderCallback callback = invocation.getArgument(2);
+            if (requests.getAndIncrement() == 0) {
+                callback.onFailure(new GeocoderLimitException(0));
+            } else {
+                callback.onSuccess("Main Street");
+            }
+            return null;
+        }).when(geocoder).getAddress(anyDouble(), anyDouble(), any());
+        return geocoder;
+    }
+
+    @Test
+    public void testDefer() throws Exception {
+        Storage storage = mock(Storage.class);
+        Timer timer = mock(Timer.class);
+        ExecutorService executorService = mock(ExecutorService.class);
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(executorService).execute(any());
+
+        GeocoderHandler handler = new GeocoderHandler(
+                createConfig("defer"), createGeocoder(), mock(CacheManager.class), storage, timer, executorService);
+
+        Position position = new Position();
+        AtomicBoolean processed = new AtomicBoolean();
+        handler.onPosition(position, filtered -> processed.set(true));
+        assertTrue(processed.get());
+        assertNull(position.getAddress());
+
+        position.setId(1);
+        ArgumentCaptor<TimerTask> task = ArgumentCaptor.forClass(TimerTask.class);
+        verify(timer).newTimeout(task.capture(), anyLong(), any());
+        task.getValue().run(mock(Timeout.class));
+
+        assertEquals("Main Street", position.getAddress());
+        verify(storage).updateObject(eq(position), any());
+    }
+
+    @Test
+    public void testDeferWaitsForStorage() throws Exception {
+        Storage storage = mock(Storage.class);
+        Timer timer = mock(Timer.class);
+        ExecutorService executorService = mock(ExecutorService.class);
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(executorService).execute(any());
+
+        GeocoderHandler handler = new GeocoderHandler(
+                createConfig("defer"), createGeocoder(), mock(CacheManager.class), storage, timer, executorService);
+
+        Position position = new Position();
+        handler.onPosition(position, filtered -> {
+        });
+
+        ArgumentCaptor<TimerTask> task = ArgumentCaptor.forClass(TimerTask.class);
+        verify(timer).newTimeout(task.capture(), anyLong(), any());
+        task.getValue().run(mock(Timeout.class));
+
+        assertNull(position.getAddress());
+        verify(storage, never()).updateObject(any(), any());
+        verify(timer, times(2)).newTimeout(any(), anyLong(), any());
+    }
+
+    @Test
+    public void testSkip() {
+        GeocoderHandler handler = new GeocoderHandler(
+                createConfig("skip"), createGeocoder(), mock(CacheManager.class), mock(Storage.class),
+                mock(Timer.class), mock(ExecutorService.class));
+
+        Position position = new Position();
+        AtomicBoolean processed = new AtomicBoolean();
+        handler.onPosition(position, filtered -> processed.set(true));
+
+        assertTrue(processed.get());
+        assertNull(position.getAddress());
+    }
+
+}
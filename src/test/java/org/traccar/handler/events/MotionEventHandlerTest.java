@@ -1,20 +1,37 @@
 package org.traccar.handler.events;
 
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatcher;
 import org.traccar.BaseTest;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+import org.traccar.model.Device;
 import org.traccar.model.Event;
+import org.traccar.model.MotionSegment;
 import org.traccar.model.Position;
+import org.traccar.model.Server;
 import org.traccar.reports.common.TripsConfig;
+import org.traccar.session.cache.CacheManager;
 import org.traccar.session.state.MotionProcessor;
 import org.traccar.session.state.MotionState;
+import org.traccar.storage.Storage;
 
 import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.TimeZone;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 public class MotionEventHandlerTest extends BaseTest {
 
@@ -109,4 +126,90 @@ public class MotionEventHandlerTest extends BaseTest {
         verifyState(state, false, 0);
     }
 
+    private MotionEventHandler createHandler(Storage storage, Device device, Position previous) {
+        Config config = mock(Config.class);
+        when(config.getBoolean(Keys.REPORT_TRIP_MATERIALIZE)).thenReturn(true);
+        CacheManager cacheManager = mock(CacheManager.class);
+        when(cacheManager.getObject(Device.class, device.getId())).thenReturn(device);
+        when(cacheManager.getPosition(device.getId())).thenReturn(previous);
+        when(cacheManager.getServer()).thenReturn(new Server());
+        when(cacheManager.getConfig()).thenReturn(config);
+        return new MotionEventHandler(config, cacheManager, storage);
+    }
+
+    private Device device(boolean moving) {
+        Device device = new Device();
+        device.setId(1);
+        device.setMotionStreak(moving);
+        device.setMotionState(moving);
+        device.set(Keys.REPORT_TRIP_MINIMAL_TRIP_DISTANCE.getKey(), 500);
+        device.set(Keys.REPORT_TRIP_MINIMAL_TRIP_DURATION.getKey(), 300);
+        device.set(Keys.REPORT_TRIP_MINIMAL_PARKING_DURATION.getKey(), 300);
+        device.set(Keys.REPORT_TRIP_MINIMAL_NO_DATA_DURATION.getKey(), 3600);
+        return device;
+    }
+
+    private Position position(long id, String time, boolean motion, double distance) throws ParseException {
+        Position position = position(time, motion, distance, null);
+        position.setId(id);
+        position.setDeviceId(1);
+        position.setValid(true);
+        return position;
+    }
+
+    private MotionSegment segment(boolean moving, long startPositionId) {
+        MotionSegment segment = new MotionSegment();
+        segment.setId(100);
+        segment.setDeviceId(1);
+        segment.setMoving(moving);
+        segment.setStartPositionId(startPositionId);
+        return segment;
+    }
+
+    private static MotionSegment segmentThat(ArgumentMatcher<MotionSegment> matcher) {
+        ArgumentMatcher<Object> segmentMatcher =
+                object -> object instanceof MotionSegment segment && matcher.matches(segment);
+        return (MotionSegment) argThat(segmentMatcher);
+    }
+
+    @Test
+    public void testSegmentOpenAndClose() throws Exception {
+        Storage storage = mock(Storage.class);
+        Position start = position(1, "2017-01-01 00:00:00", true, 0);
+        when(storage.getObject(eq(Position.class), any())).thenReturn(start);
+        when(storage.getObject(eq(MotionSegment.class), any())).thenReturn(segment(false, 1));
+
+        Device device = device(false);
+        device.setMotionState(true);
+        device.setMotionTime(start.getFixTime());
+        MotionEventHandler handler = createHandler(storage, device, start);
+
+        List<Event> events = new ArrayList<>();
+        handler.analyzePosition(position(2, "2017-01-01 00:10:00", true, 1000), events::add);
+
+        assertEquals(Event.TYPE_DEVICE_MOVING, events.get(0).getType());
+        verify(storage).updateObject(segmentThat(s -> !s.getMoving() && s.getEndPositionId() == 1), any());
+        verify(storage).addObject(segmentThat(s -> s.getMoving() && s.getStartPositionId() == 1), any());
+    }
+
+    @Test
+    public void testSegmentSplitByGap() throws Exception {
+        Storage storage = mock(Storage.class);
+        Position previous = position(5, "2017-01-01 00:00:00", true, 1000);
+        when(storage.getObject(eq(Position.class), any())).thenReturn(position(1, "2016-12-31 23:00:00", true, 0));
+        when(storage.getObject(eq(MotionSegment.class), any())).thenReturn(segment(true, 1));
+
+        MotionEventHandler handler = createHandler(storage, device(true), previous);
+
+        List<Event> events = new ArrayList<>();
+        handler.analyzePosition(position(6, "2017-01-01 02:00:00", true, 2000), events::add);
+
+        assertTrue(events.isEmpty());
+        verify(storage).updateObject(segmentThat(s -> s.getMoving() && s.getEndPositionId() == 5), any());
+        verify(storage).addObject(segmentThat(
+                s -> !s.getMoving() && s.getStartPositionId() == 5 && s.getEndPositionId() == 6), any());
+        verify(storage).addObject(segmentThat(
+                s -> s.getMoving() && s.getStartPositionId() == 6 && s.getEndPositionId() == 0), any());
+    }
+
 }
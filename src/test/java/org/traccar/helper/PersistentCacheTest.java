@@ -0,0 +1,44 @@
+package org.traccar.helper;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class PersistentCacheTest {
+
+    @Test
+    public void testMemory() {
+        var cache = new PersistentCache<Long, String>(2, 20, null, "test");
+        cache.put(1L, "a");
+        cache.put(2L, "b");
+        assertEquals("a", cache.get(1L));
+        cache.put(3L, "c");
+        assertNull(cache.get(2L));
+        assertEquals("a", cache.get(1L));
+        cache.remove(1L);
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    public void testLeastRecentlyUsed(@TempDir Path directory) {
+        String file = directory.resolve("cache.db").toString();
+
+        var cache = new PersistentCache<Long, String>(1, 2, file, "test");
+        cache.put(1L, "a");
+        cache.put(2L, "b");
+        assertEquals("a", cache.get(1L));
+        cache.put(3L, "c");
+        cache.close();
+
+        cache = new PersistentCache<>(1, 2, file, "test");
+        assertEquals("a", cache.get(1L));
+        assertNull(cache.get(2L));
+        assertEquals("c", cache.get(3L));
+        cache.close();
+    }
+
+}
@@ -0,0 +1,48 @@
+package org.traccar.reports;
+
+import org.junit.jupiter.api.Test;
+import org.traccar.ProtocolTest;
+import org.traccar.model.Position;
+import org.traccar.storage.Storage;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CsvExportProviderTest extends ProtocolTest {
+
+    @Test
+    public void testGenerate() throws Exception {
+
+        Position first = position("2016-01-01 01:02:03.000", true, 20, 30);
+        first.set(Position.KEY_IGNITION, true);
+        Position second = position("2016-01-01 01:03:03.000", true, 21, 31);
+
+        Storage storage = mock(Storage.class);
+        when(storage.getObjectsCursor(eq(Position.class), any())).thenAnswer(invocation -> Stream.of(first, second));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new CsvExportProvider(storage).generate(output, 1, new Date(0), new Date());
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\\r?\\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].endsWith(",ignition"));
+        assertTrue(lines[1].contains(",20.0,30.0,"));
+        assertTrue(lines[1].endsWith(",true"));
+        assertTrue(lines[2].endsWith(","));
+
+        verify(storage, never()).getObjectsStream(eq(Position.class), any());
+
+    }
+
+}
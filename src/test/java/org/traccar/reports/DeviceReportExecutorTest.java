@@ -0,0 +1,81 @@
+package org.traccar.reports;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+import org.traccar.model.Device;
+import org.traccar.reports.common.DeviceReportExecutor;
+import org.traccar.storage.StorageException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class DeviceReportExecutorTest {
+
+    private ExecutorService executorService;
+    private DeviceReportExecutor deviceReportExecutor;
+
+    @BeforeEach
+    public void init() {
+        executorService = Executors.newFixedThreadPool(4);
+        Config config = mock(Config.class);
+        when(config.getInteger(Keys.REPORT_PARALLELISM)).thenReturn(4);
+        when(config.getInteger(Keys.REPORT_MAX_QUERIES)).thenReturn(2);
+        deviceReportExecutor = new DeviceReportExecutor(config, executorService);
+    }
+
+    @AfterEach
+    public void shutdown() {
+        executorService.shutdownNow();
+    }
+
+    private List<Device> devices(int count) {
+        List<Device> devices = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Device device = new Device();
+            device.setId(i);
+            devices.add(device);
+        }
+        return devices;
+    }
+
+    @Test
+    public void testOrderAndConcurrency() throws Exception {
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        var result = deviceReportExecutor.execute(devices(50), device -> {
+            peak.accumulateAndGet(active.incrementAndGet(), Math::max);
+            LockSupport.parkNanos(1000000);
+            active.decrementAndGet();
+            return device.getId();
+        });
+        assertEquals(50, result.size());
+        for (int i = 0; i < result.size(); i++) {
+            assertEquals(i, result.get(i));
+        }
+        assertTrue(peak.get() <= 2);
+    }
+
+    @Test
+    public void testError() {
+        assertThrows(StorageException.class, () -> deviceReportExecutor.execute(devices(10), device -> {
+            if (device.getId() == 5) {
+                throw new StorageException("error");
+            }
+            return device.getId();
+        }));
+    }
+
+}
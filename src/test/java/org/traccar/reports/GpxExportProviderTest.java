@@ -0,0 +1,47 @@
+package org.traccar.reports;
+
+import org.junit.jupiter.api.Test;
+import org.traccar.ProtocolTest;
+import org.traccar.model.Device;
+import org.traccar.model.Position;
+import org.traccar.storage.Storage;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class GpxExportProviderTest extends ProtocolTest {
+
+    @Test
+    public void testGenerate() throws Exception {
+
+        Device device = new Device();
+        device.setName("Test");
+
+        Storage storage = mock(Storage.class);
+        when(storage.getObject(eq(Device.class), any())).thenReturn(device);
+        when(storage.getObjectsCursor(eq(Position.class), any())).thenReturn(Stream.of(
+                position("2016-01-01 01:02:03.000", true, 20, 30),
+                position("2016-01-01 01:03:03.000", true, 21, 31)));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new GpxExportProvider(storage).generate(output, 1, new Date(0), new Date());
+
+        String result = output.toString(StandardCharsets.UTF_8);
+        assertTrue(result.startsWith("<?xml"));
+        assertTrue(result.contains("<name>Test</name>"));
+        assertEquals(2, result.split("<trkpt ", -1).length - 1);
+        assertTrue(result.contains("<trkpt lat=\"20.0\" lon=\"30.0\">"));
+        assertTrue(result.endsWith("</gpx>"));
+
+    }
+
+}
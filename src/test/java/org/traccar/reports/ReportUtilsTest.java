@@ -7,24 +7,37 @@ import org.traccar.BaseTest;
 import org.traccar.api.security.PermissionsService;
 import org.traccar.config.Config;
 import org.traccar.config.Keys;
+import org.traccar.geocoder.Geocoder;
+import org.traccar.geocoder.GeocoderLimitException;
 import org.traccar.helper.model.PositionUtil;
 import org.traccar.model.Device;
+import org.traccar.model.Event;
+import org.traccar.model.MotionSegment;
 import org.traccar.model.Position;
 import org.traccar.reports.common.ReportUtils;
 import org.traccar.reports.model.StopReportItem;
 import org.traccar.reports.model.TripReportItem;
 import org.traccar.storage.Storage;
 import org.traccar.storage.StorageException;
+import org.traccar.storage.query.Columns;
+import org.traccar.storage.query.Condition;
+import org.traccar.storage.query.Request;
 
 import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.TimeZone;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -32,8 +45,14 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class ReportUtilsTest extends BaseTest {
@@ -114,7 +133,7 @@ public class ReportUtilsTest extends BaseTest {
                 position("2016-01-01 00:05:00.000", 0, 3000),
                 position("2016-01-01 00:15:00.000", 0, 3000),
                 position("2016-01-01 00:25:00.000", 0, 3000));
-        when(storage.getObjectsStream(eq(Position.class), any())).thenReturn(data);
+        when(storage.getObjectsCursor(eq(Position.class), any())).thenReturn(data);
 
         Device device = mockDevice(500, 300, 180, 900, false);
         ReportUtils reportUtils = new ReportUtils(
@@ -146,7 +165,7 @@ public class ReportUtilsTest extends BaseTest {
                 position("2016-01-01 00:05:00.000", 0, 3000),
                 position("2016-01-01 00:15:00.000", 0, 3000),
                 position("2016-01-01 00:25:00.000", 0, 3000));
-        when(storage.getObjectsStream(eq(Position.class), any())).thenReturn(data);
+        when(storage.getObjectsCursor(eq(Position.class), any())).thenReturn(data);
 
         Device device = mockDevice(500, 300, 180, 900, false);
         ReportUtils reportUtils = new ReportUtils(
@@ -184,7 +203,7 @@ public class ReportUtilsTest extends BaseTest {
                 position("2016-01-01 00:05:00.000", 0, 3000),
                 position("2016-01-01 00:15:00.000", 0, 3000),
                 position("2016-01-01 00:25:00.000", 0, 3000));
-        when(storage.getObjectsStream(eq(Position.class), any())).thenReturn(data.stream());
+        when(storage.getObjectsCursor(eq(Position.class), any())).thenReturn(data.stream());
 
         data.get(5).set(Position.KEY_IGNITION, false);
 
@@ -218,7 +237,7 @@ public class ReportUtilsTest extends BaseTest {
                 position("2016-01-01 00:05:00.000", 0, 3000),
                 position("2016-01-01 00:15:00.000", 0, 3000),
                 position("2016-01-01 00:25:00.000", 0, 3000));
-        when(storage.getObjectsStream(eq(Position.class), any())).thenReturn(data.stream());
+        when(storage.getObjectsCursor(eq(Position.class), any())).thenReturn(data.stream());
 
         data.get(5).set(Position.KEY_IGNITION, false);
         Device device = mockDevice(500, 300, 180, 900, true);
@@ -262,7 +281,7 @@ public class ReportUtilsTest extends BaseTest {
                 position("2016-01-01 00:09:00.000", 0, 7000),
                 position("2016-01-01 00:19:00.000", 0, 7000),
                 position("2016-01-01 00:29:00.000", 0, 7000));
-        when(storage.getObjectsStream(eq(Position.class), any())).thenReturn(data);
+        when(storage.getObjectsCursor(eq(Position.class), any())).thenReturn(data);
 
         Device device = mockDevice(500, 300, 180, 900, false);
         ReportUtils reportUtils = new ReportUtils(
@@ -298,7 +317,7 @@ public class ReportUtilsTest extends BaseTest {
             position("2016-01-01 00:09:00.000", 0, 7000),
             position("2016-01-01 00:19:00.000", 0, 7000),
             position("2016-01-01 00:29:00.000", 0, 7000));
-        when(storage.getObjectsStream(eq(Position.class), any())).thenReturn(data);
+        when(storage.getObjectsCursor(eq(Position.class), any())).thenReturn(data);
         Device device = mockDevice(500, 300, 180, 900, false);
         ReportUtils reportUtils = new ReportUtils(
                 mock(Config.class), storage, mock(PermissionsService.class), mock(VelocityEngine.class), null);
@@ -334,7 +353,7 @@ public class ReportUtilsTest extends BaseTest {
                 position("2016-01-01 00:03:00.000", 0, 0),
                 position("2016-01-01 00:04:00.000", 1, 0),
                 position("2016-01-01 00:05:00.000", 0, 0));
-        when(storage.getObjectsStream(eq(Position.class), any())).thenReturn(data);
+        when(storage.getObjectsCursor(eq(Position.class), any())).thenReturn(data);
 
         Device device = mockDevice(500, 300, 200, 900, false);
         ReportUtils reportUtils = new ReportUtils(
@@ -363,7 +382,7 @@ public class ReportUtilsTest extends BaseTest {
                 position("2016-01-01 00:03:00.000", 0, 0),
                 position("2016-01-01 00:04:00.000", 1, 0),
                 position("2016-01-01 00:05:00.000", 2, 0));
-        when(storage.getObjectsStream(eq(Position.class), any())).thenReturn(data);
+        when(storage.getObjectsCursor(eq(Position.class), any())).thenReturn(data);
 
         Device device = mockDevice(500, 300, 200, 900, false);
         ReportUtils reportUtils = new ReportUtils(
@@ -392,7 +411,7 @@ public class ReportUtilsTest extends BaseTest {
                 position("2016-01-01 00:12:00.000", 0, 0),
                 position("2016-01-01 00:22:00.000", 0, 0),
                 position("2016-01-01 00:32:00.000", 0, 0));
-        when(storage.getObjectsStream(eq(Position.class), any())).thenReturn(data);
+        when(storage.getObjectsCursor(eq(Position.class), any())).thenReturn(data);
 
         Device device = mockDevice(500, 300, 200, 900, false);
         ReportUtils reportUtils = new ReportUtils(
@@ -446,7 +465,7 @@ public class ReportUtilsTest extends BaseTest {
                 position("2016-01-01 00:23:00.000", 2, 700),
                 position("2016-01-01 00:24:00.000", 5, 800),
                 position("2016-01-01 00:25:00.000", 5, 900));
-        when(storage.getObjectsStream(eq(Position.class), any())).thenReturn(data);
+        when(storage.getObjectsCursor(eq(Position.class), any())).thenReturn(data);
 
         Device device = mockDevice(500, 200, 200, 900, false);
         ReportUtils reportUtils = new ReportUtils(
@@ -478,7 +497,7 @@ public class ReportUtilsTest extends BaseTest {
                 position("2016-01-01 00:23:00.000", 2, 700),
                 position("2016-01-01 00:24:00.000", 5, 800),
                 position("2016-01-01 00:25:00.000", 5, 900));
-        when(storage.getObjectsStream(eq(Position.class), any())).thenReturn(data);
+        when(storage.getObjectsCursor(eq(Position.class), any())).thenReturn(data);
         ReportUtils reportUtils = new ReportUtils(
                 mock(Config.class), storage, mock(PermissionsService.class), mock(VelocityEngine.class), null);
         Device device = mockDevice(500, 200, 200, 900, false);
@@ -494,4 +513,257 @@ public class ReportUtilsTest extends BaseTest {
         assertEquals(1200000, itemStop.getDuration());
     }
 
+    @Test
+    public void testDetectTripsClosesStream() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        var data = Stream.of(
+                position("2016-01-01 00:00:00.000", 0, 0),
+                position("2016-01-01 00:01:00.000", 10, 0),
+                position("2016-01-01 00:10:00.000", 10, 5000))
+                .onClose(() -> closed.set(true));
+        when(storage.getObjectsCursor(eq(Position.class), any())).thenReturn(data);
+        ReportUtils reportUtils = new ReportUtils(
+                mock(Config.class), storage, mock(PermissionsService.class), mock(VelocityEngine.class), null);
+        Device device = mockDevice(500, 300, 180, 900, false);
+        var trips = reportUtils.slowTripsAndStops(device, new Date(), new Date(), TripReportItem.class);
+
+        assertEquals(1, trips.size());
+        assertEquals(date("2016-01-01 00:01:00.000"), trips.get(0).getStartTime());
+        assertEquals(date("2016-01-01 00:10:00.000"), trips.get(0).getEndTime());
+        assertTrue(closed.get());
+    }
+
+    @Test
+    public void testDetectTripsGeocodesOnce() throws Exception {
+
+        Stream<Position> data = Stream.of(
+                position("2016-01-01 00:00:00.000", 0, 0),
+                position("2016-01-01 00:01:00.000", 0, 0),
+                position("2016-01-01 00:02:00.000", 10, 0),
+                position("2016-01-01 00:03:00.000", 10, 1000),
+                position("2016-01-01 00:04:00.000", 10, 2000),
+                position("2016-01-01 00:05:00.000", 0, 3000),
+                position("2016-01-01 00:15:00.000", 0, 3000),
+                position("2016-01-01 00:25:00.000", 0, 3000));
+        when(storage.getObjectsCursor(eq(Position.class), any())).thenReturn(data);
+
+        Config config = mock(Config.class);
+        when(config.getBoolean(Keys.GEOCODER_ON_REQUEST)).thenReturn(true);
+        Geocoder geocoder = mock(Geocoder.class);
+        doAnswer(invocation -> {
+            invocation.<Geocoder.ReverseGeocoderCallback>getArgument(2).onSuccess("Main Street");
+            return null;
+        }).when(geocoder).getAddress(anyDouble(), anyDouble(), any());
+
+        Device device = mockDevice(500, 300, 180, 900, false);
+        ReportUtils reportUtils = new ReportUtils(
+                config, storage, mock(PermissionsService.class), mock(VelocityEngine.class), geocoder);
+
+        Date time = new Date();
+        var trips = reportUtils.detectTripsAndStops(device, time, time, TripReportItem.class);
+        verify(geocoder, never()).getAddress(anyDouble(), anyDouble(), any());
+
+        reportUtils.resolveAddresses(trips);
+
+        assertEquals(1, trips.size());
+        assertEquals("Main Street", trips.get(0).getStartAddress());
+        assertEquals("Main Street", trips.get(0).getEndAddress());
+        verify(geocoder, times(1)).getAddress(anyDouble(), anyDouble(), any());
+    }
+
+    private TripReportItem trip(double startLat, double endLat) {
+        TripReportItem trip = new TripReportItem();
+        trip.setStartLat(startLat);
+        trip.setEndLat(endLat);
+        return trip;
+    }
+
+    @Test
+    public void testResolveAddressesBoundsRequests() throws Exception {
+
+        Config config = mock(Config.class);
+        when(config.getBoolean(Keys.GEOCODER_ON_REQUEST)).thenReturn(true);
+        Geocoder geocoder = mock(Geocoder.class);
+        ExecutorService executorService = Executors.newCachedThreadPool();
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        doAnswer(invocation -> {
+            Geocoder.ReverseGeocoderCallback callback = invocation.getArgument(2);
+            peak.accumulateAndGet(active.incrementAndGet(), Math::max);
+            executorService.execute(() -> {
+                LockSupport.parkNanos(1000000);
+                active.decrementAndGet();
+                callback.onSuccess("Main Street");
+            });
+            return null;
+        }).when(geocoder).getAddress(anyDouble(), anyDouble(), any());
+
+        ReportUtils reportUtils = new ReportUtils(
+                config, storage, mock(PermissionsService.class), mock(VelocityEngine.class), geocoder);
+
+        List<TripReportItem> trips = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            trips.add(trip(i, i + 1000));
+        }
+        try {
+            reportUtils.resolveAddresses(trips);
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        assertTrue(trips.stream().allMatch(trip -> "Main Street".equals(trip.getEndAddress())));
+        assertTrue(peak.get() <= 8);
+        verify(geocoder, times(200)).getAddress(anyDouble(), anyDouble(), any());
+    }
+
+    @Test
+    public void testResolveAddressesRetriesLimited() {
+
+        Config config = mock(Config.class);
+        when(config.getBoolean(Keys.GEOCODER_ON_REQUEST)).thenReturn(true);
+        Geocoder geocoder = mock(Geocoder.class);
+        AtomicInteger requests = new AtomicInteger();
+        doAnswer(invocation -> {
+            Geocoder.ReverseGeocoderCallback callback = invocation.getArgument(2);
+            if (requests.incrementAndGet() == 1) {
+                callback.onFailure(new GeocoderLimitException(0));
+            } else {
+                callback.onSuccess("Address " + invocation.getArgument(0));
+            }
+            return null;
+        }).when(geocoder).getAddress(anyDouble(), anyDouble(), any());
+
+        ReportUtils reportUtils = new ReportUtils(
+                config, storage, mock(PermissionsService.class), mock(VelocityEngine.class), geocoder);
+
+        // trips of different devices share locations, so they are geocoded once for the whole report
+        var trips = List.of(trip(1, 2), trip(2, 1), trip(1, 2));
+        reportUtils.resolveAddresses(trips);
+
+        assertEquals("Address 1.0", trips.get(0).getStartAddress());
+        assertEquals("Address 2.0", trips.get(0).getEndAddress());
+        assertEquals("Address 2.0", trips.get(1).getStartAddress());
+        assertEquals("Address 1.0", trips.get(2).getStartAddress());
+        assertEquals(3, requests.get());
+    }
+
+    private Event event(String type, long positionId) {
+        Event event = new Event(type, 1);
+        event.setPositionId(positionId);
+        return event;
+    }
+
+    @Test
+    public void testFastTripsAndStopsLoadsPositionsOnce() throws Exception {
+
+        when(storage.getObjects(eq(Event.class), any())).thenReturn(List.of(
+                event(Event.TYPE_DEVICE_MOVING, 1),
+                event(Event.TYPE_DEVICE_STOPPED, 2),
+                event(Event.TYPE_DEVICE_MOVING, 3),
+                event(Event.TYPE_DEVICE_STOPPED, 4)));
+
+        List<Position> positions = List.of(
+                position("2016-01-01 00:00:00.000", 10, 0),
+                position("2016-01-01 00:10:00.000", 0, 1000),
+                position("2016-01-01 00:20:00.000", 10, 1000),
+                position("2016-01-01 00:30:00.000", 0, 3000));
+        for (int i = 0; i < positions.size(); i++) {
+            positions.get(i).setId(i + 1);
+        }
+        when(storage.getObjectsStream(eq(Position.class), any())).thenReturn(positions.stream());
+
+        Device device = mockDevice(500, 300, 180, 900, false);
+        ReportUtils reportUtils = new ReportUtils(
+                mock(Config.class), storage, mock(PermissionsService.class), mock(VelocityEngine.class), null);
+
+        var trips = reportUtils.fastTripsAndStops(device, new Date(), new Date(), TripReportItem.class);
+
+        assertEquals(2, trips.size());
+        assertEquals(1, trips.get(0).getStartPositionId());
+        assertEquals(2, trips.get(0).getEndPositionId());
+        assertEquals(2000, trips.get(1).getDistance(), 0.01);
+        verify(storage, times(1)).getObjectsStream(eq(Position.class), any());
+        verify(storage, never()).getObject(eq(Position.class), any());
+    }
+
+    private MotionSegment segment(long id, String start, String end) throws ParseException {
+        MotionSegment segment = new MotionSegment();
+        segment.setId(id);
+        segment.setMoving(true);
+        segment.setStartPositionId(id * 10);
+        segment.setStartTime(date(start));
+        if (end != null) {
+            segment.setEndPositionId(id * 10 + 1);
+            segment.setEndTime(date(end));
+        }
+        return segment;
+    }
+
+    private static Request ordered(boolean descending) {
+        return argThat(request -> request != null && request.getOrder() != null
+                && request.getOrder().getDescending() == descending);
+    }
+
+    @Test
+    public void testStoredTripsClippedToPeriod() throws Exception {
+
+        when(storage.getObject(eq(MotionSegment.class), ordered(false)))
+                .thenReturn(segment(1, "2016-01-01 09:30:00.000", "2016-01-01 10:30:00.000"));
+        when(storage.getObject(eq(MotionSegment.class), ordered(true)))
+                .thenReturn(segment(3, "2016-01-01 11:45:00.000", null));
+        when(storage.getObjects(eq(MotionSegment.class), any())).thenReturn(List.of(
+                segment(1, "2016-01-01 09:30:00.000", "2016-01-01 10:30:00.000"),
+                segment(2, "2016-01-01 11:00:00.000", "2016-01-01 11:15:00.000")));
+        when(storage.getObject(eq(Position.class), any())).thenAnswer(invocation -> {
+            Request request = invocation.getArgument(1);
+            if (request.getColumns() instanceof Columns.Aggregate) {
+                return position("2016-01-01 00:00:00.000", 50, 0);
+            }
+            var between = (Condition.Between) ((Condition.And) request.getCondition()).getSecond();
+            Date time = (Date) (request.getOrder().getDescending() ? between.getToValue() : between.getFromValue());
+            Position position = new Position();
+            position.setId(time.getTime());
+            position.setTime(time);
+            return position;
+        });
+
+        Config config = mock(Config.class);
+        when(config.getBoolean(Keys.REPORT_TRIP_MATERIALIZE)).thenReturn(true);
+        Device device = mockDevice(500, 300, 180, 900, false);
+        ReportUtils reportUtils = new ReportUtils(
+                config, storage, mock(PermissionsService.class), mock(VelocityEngine.class), null);
+
+        var trips = reportUtils.detectTripsAndStops(
+                device, date("2016-01-01 10:00:00.000"), date("2016-01-01 12:00:00.000"), TripReportItem.class);
+
+        assertEquals(3, trips.size());
+        assertEquals(date("2016-01-01 10:00:00.000"), trips.get(0).getStartTime());
+        assertEquals(date("2016-01-01 10:30:00.000"), trips.get(0).getEndTime());
+        assertEquals(50, trips.get(0).getMaxSpeed());
+        assertEquals(20, trips.get(1).getStartPositionId());
+        assertEquals(date("2016-01-01 11:45:00.000"), trips.get(2).getStartTime());
+        assertEquals(date("2016-01-01 12:00:00.000"), trips.get(2).getEndTime());
+        verify(storage, never()).getObjects(eq(Event.class), any());
+    }
+
+    @Test
+    public void testStoredTripsFallback() throws Exception {
+
+        when(storage.getObject(eq(MotionSegment.class), any()))
+                .thenReturn(segment(1, "2016-01-01 11:00:00.000", null));
+
+        Config config = mock(Config.class);
+        when(config.getBoolean(Keys.REPORT_TRIP_MATERIALIZE)).thenReturn(true);
+        Device device = mockDevice(500, 300, 180, 900, false);
+        ReportUtils reportUtils = new ReportUtils(
+                config, storage, mock(PermissionsService.class), mock(VelocityEngine.class), null);
+
+        var trips = reportUtils.detectTripsAndStops(
+                device, date("2016-01-01 10:00:00.000"), date("2016-01-01 12:00:00.000"), TripReportItem.class);
+
+        assertTrue(trips.isEmpty());
+        verify(storage).getObjects(eq(Event.class), any());
+        verify(storage, never()).getObjects(eq(MotionSegment.class), any());
+    }
+
 }
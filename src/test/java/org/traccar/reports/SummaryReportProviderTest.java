@@ -0,0 +1,169 @@
+package org.traccar.reports;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.traccar.api.security.PermissionsService;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+import org.traccar.model.DailySummary;
+import org.traccar.model.Device;
+import org.traccar.model.Group;
+import org.traccar.model.Position;
+import org.traccar.model.Server;
+import org.traccar.model.User;
+import org.traccar.reports.common.DeviceReportExecutor;
+import org.traccar.reports.common.ReportUtils;
+import org.traccar.reports.model.SummaryReportItem;
+import org.traccar.storage.Storage;
+import org.traccar.storage.StorageException;
+import org.traccar.storage.query.Columns;
+import org.traccar.storage.query.Request;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class SummaryReportProviderTest {
+
+    private ExecutorService executorService;
+    private Storage storage;
+    private Device device;
+    private SummaryReportProvider summaryReportProvider;
+
+    @BeforeEach
+    public void init() throws StorageException {
+        executorService = Executors.newSingleThreadExecutor();
+        Config config = mock(Config.class);
+        when(config.getBoolean(Keys.REPORT_ROLLUP_ENABLE)).thenReturn(true);
+        when(config.getInteger(Keys.REPORT_PARALLELISM)).thenReturn(1);
+        when(config.getInteger(Keys.REPORT_MAX_QUERIES)).thenReturn(1);
+        when(config.getLong(Keys.REPORT_FAST_THRESHOLD)).thenReturn(86400L * 7);
+
+        Server server = new Server();
+        server.set("timezone", "UTC");
+        PermissionsService permissionsService = mock(PermissionsService.class);
+        when(permissionsService.getServer()).thenReturn(server);
+        when(permissionsService.getUser(1)).thenReturn(new User());
+
+        device = new Device();
+        device.setId(1);
+        device.setName("test");
+
+        storage = mock(Storage.class);
+        when(storage.getObjects(eq(Device.class), any())).thenReturn(List.of(device));
+        when(storage.getObjects(eq(Group.class), any())).thenReturn(List.of());
+
+        summaryReportProvider = new SummaryReportProvider(
+                config, mock(ReportUtils.class), new DeviceReportExecutor(config, executorService),
+                permissionsService, storage);
+    }
+
+    @AfterEach
+    public void shutdown() {
+        executorService.shutdownNow();
+    }
+
+    private Date date(String time) {
+        return Date.from(Instant.parse(time));
+    }
+
+    private DailySummary summary(String day, double maxSpeed) {
+        DailySummary summary = new DailySummary();
+        summary.setDeviceId(device.getId());
+        summary.setDayStart(date(day));
+        summary.setStartTime(date(day));
+        summary.setEndTime(new Date(date(day).getTime() + 1000));
+        summary.setDistance(1000);
+        summary.setMaxSpeed(maxSpeed);
+        return summary;
+    }
+
+    private Position position(double speed) {
+        Position position = new Position();
+        position.setDeviceId(device.getId());
+        position.setTime(date("2026-01-01T12:00:00Z"));
+        position.setSpeed(speed);
+        return position;
+    }
+
+    private static Request aggregate() {
+        return argThat(request -> request != null && request.getColumns() instanceof Columns.Aggregate);
+    }
+
+    private static Request edge() {
+        return argThat(request -> request != null && !(request.getColumns() instanceof Columns.Aggregate));
+    }
+
+    @Test
+    public void testDailyFromRollups() throws StorageException {
+        when(storage.getObjects(eq(DailySummary.class), any())).thenReturn(List.of(
+                summary("2026-01-01T00:00:00Z", 50), summary("2026-01-02T00:00:00Z", 80)));
+
+        var result = new ArrayList<>(summaryReportProvider.getObjects(
+                1, List.of(device.getId()), List.of(),
+                date("2026-01-01T00:00:00Z"), date("2026-01-03T00:00:00Z"), true));
+
+        assertEquals(2, result.size());
+        assertEquals(50, result.get(0).getMaxSpeed());
+        assertEquals(80, result.get(1).getMaxSpeed());
+        assertEquals(1000, result.get(1).getDistance());
+        verify(storage, never()).getObject(eq(Position.class), aggregate());
+        verify(storage, times(2)).getObject(eq(Position.class), edge());
+    }
+
+    @Test
+    public void testDailyMissingRollup() throws StorageException {
+        when(storage.getObjects(eq(DailySummary.class), any())).thenReturn(List.of(
+                summary("2026-01-01T00:00:00Z", 50)));
+
+        summaryReportProvider.getObjects(
+                1, List.of(device.getId()), List.of(),
+                date("2026-01-01T00:00:00Z"), date("2026-01-03T00:00:00Z"), true);
+
+        verify(storage, times(4)).getObject(eq(Position.class), edge());
+    }
+
+    @Test
+    public void testMaxSpeedFromRollups() throws StorageException {
+        when(storage.getObjects(eq(DailySummary.class), any())).thenReturn(List.of(
+                summary("2026-01-02T00:00:00Z", 50), summary("2026-01-03T00:00:00Z", 80)));
+        when(storage.getObject(eq(Position.class), edge())).thenReturn(position(10));
+        when(storage.getObject(eq(Position.class), aggregate())).thenReturn(position(60));
+
+        Collection<SummaryReportItem> result = summaryReportProvider.calculateDeviceResult(
+                device, date("2026-01-01T12:00:00Z"), date("2026-01-04T12:00:00Z"), true);
+
+        assertEquals(80, result.iterator().next().getMaxSpeed());
+        verify(storage, times(2)).getObject(eq(Position.class), aggregate());
+    }
+
+    @Test
+    public void testMaxSpeedMissingRollup() throws StorageException {
+        when(storage.getObjects(eq(DailySummary.class), any())).thenReturn(List.of(
+                summary("2026-01-02T00:00:00Z", 50)));
+        when(storage.getObject(eq(Position.class), edge())).thenReturn(position(10));
+        when(storage.getObject(eq(Position.class), aggregate())).thenReturn(position(60));
+
+        Collection<SummaryReportItem> result = summaryReportProvider.calculateDeviceResult(
+                device, date("2026-01-01T12:00:00Z"), date("2026-01-04T12:00:00Z"), false);
+
+        assertEquals(60, result.iterator().next().getMaxSpeed());
+        verify(storage, times(1)).getObject(eq(Position.class), aggregate());
+    }
+
+}
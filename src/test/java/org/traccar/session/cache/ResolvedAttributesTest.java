@@ -0,0 +1,105 @@
+package org.traccar.session.cache;
+
+import org.junit.jupiter.api.Test;
+import org.traccar.broadcast.BroadcastService;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+import org.traccar.helper.model.AttributeUtil;
+import org.traccar.model.Device;
+import org.traccar.model.Group;
+import org.traccar.model.ObjectOperation;
+import org.traccar.model.Server;
+import org.traccar.storage.Storage;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ResolvedAttributesTest {
+
+    private Server server;
+    private Group group;
+    private Device device;
+
+    private Server createServer(Map<String, Object> attributes) {
+        Server server = new Server();
+        server.setId(1);
+        server.setAttributes(attributes);
+        return server;
+    }
+
+    private Group createGroup(Map<String, Object> attributes) {
+        Group group = new Group();
+        group.setId(2);
+        group.setAttributes(attributes);
+        return group;
+    }
+
+    private Device createDevice(Map<String, Object> attributes) {
+        Device device = new Device();
+        device.setId(3);
+        device.setGroupId(2);
+        device.setAttributes(attributes);
+        return device;
+    }
+
+    @Test
+    public void testComputeIfAbsent() {
+        ResolvedAttributes resolved = new ResolvedAttributes();
+        AtomicInteger calls = new AtomicInteger();
+
+        assertEquals(10.0, resolved.computeIfAbsent(Keys.EVENT_OVERSPEED_LIMIT, () -> {
+            calls.incrementAndGet();
+            return 10.0;
+        }));
+        assertEquals(10.0, resolved.computeIfAbsent(Keys.EVENT_OVERSPEED_LIMIT, () -> 20.0));
+
+        assertNull(resolved.computeIfAbsent(Keys.DEVICE_PASSWORD, () -> {
+            calls.incrementAndGet();
+            return null;
+        }));
+        assertNull(resolved.computeIfAbsent(Keys.DEVICE_PASSWORD, () -> "password"));
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void testInvalidation() throws Exception {
+        Storage storage = mock(Storage.class);
+        when(storage.getObject(eq(Server.class), any())).thenAnswer(invocation -> server);
+        when(storage.getObject(eq(Group.class), any())).thenAnswer(invocation -> group);
+        when(storage.getObject(eq(Device.class), any())).thenAnswer(invocation -> device);
+
+        server = createServer(Map.of("speedLimit", 10.0));
+        group = createGroup(Map.of());
+        device = createDevice(Map.of());
+
+        CacheManager cacheManager = new CacheManager(mock(Config.class), storage, mock(BroadcastService.class));
+        cacheManager.addDevice(device.getId(), this);
+
+        assertEquals(10.0, AttributeUtil.lookup(cacheManager, Keys.EVENT_OVERSPEED_LIMIT, device.getId()));
+
+        server = createServer(Map.of("speedLimit", 20.0));
+        assertEquals(10.0, AttributeUtil.lookup(cacheManager, Keys.EVENT_OVERSPEED_LIMIT, device.getId()));
+        cacheManager.invalidateObject(false, Server.class, server.getId(), ObjectOperation.UPDATE);
+        assertEquals(20.0, AttributeUtil.lookup(cacheManager, Keys.EVENT_OVERSPEED_LIMIT, device.getId()));
+
+        group = createGroup(Map.of("speedLimit", 30.0));
+        cacheManager.invalidateObject(false, Group.class, group.getId(), ObjectOperation.UPDATE);
+        assertEquals(30.0, AttributeUtil.lookup(cacheManager, Keys.EVENT_OVERSPEED_LIMIT, device.getId()));
+
+        device = createDevice(Map.of("speedLimit", 40.0));
+        cacheManager.invalidateObject(false, Device.class, device.getId(), ObjectOperation.UPDATE);
+        assertEquals(40.0, AttributeUtil.lookup(cacheManager, Keys.EVENT_OVERSPEED_LIMIT, device.getId()));
+
+        cacheManager.removeDevice(device.getId(), this);
+        assertNull(cacheManager.getResolvedAttributes(device.getId()));
+    }
+
+}
@@ -0,0 +1,79 @@
+package org.traccar.speedlimit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+import org.traccar.helper.UnitsConverter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class OfflineSpeedLimitProviderTest {
+
+    private static final String DATA = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <osm version="0.6">
+              <node id="1" lat="55.7500" lon="37.6000"/>
+              <node id="2" lat="55.7500" lon="37.6100"/>
+              <node id="3" lat="55.7600" lon="37.6100"/>
+              <node id="4" lat="55.7000" lon="37.5000"/>
+              <way id="10">
+                <nd ref="1"/>
+                <nd ref="2"/>
+                <tag k="highway" v="primary"/>
+                <tag k="maxspeed" v="60"/>
+              </way>
+              <way id="11">
+                <nd ref="2"/>
+                <nd ref="3"/>
+                <tag k="maxspeed" v="30 mph"/>
+              </way>
+              <way id="12">
+                <nd ref="1"/>
+                <nd ref="4"/>
+                <tag k="highway" v="residential"/>
+              </way>
+            </osm>
+            """;
+
+    private double result;
+
+    @Test
+    public void testOffline(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("roads.osm");
+        Files.writeString(file, DATA);
+
+        Config config = mock(Config.class);
+        when(config.getInteger(Keys.SPEED_LIMIT_ACCURACY)).thenReturn(50);
+        var provider = new OfflineSpeedLimitProvider(config, file.toString());
+
+        var callback = new SpeedLimitProvider.SpeedLimitProviderCallback() {
+            @Override
+            public void onSuccess(double speedLimit) {
+                result = speedLimit;
+            }
+
+            @Override
+            public void onFailure(Throwable e) {
+                result = -1;
+            }
+        };
+
+        provider.getSpeedLimit(55.7501, 37.6050, callback);
+        assertEquals(UnitsConverter.knotsFromKph(60), result, 0.01);
+
+        provider.getSpeedLimit(55.7550, 37.6101, callback);
+        assertEquals(UnitsConverter.knotsFromMph(30), result, 0.01);
+
+        provider.getSpeedLimit(55.7250, 37.5500, callback);
+        assertTrue(result < 0);
+    }
+
+}